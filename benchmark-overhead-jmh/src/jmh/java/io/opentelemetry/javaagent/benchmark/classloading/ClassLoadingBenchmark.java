@@ -0,0 +1,154 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.benchmark.classloading;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long it takes to load all classes of the Spring jars on the class path in a new
+ * class loader, which approximates the overhead the agent adds to application startup. The number
+ * of type matchers that the agent evaluated for the loaded classes is reported as a secondary
+ * result.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClassLoadingBenchmark {
+
+  // instrumentation-api is relocated in the agent jar
+  private static final String SUPPORTABILITY_METRICS_CLASS =
+      "io.opentelemetry.javaagent.shaded.instrumentation.api.internal.SupportabilityMetrics";
+
+  private URL[] urls;
+  private List<String> classNames;
+
+  @Setup
+  public void setup() throws IOException {
+    List<URL> jars = new ArrayList<>();
+    classNames = new ArrayList<>();
+    for (File jar : springJars()) {
+      jars.add(jar.toURI().toURL());
+      classNames.addAll(classNames(jar));
+    }
+    urls = jars.toArray(new URL[0]);
+  }
+
+  static List<File> springJars() {
+    List<File> jars = new ArrayList<>();
+    for (String path : System.getProperty("java.class.path").split(File.pathSeparator)) {
+      File file = new File(path);
+      if (file.getName().startsWith("spring-") && file.getName().endsWith(".jar")) {
+        jars.add(file);
+      }
+    }
+    return jars;
+  }
+
+  static List<String> classNames(File jar) throws IOException {
+    List<String> classNames = new ArrayList<>();
+    try (JarFile jarFile = new JarFile(jar)) {
+      Enumeration<JarEntry> entries = jarFile.entries();
+      while (entries.hasMoreElements()) {
+        String name = entries.nextElement().getName();
+        if (name.endsWith(".class")
+            && !name.startsWith("META-INF/")
+            && !name.endsWith("module-info.class")
+            && !name.endsWith("package-info.class")) {
+          classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+        }
+      }
+    }
+    return classNames;
+  }
+
+  @Benchmark
+  public int loadClasses(TypeMatcherCounters counters) throws IOException {
+    long before = counters.read();
+    int loaded = loadClasses(urls, classNames);
+    counters.typeMatcherInvocations += counters.read() - before;
+    return loaded;
+  }
+
+  static int loadClasses(URL[] urls, List<String> classNames) throws IOException {
+    int loaded = 0;
+    try (URLClassLoader classLoader =
+        new URLClassLoader(urls, ClassLoader.getPlatformClassLoader())) {
+      for (String className : classNames) {
+        try {
+          Class.forName(className, false, classLoader);
+          loaded++;
+        } catch (Throwable ignored) {
+          // optional dependencies of the class are missing
+        }
+      }
+    }
+    return loaded;
+  }
+
+  /** Reads the type matcher invocations counted by the agent, zero when the agent is disabled. */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class TypeMatcherCounters {
+    public long typeMatcherInvocations;
+
+    private Object supportabilityMetrics;
+    private Method getTypeMatcherInvocations;
+
+    @Setup(Level.Trial)
+    public void setup() throws ReflectiveOperationException {
+      Class<?> clazz;
+      try {
+        // the agent classes are in the bootstrap class loader
+        clazz = Class.forName(SUPPORTABILITY_METRICS_CLASS, true, null);
+      } catch (ClassNotFoundException e) {
+        return;
+      }
+      supportabilityMetrics = clazz.getMethod("instance").invoke(null);
+      getTypeMatcherInvocations = clazz.getMethod("getTypeMatcherInvocations");
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      typeMatcherInvocations = 0;
+    }
+
+    long read() {
+      if (supportabilityMetrics == null) {
+        return 0;
+      }
+      try {
+        return (long) getTypeMatcherInvocations.invoke(supportabilityMetrics);
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+}
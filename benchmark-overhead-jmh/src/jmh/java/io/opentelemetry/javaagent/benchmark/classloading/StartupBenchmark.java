@@ -0,0 +1,133 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.benchmark.classloading;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Starts a new JVM with the agent that loads all classes of the Spring jars, either with an empty
+ * transformation cache ({@code cold}) or with the cache written by a previous start ({@code
+ * warm}).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+  @Param({"cold", "warm"})
+  public String cache;
+
+  private Path cacheDirectory;
+  private List<String> command;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    String javaagent = null;
+    for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+      // the jmh task passes all jvm arguments as a single argument
+      for (String part : argument.split(" ")) {
+        if (part.startsWith("-javaagent:")) {
+          javaagent = part;
+        }
+      }
+    }
+    if (javaagent == null) {
+      throw new IllegalStateException("The benchmark must be run with the agent");
+    }
+
+    cacheDirectory = Files.createTempDirectory("transformation-cache");
+    command = new ArrayList<>();
+    command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+    command.add(javaagent);
+    command.add("-Dotel.traces.exporter=none");
+    command.add("-Dotel.metrics.exporter=none");
+    command.add("-Dotel.logs.exporter=none");
+    command.add("-Dotel.javaagent.experimental.transformation-cache.directory=" + cacheDirectory);
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(Application.class.getName());
+
+    if ("warm".equals(cache)) {
+      start();
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void clearCache() throws IOException {
+    if ("cold".equals(cache)) {
+      deleteContents(cacheDirectory);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    deleteContents(cacheDirectory);
+    Files.delete(cacheDirectory);
+  }
+
+  @Benchmark
+  public int start() throws Exception {
+    Process process = new ProcessBuilder(command).inheritIO().start();
+    int exitCode = process.waitFor();
+    if (exitCode != 0) {
+      throw new IllegalStateException("Application exited with " + exitCode);
+    }
+    return exitCode;
+  }
+
+  private static void deleteContents(Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        if (!file.equals(directory)) {
+          Files.delete(file);
+        }
+      }
+    }
+  }
+
+  /** Loads the same classes as {@link ClassLoadingBenchmark} and exits. */
+  public static class Application {
+
+    public static void main(String[] args) throws IOException {
+      List<URL> urls = new ArrayList<>();
+      List<String> classNames = new ArrayList<>();
+      for (File jar : ClassLoadingBenchmark.springJars()) {
+        urls.add(jar.toURI().toURL());
+        classNames.addAll(ClassLoadingBenchmark.classNames(jar));
+      }
+      ClassLoadingBenchmark.loadClasses(urls.toArray(new URL[0]), classNames);
+    }
+
+    private Application() {}
+  }
+}
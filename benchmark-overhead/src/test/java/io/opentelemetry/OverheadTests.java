@@ -82,11 +82,16 @@ public class OverheadTests {
     GenericContainer<?> postgres = new PostgresContainer(NETWORK).build();
     postgres.start();
 
+    if (agent.usesClassDataSharing()) {
+      runTrainingRun(agent);
+    }
+
     GenericContainer<?> petclinic =
         new PetClinicRestContainer(NETWORK, collector, agent, namingConventions).build();
     long start = System.currentTimeMillis();
     petclinic.start();
     writeStartupTimeFile(agent, start);
+    writeStartupRssFile(agent, petclinic);
 
     if (config.getWarmupSeconds() > 0) {
       doWarmupPhase(config, petclinic);
@@ -103,11 +108,25 @@ public class OverheadTests {
 
     // This is required to get a graceful exit of the VM before testcontainers kills it forcibly.
     // Without it, our jfr file will be empty.
-    petclinic.execInContainer("kill", "1");
-    while (petclinic.isRunning()) {
+    stopGracefully(petclinic);
+    postgres.stop();
+  }
+
+  private void runTrainingRun(Agent agent) throws Exception {
+    System.out.println("Creating class data sharing archive for " + agent.getName() + "...");
+    GenericContainer<?> training =
+        new PetClinicRestContainer(NETWORK, collector, agent, namingConventions)
+            .buildTrainingRun();
+    training.start();
+    // the archive is written when the VM exits
+    stopGracefully(training);
+  }
+
+  private static void stopGracefully(GenericContainer<?> container) throws Exception {
+    container.execInContainer("kill", "1");
+    while (container.isRunning()) {
       TimeUnit.MILLISECONDS.sleep(500);
     }
-    postgres.stop();
   }
 
   private void startRecording(Agent agent, GenericContainer<?> petclinic) throws Exception {
@@ -166,4 +185,17 @@ public class OverheadTests {
     Path startupPath = Path.of(namingConventions.local.startupDurationFile(agent));
     Files.writeString(startupPath, String.valueOf(delta));
   }
+
+  private void writeStartupRssFile(Agent agent, GenericContainer<?> petclinic) throws Exception {
+    String status = petclinic.execInContainer("cat", "/proc/1/status").getStdout();
+    long rssKb = 0;
+    for (String line : status.split("\n")) {
+      // VmRSS:    123456 kB
+      if (line.startsWith("VmRSS:")) {
+        rssKb = Long.parseLong(line.substring("VmRSS:".length()).replace("kB", "").trim());
+      }
+    }
+    Path rssPath = Path.of(namingConventions.local.startupRssFile(agent));
+    Files.writeString(rssPath, String.valueOf(rssKb));
+  }
 }
@@ -28,11 +28,19 @@ public class Agent {
           "latest available snapshot version from main with indy enabled",
           null,
           Collections.singletonList("-Dotel.javaagent.experimental.indy=true"));
+  public static final Agent LATEST_SNAPSHOT_CDS =
+      new Agent(
+          "snapshot-cds",
+          "latest available snapshot version from main with a class data sharing archive",
+          null,
+          Collections.emptyList(),
+          true);
 
   private final String name;
   private final String description;
   private final URL url;
   private final List<String> additionalJvmArgs;
+  private final boolean classDataSharing;
 
   public Agent(String name, String description) {
     this(name, description, null);
@@ -43,10 +51,20 @@ public class Agent {
   }
 
   public Agent(String name, String description, String url, List<String> additionalJvmArgs) {
+    this(name, description, url, additionalJvmArgs, false);
+  }
+
+  public Agent(
+      String name,
+      String description,
+      String url,
+      List<String> additionalJvmArgs,
+      boolean classDataSharing) {
     this.name = name;
     this.description = description;
     this.url = makeUrl(url);
     this.additionalJvmArgs = new ArrayList<>(additionalJvmArgs);
+    this.classDataSharing = classDataSharing;
   }
 
   public String getName() {
@@ -69,6 +87,14 @@ public class Agent {
     return Collections.unmodifiableList(additionalJvmArgs);
   }
 
+  /**
+   * Whether the application is started with a class data sharing archive that was created by a
+   * training run with the agent.
+   */
+  public boolean usesClassDataSharing() {
+    return classDataSharing;
+  }
+
   private static URL makeUrl(String url) {
     try {
       if (url == null) {
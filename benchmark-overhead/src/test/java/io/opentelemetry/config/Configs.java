@@ -18,6 +18,12 @@ public enum Configs {
           .withAgents(
               Agent.NONE, Agent.LATEST_RELEASE, Agent.LATEST_SNAPSHOT, Agent.LATEST_SNAPSHOT_INDY)
           .warmupSeconds(60)
+          .build()),
+  CLASS_DATA_SHARING(
+      TestConfig.builder()
+          .name("class-data-sharing")
+          .description("compares startup time and memory with and without a CDS archive")
+          .withAgents(Agent.NONE, Agent.LATEST_SNAPSHOT, Agent.LATEST_SNAPSHOT_CDS)
           .build());
 
   public final TestConfig config;
@@ -44,6 +44,18 @@ public class PetClinicRestContainer {
   }
 
   public GenericContainer<?> build() throws Exception {
+    return build(false);
+  }
+
+  /**
+   * Builds a container that creates the class data sharing archive for the agent when the JVM
+   * exits. The agent loads all of its classes so that they are all archived.
+   */
+  public GenericContainer<?> buildTrainingRun() throws Exception {
+    return build(true);
+  }
+
+  private GenericContainer<?> build(boolean training) throws Exception {
 
     Optional<Path> agentJar = agentResolver.resolve(this.agent);
 
@@ -68,7 +80,7 @@ public class PetClinicRestContainer {
             .withEnv("spring_datasource_password", PostgresContainer.PASSWORD)
             .withEnv("spring_jpa_hibernate_ddl-auto", "none")
             .dependsOn(collector)
-            .withCommand(buildCommandline(agentJar));
+            .withCommand(buildCommandline(agentJar, training));
 
     agentJar.ifPresent(
         agentPath ->
@@ -79,7 +91,7 @@ public class PetClinicRestContainer {
   }
 
   @NotNull
-  private String[] buildCommandline(Optional<Path> agentJar) {
+  private String[] buildCommandline(Optional<Path> agentJar, boolean training) {
     List<String> result =
         new ArrayList<>(
             Arrays.asList(
@@ -90,6 +102,15 @@ public class PetClinicRestContainer {
                 "-Dotel.exporter.otlp.endpoint=http://collector:4318",
                 "-Dotel.resource.attributes=service.name=petclinic-otel-overhead"));
     result.addAll(this.agent.getAdditionalJvmArgs());
+    if (this.agent.usesClassDataSharing()) {
+      String archive = namingConventions.container.classDataSharingArchive(this.agent);
+      if (training) {
+        result.add("-XX:ArchiveClassesAtExit=" + archive);
+        result.add("-Dotel.javaagent.experimental.cds-training.enabled=true");
+      } else {
+        result.add("-XX:SharedArchiveFile=" + archive);
+      }
+    }
     agentJar.ifPresent(path -> result.add("-javaagent:/app/" + path.getFileName()));
 
     result.add("-jar");
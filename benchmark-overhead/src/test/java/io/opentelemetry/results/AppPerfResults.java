@@ -21,6 +21,7 @@ public class AppPerfResults {
   final MinMax heapUsed;
   final float maxThreadContextSwitchRate;
   final long startupDurationMs;
+  final long startupRssKb;
   final long peakThreadCount;
   final long averageNetworkRead;
   final long averageNetworkWrite;
@@ -42,6 +43,7 @@ public class AppPerfResults {
     this.heapUsed = builder.heapUsed;
     this.maxThreadContextSwitchRate = builder.maxThreadContextSwitchRate;
     this.startupDurationMs = builder.startupDurationMs;
+    this.startupRssKb = builder.startupRssKb;
     this.peakThreadCount = builder.peakThreadCount;
     this.averageNetworkRead = builder.averageNetworkRead;
     this.averageNetworkWrite = builder.averageNetworkWrite;
@@ -64,6 +66,10 @@ public class AppPerfResults {
     return bytesToMegs(this.heapUsed.max);
   }
 
+  double getStartupRssMB() {
+    return this.startupRssKb / 1024.0;
+  }
+
   private double bytesToMegs(long x) {
     return x / (1024.0 * 1024.0);
   }
@@ -78,6 +84,7 @@ public class AppPerfResults {
 
   static class Builder {
     private long startupDurationMs;
+    private long startupRssKb;
     private Agent agent;
     private TestConfig config;
     private double iterationAvg;
@@ -156,6 +163,11 @@ public class AppPerfResults {
       return this;
     }
 
+    Builder startupRssKb(long startupRssKb) {
+      this.startupRssKb = startupRssKb;
+      return this;
+    }
+
     Builder peakThreadCount(long peakThreadCount) {
       this.peakThreadCount = peakThreadCount;
       return this;
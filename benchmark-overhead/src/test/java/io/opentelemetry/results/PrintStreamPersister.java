@@ -47,6 +47,7 @@ class PrintStreamPersister implements ResultsPersister {
     display(results, "Max. CPU (user) %", res -> String.valueOf(res.maxJvmUserCpu));
     display(results, "Avg. mch tot cpu %", res -> String.valueOf(res.averageMachineCpuTotal));
     display(results, "Startup time (ms)", res -> String.valueOf(res.startupDurationMs));
+    display(results, "Startup RSS (MB)", res -> format(res.getStartupRssMB()));
     display(results, "Total allocated MB", res -> format(res.getTotalAllocatedMB()));
     display(results, "Min heap used (MB)", res -> format(res.getMinHeapUsedMB()));
     display(results, "Max heap used (MB)", res -> format(res.getMaxHeapUsedMB()));
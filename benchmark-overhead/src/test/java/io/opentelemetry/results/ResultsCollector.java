@@ -43,6 +43,7 @@ public class ResultsCollector {
               .config(config);
 
       builder = addStartupTime(builder, agent);
+      builder = addStartupRss(builder, agent);
       builder = addK6Results(builder, agent);
       builder = addJfrResults(builder, agent);
 
@@ -59,6 +60,13 @@ public class ResultsCollector {
     return builder.startupDurationMs(startupDuration);
   }
 
+  private AppPerfResults.Builder addStartupRss(AppPerfResults.Builder builder, Agent agent)
+      throws IOException {
+    Path file = Path.of(namingConvention.startupRssFile(agent));
+    long startupRss = Long.parseLong(new String(Files.readAllBytes(file)).trim());
+    return builder.startupRssKb(startupRss);
+  }
+
   private AppPerfResults.Builder addK6Results(AppPerfResults.Builder builder, Agent agent)
       throws IOException {
     Path k6File = Path.of(namingConvention.k6Results(agent));
@@ -27,6 +27,14 @@ public class ContainerNamingConvention implements NamingConvention {
     return String.join("/", dir, "startup-time-" + agent.getName() + ".txt");
   }
 
+  public String startupRssFile(Agent agent) {
+    return String.join("/", dir, "startup-rss-" + agent.getName() + ".txt");
+  }
+
+  public String classDataSharingArchive(Agent agent) {
+    return String.join("/", dir, "petclinic-" + agent.getName() + ".jsa");
+  }
+
   public String root() {
     return dir;
   }
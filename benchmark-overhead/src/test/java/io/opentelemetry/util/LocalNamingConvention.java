@@ -27,6 +27,14 @@ public class LocalNamingConvention implements NamingConvention {
     return Paths.get(dir, "startup-time-" + agent.getName() + ".txt").toString();
   }
 
+  public String startupRssFile(Agent agent) {
+    return Paths.get(dir, "startup-rss-" + agent.getName() + ".txt").toString();
+  }
+
+  public String classDataSharingArchive(Agent agent) {
+    return Paths.get(dir, "petclinic-" + agent.getName() + ".jsa").toString();
+  }
+
   public String root() {
     return dir;
   }
@@ -34,6 +34,22 @@ public interface NamingConvention {
    */
   String startupDurationFile(Agent agent);
 
+  /**
+   * Returns the path string to the file that contains the resident set size after startup for a
+   * given agent run.
+   *
+   * @param agent The agent to get the resident set size for.
+   */
+  String startupRssFile(Agent agent);
+
+  /**
+   * Returns the path string to the class data sharing archive that is created by the training run
+   * of a given agent.
+   *
+   * @param agent The agent to get the archive for.
+   */
+  String classDataSharingArchive(Agent agent);
+
   /** Returns the root path that this naming convention was configured with. */
   String root();
 }
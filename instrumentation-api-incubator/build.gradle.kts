@@ -95,7 +95,16 @@ tasks {
     jvmArgs("-Dotel.semconv-stability.opt-in=database/dup,code/dup")
   }
 
+  val testDirectSqlScanner by registering(Test::class) {
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    filter {
+      includeTestsMatching("*SqlStatementSanitizerTest")
+    }
+    jvmArgs("-Dotel.instrumentation.common.db-statement-sanitizer.experimental-direct-scanner=true")
+  }
+
   check {
-    dependsOn(testStableSemconv, testBothSemconv)
+    dependsOn(testStableSemconv, testBothSemconv, testDirectSqlScanner)
   }
 }
@@ -170,8 +170,9 @@ public abstract class DbClientSpanNameExtractor<REQUEST> implements SpanNameExtr
         if (rawQueryTexts.size() > 1) { // for backcompat(?)
           return computeSpanName(namespace, null, null, null);
         }
+        String rawQueryText = rawQueryTexts.iterator().next();
         SqlStatementInfo sanitizedStatement =
-            SqlStatementSanitizerUtil.sanitize(rawQueryTexts.iterator().next());
+            SqlStatementSanitizerUtil.sanitize(getter, request, rawQueryText);
 
         return computeSpanName(
             namespace,
@@ -181,8 +182,9 @@ public abstract class DbClientSpanNameExtractor<REQUEST> implements SpanNameExtr
       }
 
       if (rawQueryTexts.size() == 1) {
+        String rawQueryText = rawQueryTexts.iterator().next();
         SqlStatementInfo sanitizedStatement =
-            SqlStatementSanitizerUtil.sanitize(rawQueryTexts.iterator().next());
+            SqlStatementSanitizerUtil.sanitize(getter, request, rawQueryText);
         String operationName = sanitizedStatement.getOperationName();
         if (isBatch(request)) {
           operationName = operationName == null ? "BATCH" : "BATCH " + operationName;
@@ -0,0 +1,962 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.incubator.semconv.db;
+
+import java.util.Locale;
+import javax.annotation.Nullable;
+
+/**
+ * SQL sanitizer that scans the characters of the statement string directly, without copying them
+ * into a reader buffer. It produces the same results as the JFlex generated {@code
+ * AutoSqlSanitizer} (see {@code SqlSanitizer.jflex}), with two differences in how the work is done:
+ *
+ * <ul>
+ *   <li>the sanitized statement is only copied when it actually differs from the original, so
+ *       statements that only use {@code ?} placeholders are returned as is
+ *   <li>{@code IN (?, ?, ...)} lists are collapsed to {@code IN (?)} while scanning instead of with
+ *       a regular expression afterwards
+ * </ul>
+ *
+ * <p>Statements that could hit the {@link AutoSqlSanitizer#LIMIT} are delegated to the JFlex
+ * scanner, so that trimming behaves exactly the same.
+ */
+final class DirectSqlSanitizer {
+
+  static SqlStatementInfo sanitize(String statement, SqlDialect dialect) {
+    // the sanitized statement is at most 2 characters longer than the original (" ?" appended for
+    // statements that may contain a password), shorter statements can never be trimmed
+    if (statement.length() > AutoSqlSanitizer.LIMIT - 2) {
+      return AutoSqlSanitizer.sanitize(statement, dialect);
+    }
+    return new DirectSqlSanitizer(statement, dialect).scan();
+  }
+
+  private final String statement;
+  private final int length;
+  private final SqlDialect dialect;
+
+  // null as long as the sanitized statement is the same as the scanned part of the original
+  @Nullable private StringBuilder builder;
+  // number of characters of the original statement that are part of the sanitized statement
+  private int unchangedLength;
+
+  private int tokenStart;
+  private int tokenEnd;
+
+  private int parenLevel = 0;
+  private boolean insideComment = false;
+  private Operation operation = NoOp.INSTANCE;
+  private boolean extractionDone = false;
+
+  private DirectSqlSanitizer(String statement, SqlDialect dialect) {
+    this.statement = statement;
+    this.length = statement.length();
+    this.dialect = dialect;
+  }
+
+  private SqlStatementInfo scan() {
+    int pos = 0;
+    while (pos < length) {
+      tokenStart = pos;
+      if (!scanToken()) {
+        break;
+      }
+      pos = tokenEnd;
+    }
+    String sanitized = builder != null ? builder.toString() : statement;
+    return operation.getResult(sanitized);
+  }
+
+  /** Returns false when the rest of the statement should not be scanned. */
+  private boolean scanToken() {
+    int start = tokenStart;
+    char c = statement.charAt(start);
+    int cp = statement.codePointAt(start);
+
+    if (isIdentifierStart(cp)) {
+      int end = unquotedIdentifierEnd(start);
+      int chainEnd = identifierChainEnd(start);
+      if (chainEnd != -1) {
+        tokenEnd = chainEnd;
+        onIdentifier();
+        return true;
+      }
+      tokenEnd = end;
+      return onWord();
+    }
+
+    switch (c) {
+      case '"':
+      case '`':
+        {
+          int chainEnd = identifierChainEnd(start);
+          if (chainEnd != -1) {
+            tokenEnd = chainEnd;
+            onIdentifier();
+            return true;
+          }
+          int end = c == '"' ? quotedStringEnd(start, '"') : backtickStringEnd(start);
+          if (end == -1) {
+            tokenEnd = start + 1;
+            appendToken();
+          } else {
+            tokenEnd = end;
+            if (c == '"' && dialect == SqlDialect.COUCHBASE) {
+              replaceToken();
+            } else {
+              onIdentifier();
+            }
+          }
+          return true;
+        }
+      case '\'':
+        {
+          int end = quotedStringEnd(start, '\'');
+          if (end == -1) {
+            tokenEnd = start + 1;
+            appendToken();
+          } else {
+            tokenEnd = end;
+            replaceToken();
+          }
+          return true;
+        }
+      case '$':
+        {
+          int end = dollarQuotedStringEnd(start);
+          if (end != -1) {
+            tokenEnd = end;
+            replaceToken();
+          } else {
+            // postgres parameter marker
+            end = start + 1;
+            while (end < length && isDigit(statement.charAt(end))) {
+              end++;
+            }
+            tokenEnd = end;
+            onIdentifier();
+          }
+          return true;
+        }
+      case ',':
+        tokenEnd = start + 1;
+        if (!insideComment && !extractionDone) {
+          extractionDone = operation.handleComma();
+        }
+        appendToken();
+        return true;
+      case '(':
+        tokenEnd = start + 1;
+        if (!insideComment) {
+          parenLevel += 1;
+        }
+        appendToken();
+        return true;
+      case ')':
+        tokenEnd = start + 1;
+        if (!insideComment) {
+          parenLevel -= 1;
+        }
+        appendToken();
+        return true;
+      case '/':
+        tokenEnd = start + 1;
+        if (start + 1 < length && statement.charAt(start + 1) == '*') {
+          tokenEnd = start + 2;
+          insideComment = true;
+        }
+        appendToken();
+        return true;
+      case '*':
+        tokenEnd = start + 1;
+        if (start + 1 < length && statement.charAt(start + 1) == '/') {
+          tokenEnd = start + 2;
+          insideComment = false;
+        }
+        appendToken();
+        return true;
+      case ' ':
+      case '\t':
+      case '\r':
+      case '\n':
+        {
+          int end = start + 1;
+          while (end < length && isWhitespace(statement.charAt(end))) {
+            end++;
+          }
+          tokenEnd = end;
+          if (end == start + 1 && c == ' ') {
+            appendToken();
+          } else {
+            replace(" ");
+          }
+          return true;
+        }
+      default:
+        break;
+    }
+
+    int numberEnd = numberEnd(start);
+    if (numberEnd != -1) {
+      tokenEnd = numberEnd;
+      replaceToken();
+      return true;
+    }
+
+    tokenEnd = start + Character.charCount(cp);
+    appendToken();
+    return true;
+  }
+
+  /** Handles keywords and unquoted identifiers, returns false when scanning should stop. */
+  private boolean onWord() {
+    switch (tokenEnd - tokenStart) {
+      case 2:
+        if (tokenIs("IF")) {
+          appendToken();
+          return true;
+        }
+        break;
+      case 3:
+        if (tokenIs("NOT")) {
+          appendToken();
+          return true;
+        }
+        break;
+      case 4:
+        if (tokenIs("CALL")) {
+          return onOperation(Call::new);
+        }
+        if (tokenIs("DROP")) {
+          return onOperation(Drop::new);
+        }
+        if (tokenIs("FROM")) {
+          if (!insideComment && !extractionDone) {
+            if (operation == NoOp.INSTANCE) {
+              // hql/jpql queries may skip SELECT and start with FROM clause
+              // treat such queries as SELECT queries
+              setOperation(new Select(this));
+            }
+            extractionDone = operation.handleFrom();
+          }
+          appendToken();
+          return true;
+        }
+        if (tokenIs("INTO")) {
+          if (!insideComment && !extractionDone) {
+            extractionDone = operation.handleInto();
+          }
+          appendToken();
+          return true;
+        }
+        if (tokenIs("JOIN")) {
+          if (!insideComment && !extractionDone) {
+            extractionDone = operation.handleJoin();
+          }
+          appendToken();
+          return true;
+        }
+        if (tokenIs("NEXT")) {
+          if (!insideComment && !extractionDone) {
+            extractionDone = operation.handleNext();
+          }
+          appendToken();
+          return true;
+        }
+        if (tokenIs("VIEW")) {
+          return onOperationTarget();
+        }
+        if (tokenIs("USER")) {
+          appendToken();
+          if (!insideComment && (operation instanceof Create || operation instanceof Alter)) {
+            // CREATE USER and ALTER USER statements could contain an unquoted password. We are not
+            // going to try figuring out whether that is the case or not, just sanitize the whole
+            // statement.
+            replace(" ?");
+            return false;
+          }
+          return true;
+        }
+        break;
+      case 5:
+        if (tokenIs("MERGE")) {
+          return onOperation(Merge::new);
+        }
+        if (tokenIs("ALTER")) {
+          return onOperation(Alter::new);
+        }
+        if (tokenIs("TABLE") || tokenIs("INDEX")) {
+          return onOperationTarget();
+        }
+        break;
+      case 6:
+        if (tokenIs("SELECT")) {
+          return onOperation(Select::new);
+        }
+        if (tokenIs("INSERT")) {
+          return onOperation(Insert::new);
+        }
+        if (tokenIs("DELETE")) {
+          return onOperation(Delete::new);
+        }
+        if (tokenIs("UPDATE")) {
+          return onOperation(Update::new);
+        }
+        if (tokenIs("CREATE")) {
+          return onOperation(Create::new);
+        }
+        if (tokenIs("EXISTS")) {
+          appendToken();
+          return true;
+        }
+        break;
+      case 7:
+        if (tokenIs("CONNECT")) {
+          appendToken();
+          // sanitize SAP HANA CONNECT statement, we check that operation is not set to avoid
+          // triggering sanitization when a field named connect is used or CONNECT BY clause is used
+          // in a SELECT statement
+          if (!insideComment && operation == NoOp.INSTANCE) {
+            replace(" ?");
+            return false;
+          }
+          return true;
+        }
+        break;
+      case 8:
+        if (tokenIs("DATABASE")) {
+          return onOperationTarget();
+        }
+        break;
+      case 9:
+        if (tokenIs("PROCEDURE")) {
+          return onOperationTarget();
+        }
+        break;
+      default:
+        break;
+    }
+    onIdentifier();
+    return true;
+  }
+
+  private boolean onOperation(OperationFactory factory) {
+    if (!insideComment && operation == NoOp.INSTANCE) {
+      operation = factory.create(this);
+    }
+    appendToken();
+    return true;
+  }
+
+  private boolean onOperationTarget() {
+    if (!insideComment && !extractionDone) {
+      if (operation.expectingOperationTarget()) {
+        extractionDone = operation.handleOperationTarget(tokenText());
+      } else {
+        extractionDone = operation.handleIdentifier();
+      }
+    }
+    appendToken();
+    return true;
+  }
+
+  private void onIdentifier() {
+    if (!insideComment && !extractionDone) {
+      extractionDone = operation.handleIdentifier();
+    }
+    appendToken();
+  }
+
+  private void setOperation(Operation operation) {
+    if (this.operation == NoOp.INSTANCE) {
+      this.operation = operation;
+    }
+  }
+
+  // output
+
+  private void appendToken() {
+    // quoted identifiers may contain parentheses too, every ')' that ends up in the sanitized
+    // statement may close an IN list
+    int from = tokenStart;
+    for (int i = tokenStart; i < tokenEnd; i++) {
+      if (statement.charAt(i) == ')') {
+        append(from, i + 1);
+        collapseInList();
+        from = i + 1;
+      }
+    }
+    append(from, tokenEnd);
+  }
+
+  private void append(int from, int to) {
+    if (builder == null) {
+      unchangedLength = to;
+    } else {
+      builder.append(statement, from, to);
+    }
+  }
+
+  private void replaceToken() {
+    replace("?");
+  }
+
+  private void replace(String replacement) {
+    materialize().append(replacement);
+  }
+
+  private StringBuilder materialize() {
+    if (builder == null) {
+      builder = new StringBuilder(length);
+      builder.append(statement, 0, unchangedLength);
+    }
+    return builder;
+  }
+
+  private int outputLength() {
+    return builder != null ? builder.length() : unchangedLength;
+  }
+
+  private char outputCharAt(int index) {
+    return builder != null ? builder.charAt(index) : statement.charAt(index);
+  }
+
+  /**
+   * Called right after a ')' was added to the sanitized statement, normalizes {@code IN (?, ?,
+   * ...)} to {@code IN (?)} to reduce cardinality. This matches the same text as the regular
+   * expression {@code (\sIN\s*)\(\s*\?\s*(?:,\s*\?\s*)*+\)} did when it was applied to the whole
+   * sanitized statement, just going backwards from the closing parenthesis.
+   */
+  private void collapseInList() {
+    int closeParen = outputLength() - 1;
+    int i = closeParen - 1;
+    while (true) {
+      i = skipWhitespaceBackwards(i);
+      if (i < 0 || outputCharAt(i) != '?') {
+        return;
+      }
+      i = skipWhitespaceBackwards(i - 1);
+      if (i < 0) {
+        return;
+      }
+      char c = outputCharAt(i);
+      if (c == '(') {
+        break;
+      }
+      if (c != ',') {
+        return;
+      }
+      i--;
+    }
+    int openParen = i;
+    i = skipWhitespaceBackwards(openParen - 1);
+    if (i < 2
+        || !isRegexWhitespace(outputCharAt(i - 2))
+        || toAsciiUpperCase(outputCharAt(i - 1)) != 'I'
+        || toAsciiUpperCase(outputCharAt(i)) != 'N') {
+      return;
+    }
+    if (closeParen - openParen == 2) {
+      // already IN (?)
+      return;
+    }
+    StringBuilder output = materialize();
+    output.setLength(openParen);
+    output.append("(?)");
+  }
+
+  private int skipWhitespaceBackwards(int index) {
+    while (index >= 0 && isRegexWhitespace(outputCharAt(index))) {
+      index--;
+    }
+    return index;
+  }
+
+  // lexing, each of these returns the end of the longest match starting at the given index or -1
+
+  private int unquotedIdentifierEnd(int start) {
+    int end = start;
+    while (end < length) {
+      int cp = statement.codePointAt(end);
+      if (!isIdentifierPart(cp)) {
+        break;
+      }
+      end += Character.charCount(cp);
+    }
+    return end;
+  }
+
+  private int identifierPartEnd(int start) {
+    if (start >= length) {
+      return -1;
+    }
+    char c = statement.charAt(start);
+    if (c == '"') {
+      return quotedStringEnd(start, '"');
+    }
+    if (c == '`') {
+      return backtickStringEnd(start);
+    }
+    if (isIdentifierStart(statement.codePointAt(start))) {
+      return unquotedIdentifierEnd(start);
+    }
+    return -1;
+  }
+
+  // matches identifiers containing at least one '.', e.g. schema.table or "schema"."table"
+  private int identifierChainEnd(int start) {
+    int end = identifierPartEnd(start);
+    if (end == -1) {
+      return -1;
+    }
+    int result = -1;
+    while (end < length && statement.charAt(end) == '.') {
+      int partEnd = identifierPartEnd(end + 1);
+      if (partEnd == -1) {
+        break;
+      }
+      result = partEnd;
+      end = partEnd;
+    }
+    return result;
+  }
+
+  // quote character is escaped by doubling it
+  private int quotedStringEnd(int start, char quote) {
+    int result = -1;
+    int i = start + 1;
+    while (i < length) {
+      if (statement.charAt(i++) == quote) {
+        result = i;
+        if (i < length && statement.charAt(i) == quote) {
+          i++;
+        } else {
+          break;
+        }
+      }
+    }
+    return result;
+  }
+
+  private int backtickStringEnd(int start) {
+    int end = statement.indexOf('`', start + 1);
+    return end == -1 ? -1 : end + 1;
+  }
+
+  private int dollarQuotedStringEnd(int start) {
+    if (start + 1 >= length || statement.charAt(start + 1) != '$') {
+      return -1;
+    }
+    int end = statement.indexOf('$', start + 2);
+    if (end == -1 || end + 1 >= length || statement.charAt(end + 1) != '$') {
+      return -1;
+    }
+    return end + 2;
+  }
+
+  private int numberEnd(int start) {
+    int result = -1;
+    // hex number
+    if (start + 2 < length
+        && statement.charAt(start) == '0'
+        && (statement.charAt(start + 1) == 'x' || statement.charAt(start + 1) == 'X')
+        && isHexDigit(statement.charAt(start + 2))) {
+      result = start + 3;
+      while (result < length && isHexDigit(statement.charAt(result))) {
+        result++;
+      }
+    }
+    // basic number
+    int i = start;
+    while (i < length && isNumberSign(statement.charAt(i))) {
+      i++;
+    }
+    if (i < length && isDigit(statement.charAt(i))) {
+      i++;
+      while (i < length) {
+        char c = statement.charAt(i);
+        if (!isDigit(c) && c != 'e' && c != 'E' && !isNumberSign(c)) {
+          break;
+        }
+        i++;
+      }
+      result = Math.max(result, i);
+    }
+    return result;
+  }
+
+  private boolean tokenIs(String keyword) {
+    for (int i = 0; i < keyword.length(); i++) {
+      if (toAsciiUpperCase(statement.charAt(tokenStart + i)) != keyword.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private String tokenText() {
+    return statement.substring(tokenStart, tokenEnd);
+  }
+
+  /** Returns text matched by current token without enclosing double quotes or backticks. */
+  private String readIdentifierName() {
+    String identifierName = tokenText();
+    String result = removeQuotes(identifierName, "\"");
+    if (!result.equals(identifierName)) {
+      return result;
+    }
+    result = removeQuotes(identifierName, "`");
+    if (!result.equals(identifierName)) {
+      return result;
+    }
+    return identifierName;
+  }
+
+  private static String removeQuotes(String identifierName, String quote) {
+    // remove quotes from the start and end of the identifier ("table" is transformed to table), if
+    // identifier contains quote anywhere else besides start and end leave it as is (quotes are not
+    // removed from "schema"."table")
+    if (identifierName.startsWith(quote) && identifierName.endsWith(quote)) {
+      String s = identifierName.substring(1, identifierName.length() - 1);
+      if (!s.contains(quote)) {
+        return s;
+      }
+    }
+    return identifierName;
+  }
+
+  private static boolean isIdentifierStart(int cp) {
+    return cp == '_' || Character.isLetter(cp);
+  }
+
+  private static boolean isIdentifierPart(int cp) {
+    return cp == '_' || (cp >= '0' && cp <= '9') || Character.isLetter(cp);
+  }
+
+  private static char toAsciiUpperCase(char c) {
+    return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isHexDigit(char c) {
+    return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+  }
+
+  private static boolean isNumberSign(char c) {
+    return c == '.' || c == '+' || c == '-';
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+  }
+
+  // \s in java regular expressions
+  private static boolean isRegexWhitespace(char c) {
+    return isWhitespace(c) || c == '\u000B' || c == '\f';
+  }
+
+  // operations, these follow the operation classes in SqlSanitizer.jflex
+
+  private interface OperationFactory {
+    Operation create(DirectSqlSanitizer sanitizer);
+  }
+
+  private abstract static class Operation {
+    @Nullable String mainIdentifier = null;
+
+    /** Returns true if all statement info is gathered. */
+    boolean handleFrom() {
+      return false;
+    }
+
+    /** Returns true if all statement info is gathered. */
+    boolean handleInto() {
+      return false;
+    }
+
+    /** Returns true if all statement info is gathered. */
+    boolean handleJoin() {
+      return false;
+    }
+
+    /** Returns true if all statement info is gathered. */
+    boolean handleIdentifier() {
+      return false;
+    }
+
+    /** Returns true if all statement info is gathered. */
+    boolean handleComma() {
+      return false;
+    }
+
+    /** Returns true if all statement info is gathered. */
+    boolean handleNext() {
+      return false;
+    }
+
+    /** Returns true if all statement info is gathered. */
+    boolean handleOperationTarget(String target) {
+      return false;
+    }
+
+    boolean expectingOperationTarget() {
+      return false;
+    }
+
+    SqlStatementInfo getResult(String fullStatement) {
+      return SqlStatementInfo.create(
+          fullStatement, getClass().getSimpleName().toUpperCase(Locale.ROOT), mainIdentifier);
+    }
+  }
+
+  private abstract static class DdlOperation extends Operation {
+    private final DirectSqlSanitizer sanitizer;
+    private String operationTarget = "";
+    private boolean expectingOperationTarget = true;
+
+    DdlOperation(DirectSqlSanitizer sanitizer) {
+      this.sanitizer = sanitizer;
+    }
+
+    @Override
+    boolean expectingOperationTarget() {
+      return expectingOperationTarget;
+    }
+
+    @Override
+    boolean handleOperationTarget(String target) {
+      operationTarget = target;
+      expectingOperationTarget = false;
+      return false;
+    }
+
+    boolean shouldHandleIdentifier() {
+      // only the table name is captured
+      return "TABLE".equals(operationTarget);
+    }
+
+    @Override
+    boolean handleIdentifier() {
+      if (shouldHandleIdentifier()) {
+        mainIdentifier = sanitizer.readIdentifierName();
+      }
+      return true;
+    }
+
+    @Override
+    SqlStatementInfo getResult(String fullStatement) {
+      if (!"".equals(operationTarget)) {
+        return SqlStatementInfo.create(
+            fullStatement,
+            getClass().getSimpleName().toUpperCase(Locale.ROOT) + " " + operationTarget,
+            mainIdentifier);
+      }
+      return super.getResult(fullStatement);
+    }
+  }
+
+  private static class NoOp extends Operation {
+    static final Operation INSTANCE = new NoOp();
+
+    @Override
+    SqlStatementInfo getResult(String fullStatement) {
+      return SqlStatementInfo.create(fullStatement, null, null);
+    }
+  }
+
+  private static class Select extends Operation {
+    // you can reference a table in the FROM clause in one of the following ways:
+    //   table
+    //   table t
+    //   table as t
+    // in other words, you need max 3 identifiers to reference a table
+    private static final int FROM_TABLE_REF_MAX_IDENTIFIERS = 3;
+
+    private final DirectSqlSanitizer sanitizer;
+    boolean expectingTableName = false;
+    boolean mainTableSetAlready = false;
+    int identifiersAfterMainFromClause = 0;
+
+    Select(DirectSqlSanitizer sanitizer) {
+      this.sanitizer = sanitizer;
+    }
+
+    @Override
+    boolean handleFrom() {
+      if (sanitizer.parenLevel == 0) {
+        // main query FROM clause
+        expectingTableName = true;
+        return false;
+      }
+
+      // subquery in WITH or SELECT clause, before main FROM clause; skipping
+      mainIdentifier = null;
+      return true;
+    }
+
+    @Override
+    boolean handleJoin() {
+      // for SELECT statements with joined tables there's no main table
+      mainIdentifier = null;
+      return true;
+    }
+
+    @Override
+    boolean handleIdentifier() {
+      if (identifiersAfterMainFromClause > 0) {
+        ++identifiersAfterMainFromClause;
+      }
+
+      if (!expectingTableName) {
+        return false;
+      }
+
+      // SELECT FROM (subquery) case
+      if (sanitizer.parenLevel != 0) {
+        mainIdentifier = null;
+        return true;
+      }
+
+      // whenever >1 table is used there is no main table (e.g. unions)
+      if (mainTableSetAlready) {
+        mainIdentifier = null;
+        return true;
+      }
+
+      mainIdentifier = sanitizer.readIdentifierName();
+      mainTableSetAlready = true;
+      expectingTableName = false;
+      // start counting identifiers after encountering main from clause
+      identifiersAfterMainFromClause = 1;
+
+      // continue scanning the query, there may be more than one table (e.g. joins)
+      return false;
+    }
+
+    @Override
+    boolean handleComma() {
+      // comma was encountered in the FROM clause, i.e. implicit join
+      // (if less than 3 identifiers have appeared before first comma then it means that it's a
+      // table list; any other list that can appear later needs at least 4 idents)
+      if (identifiersAfterMainFromClause > 0
+          && identifiersAfterMainFromClause <= FROM_TABLE_REF_MAX_IDENTIFIERS) {
+        mainIdentifier = null;
+        return true;
+      }
+      return false;
+    }
+  }
+
+  private static class Insert extends Operation {
+    private final DirectSqlSanitizer sanitizer;
+    boolean expectingTableName = false;
+
+    Insert(DirectSqlSanitizer sanitizer) {
+      this.sanitizer = sanitizer;
+    }
+
+    @Override
+    boolean handleInto() {
+      expectingTableName = true;
+      return false;
+    }
+
+    @Override
+    boolean handleIdentifier() {
+      if (!expectingTableName) {
+        return false;
+      }
+
+      mainIdentifier = sanitizer.readIdentifierName();
+      return true;
+    }
+  }
+
+  private static class Delete extends Operation {
+    private final DirectSqlSanitizer sanitizer;
+    boolean expectingTableName = false;
+
+    Delete(DirectSqlSanitizer sanitizer) {
+      this.sanitizer = sanitizer;
+    }
+
+    @Override
+    boolean handleFrom() {
+      expectingTableName = true;
+      return false;
+    }
+
+    @Override
+    boolean handleIdentifier() {
+      if (!expectingTableName) {
+        return false;
+      }
+
+      mainIdentifier = sanitizer.readIdentifierName();
+      return true;
+    }
+  }
+
+  /** Operation that extracts the first identifier as the main identifier. */
+  private static class SimpleOperation extends Operation {
+    private final DirectSqlSanitizer sanitizer;
+
+    SimpleOperation(DirectSqlSanitizer sanitizer) {
+      this.sanitizer = sanitizer;
+    }
+
+    @Override
+    boolean handleIdentifier() {
+      mainIdentifier = sanitizer.readIdentifierName();
+      return true;
+    }
+  }
+
+  private static class Update extends SimpleOperation {
+    Update(DirectSqlSanitizer sanitizer) {
+      super(sanitizer);
+    }
+  }
+
+  private static class Merge extends SimpleOperation {
+    Merge(DirectSqlSanitizer sanitizer) {
+      super(sanitizer);
+    }
+  }
+
+  private static class Call extends SimpleOperation {
+    Call(DirectSqlSanitizer sanitizer) {
+      super(sanitizer);
+    }
+
+    @Override
+    boolean handleNext() {
+      mainIdentifier = null;
+      return true;
+    }
+  }
+
+  private static class Create extends DdlOperation {
+    Create(DirectSqlSanitizer sanitizer) {
+      super(sanitizer);
+    }
+  }
+
+  private static class Drop extends DdlOperation {
+    Drop(DirectSqlSanitizer sanitizer) {
+      super(sanitizer);
+    }
+  }
+
+  private static class Alter extends DdlOperation {
+    Alter(DirectSqlSanitizer sanitizer) {
+      super(sanitizer);
+    }
+  }
+}
@@ -88,7 +88,8 @@ public final class SqlClientAttributesExtractor<REQUEST, RESPONSE>
     if (SemconvStability.emitOldDatabaseSemconv()) {
       if (rawQueryTexts.size() == 1) { // for backcompat(?)
         String rawQueryText = rawQueryTexts.iterator().next();
-        SqlStatementInfo sanitizedStatement = SqlStatementSanitizerUtil.sanitize(rawQueryText);
+        SqlStatementInfo sanitizedStatement =
+            SqlStatementSanitizerUtil.sanitize(getter, request, rawQueryText);
         String operationName = sanitizedStatement.getOperationName();
         internalSet(
             attributes,
@@ -107,7 +108,8 @@ public final class SqlClientAttributesExtractor<REQUEST, RESPONSE>
       boolean shouldSanitize = statementSanitizationEnabled && !parameterizedQuery;
       if (rawQueryTexts.size() == 1) {
         String rawQueryText = rawQueryTexts.iterator().next();
-        SqlStatementInfo sanitizedStatement = SqlStatementSanitizerUtil.sanitize(rawQueryText);
+        SqlStatementInfo sanitizedStatement =
+            SqlStatementSanitizerUtil.sanitize(getter, request, rawQueryText);
         String operationName = sanitizedStatement.getOperationName();
         internalSet(
             attributes,
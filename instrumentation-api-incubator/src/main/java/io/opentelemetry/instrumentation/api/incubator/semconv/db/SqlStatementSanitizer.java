@@ -8,6 +8,7 @@ package io.opentelemetry.instrumentation.api.incubator.semconv.db;
 import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.SQL_STATEMENT_SANITIZER_CACHE_MISS;
 
 import com.google.auto.value.AutoValue;
+import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
 import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import javax.annotation.Nullable;
@@ -18,10 +19,26 @@ import javax.annotation.Nullable;
  */
 public final class SqlStatementSanitizer {
   private static final SupportabilityMetrics supportability = SupportabilityMetrics.instance();
-
+  private static final SupportabilityMetrics.CacheCounters cacheCounters =
+      supportability.cacheCounters("sql_statement_sanitizer");
+
+  // cache capacity is the total length of the cached statements, not the number of entries
+  private static final long CACHE_CAPACITY =
+      Math.max(
+          1,
+          ConfigPropertiesUtil.getInt(
+              "otel.instrumentation.common.db-statement-sanitizer.cache.capacity", 1024 * 1024));
+  private static final long LARGE_STATEMENT_THRESHOLD = CACHE_CAPACITY / 10;
   private static final Cache<CacheKey, SqlStatementInfo> sqlToStatementInfoCache =
-      Cache.bounded(1000);
-  private static final int LARGE_STATEMENT_THRESHOLD = 10 * 1024;
+      Cache.weighted(
+          CACHE_CAPACITY,
+          (key, value) -> Math.max(1, key.getStatement().length()),
+          (key, value) -> cacheCounters.recordEviction());
+  // experimental scanner that works directly on the statement string, produces the same results as
+  // the JFlex generated one
+  private static final boolean DIRECT_SCANNER_ENABLED =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.instrumentation.common.db-statement-sanitizer.experimental-direct-scanner", false);
 
   public static SqlStatementSanitizer create(boolean statementSanitizationEnabled) {
     return new SqlStatementSanitizer(statementSanitizationEnabled);
@@ -41,18 +58,30 @@ public final class SqlStatementSanitizer {
     if (!statementSanitizationEnabled || statement == null) {
       return SqlStatementInfo.create(statement, null, null);
     }
-    // sanitization result will not be cached for statements larger than the threshold to avoid
-    // cache growing too large
+    // sanitization result will not be cached for statements that would take up a large part of
+    // the cache, a single such statement would evict many smaller ones
     // https://github.com/open-telemetry/opentelemetry-java-instrumentation/issues/13180
     if (statement.length() > LARGE_STATEMENT_THRESHOLD) {
+      cacheCounters.recordMiss();
       return sanitizeImpl(statement, dialect);
     }
-    return sqlToStatementInfoCache.computeIfAbsent(
-        CacheKey.create(statement, dialect), k -> sanitizeImpl(statement, dialect));
+    CacheKey key = CacheKey.create(statement, dialect);
+    SqlStatementInfo result = sqlToStatementInfoCache.get(key);
+    if (result != null) {
+      cacheCounters.recordHit();
+      return result;
+    }
+    cacheCounters.recordMiss();
+    result = sanitizeImpl(statement, dialect);
+    sqlToStatementInfoCache.put(key, result);
+    return result;
   }
 
   private static SqlStatementInfo sanitizeImpl(String statement, SqlDialect dialect) {
     supportability.incrementCounter(SQL_STATEMENT_SANITIZER_CACHE_MISS);
+    if (DIRECT_SCANNER_ENABLED) {
+      return DirectSqlSanitizer.sanitize(statement, dialect);
+    }
     return AutoSqlSanitizer.sanitize(statement, dialect);
   }
 
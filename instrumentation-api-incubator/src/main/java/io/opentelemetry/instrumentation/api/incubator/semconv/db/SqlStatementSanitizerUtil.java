@@ -5,6 +5,7 @@
 
 package io.opentelemetry.instrumentation.api.incubator.semconv.db;
 
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.internal.SqlStatementInfoGetter;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
 import io.opentelemetry.instrumentation.api.internal.InstrumenterContext;
 import java.util.HashMap;
@@ -17,6 +18,19 @@ import java.util.Map;
 class SqlStatementSanitizerUtil {
   private static final SqlStatementSanitizer sanitizer = SqlStatementSanitizer.create(true);
 
+  @SuppressWarnings("unchecked") // the getter is parameterized with the same REQUEST type
+  static <REQUEST> SqlStatementInfo sanitize(
+      SqlClientAttributesGetter<REQUEST, ?> getter, REQUEST request, String queryText) {
+    if (getter instanceof SqlStatementInfoGetter) {
+      SqlStatementInfo statementInfo =
+          ((SqlStatementInfoGetter<REQUEST>) getter).getSqlStatementInfo(request);
+      if (statementInfo != null) {
+        return statementInfo;
+      }
+    }
+    return sanitize(queryText);
+  }
+
   static SqlStatementInfo sanitize(String queryText) {
     Map<String, SqlStatementInfo> map =
         InstrumenterContext.computeIfAbsent("sanitized-sql-map", unused -> new HashMap<>());
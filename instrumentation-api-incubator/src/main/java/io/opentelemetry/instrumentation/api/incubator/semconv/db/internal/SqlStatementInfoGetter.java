@@ -0,0 +1,29 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.incubator.semconv.db.internal;
+
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlClientAttributesGetter;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementInfo;
+import javax.annotation.Nullable;
+
+/**
+ * Can be implemented by a {@link SqlClientAttributesGetter} whose requests already carry the
+ * sanitized form of their single query text, for example because it was computed once when a
+ * prepared statement was created. The SQL extractors use it instead of sanitizing the query text
+ * again.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public interface SqlStatementInfoGetter<REQUEST> {
+
+  /**
+   * Returns the sanitized query text of the request, or {@code null} when it has to be sanitized
+   * by the caller. Only consulted for requests with exactly one query text.
+   */
+  @Nullable
+  SqlStatementInfo getSqlStatementInfo(REQUEST request);
+}
@@ -5,13 +5,8 @@
 
 package io.opentelemetry.instrumentation.api.incubator.semconv.net;
 
-import static java.util.Comparator.comparing;
-import static java.util.Comparator.naturalOrder;
-import static java.util.Comparator.nullsFirst;
-
-import com.google.auto.value.AutoValue;
 import io.opentelemetry.instrumentation.api.incubator.semconv.net.internal.UrlParser;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Supplier;
@@ -19,12 +14,7 @@ import javax.annotation.Nullable;
 
 class PeerServiceResolverImpl implements PeerServiceResolver {
 
-  private static final Comparator<ServiceMatcher> matcherComparator =
-      nullsFirst(
-          comparing(ServiceMatcher::getPort, nullsFirst(naturalOrder()))
-              .thenComparing(comparing(ServiceMatcher::getPath, nullsFirst(naturalOrder()))));
-
-  private final Map<String, Map<ServiceMatcher, String>> mapping = new HashMap<>();
+  private final Map<String, HostMapping> mapping = new HashMap<>();
 
   PeerServiceResolverImpl(Map<String, String> peerServiceMapping) {
     peerServiceMapping.forEach(
@@ -33,9 +23,7 @@ class PeerServiceResolverImpl implements PeerServiceResolver {
           String host = UrlParser.getHost(url);
           Integer port = UrlParser.getPort(url);
           String path = UrlParser.getPath(url);
-          Map<ServiceMatcher, String> matchers =
-              mapping.computeIfAbsent(host, x -> new HashMap<>());
-          matchers.putIfAbsent(ServiceMatcher.create(port, path), serviceName);
+          mapping.computeIfAbsent(host, x -> new HostMapping()).add(port, path, serviceName);
         });
   }
 
@@ -47,49 +35,113 @@ class PeerServiceResolverImpl implements PeerServiceResolver {
   @Override
   @Nullable
   public String resolveService(String host, @Nullable Integer port, Supplier<String> pathSupplier) {
-    Map<ServiceMatcher, String> matchers = mapping.get(host);
-    if (matchers == null) {
+    HostMapping hostMapping = mapping.get(host);
+    if (hostMapping == null) {
       return null;
     }
-    return matchers.entrySet().stream()
-        .filter(entry -> entry.getKey().matches(port, pathSupplier))
-        .max((o1, o2) -> matcherComparator.compare(o1.getKey(), o2.getKey()))
-        .map(Map.Entry::getValue)
-        .orElse(null);
+    return hostMapping.resolve(port, pathSupplier);
   }
 
-  @AutoValue
-  abstract static class ServiceMatcher {
+  /**
+   * The mappings of a single host. A mapping with a port takes precedence over one without a port
+   * and a mapping with a path takes precedence over one without a path, the longest matching path
+   * wins. A mapping with a path but without a port only matches when the port is unknown.
+   */
+  private static final class HostMapping {
+    private final Map<Integer, PathMapping> portMappings = new HashMap<>();
+    private final PathMapping anyPortMapping = new PathMapping();
 
-    static ServiceMatcher create(@Nullable Integer port, @Nullable String path) {
-      return new AutoValue_PeerServiceResolverImpl_ServiceMatcher(port, path);
+    void add(@Nullable Integer port, @Nullable String path, String serviceName) {
+      if (port == null) {
+        anyPortMapping.add(path, serviceName);
+      } else {
+        portMappings.computeIfAbsent(port, x -> new PathMapping()).add(path, serviceName);
+      }
     }
 
     @Nullable
-    abstract Integer getPort();
+    String resolve(@Nullable Integer port, Supplier<String> pathSupplier) {
+      if (port == null) {
+        return anyPortMapping.resolve(pathSupplier);
+      }
+      PathMapping portMapping = portMappings.get(port);
+      if (portMapping != null) {
+        String serviceName = portMapping.resolve(pathSupplier);
+        if (serviceName != null) {
+          return serviceName;
+        }
+      }
+      return anyPortMapping.serviceName;
+    }
+  }
 
-    @Nullable
-    abstract String getPath();
+  /** A trie of path prefixes, the root holds the service of the mapping without a path. */
+  private static final class PathMapping {
+    private char[] keys = new char[0];
+    private PathMapping[] children = new PathMapping[0];
+    @Nullable private String serviceName;
 
-    public boolean matches(@Nullable Integer port, Supplier<String> pathSupplier) {
-      if (this.getPort() != null) {
-        if (!this.getPort().equals(port)) {
-          return false;
+    void add(@Nullable String path, String serviceName) {
+      PathMapping node = this;
+      if (path != null) {
+        for (int i = 0; i < path.length(); i++) {
+          node = node.child(path.charAt(i));
         }
       }
-      if (this.getPath() != null && this.getPath().length() > 0) {
-        String path = pathSupplier.get();
-        if (path == null) {
-          return false;
-        }
-        if (!path.startsWith(this.getPath())) {
-          return false;
+      // the first mapping wins
+      if (node.serviceName == null) {
+        node.serviceName = serviceName;
+      }
+    }
+
+    private PathMapping child(char key) {
+      int index = Arrays.binarySearch(keys, key);
+      if (index >= 0) {
+        return children[index];
+      }
+      int insertionPoint = -index - 1;
+      PathMapping child = new PathMapping();
+      char[] newKeys = new char[keys.length + 1];
+      PathMapping[] newChildren = new PathMapping[children.length + 1];
+      System.arraycopy(keys, 0, newKeys, 0, insertionPoint);
+      System.arraycopy(children, 0, newChildren, 0, insertionPoint);
+      newKeys[insertionPoint] = key;
+      newChildren[insertionPoint] = child;
+      System.arraycopy(
+          keys, insertionPoint, newKeys, insertionPoint + 1, keys.length - insertionPoint);
+      System.arraycopy(
+          children, insertionPoint, newChildren, insertionPoint + 1, keys.length - insertionPoint);
+      keys = newKeys;
+      children = newChildren;
+      return child;
+    }
+
+    /**
+     * Returns the service of the longest path mapping that the path starts with, or of the mapping
+     * without a path.
+     */
+    @Nullable
+    String resolve(Supplier<String> pathSupplier) {
+      if (keys.length == 0) {
+        return serviceName;
+      }
+      String path = pathSupplier.get();
+      if (path == null) {
+        return serviceName;
+      }
+      String result = serviceName;
+      PathMapping node = this;
+      for (int i = 0; i < path.length(); i++) {
+        int index = Arrays.binarySearch(node.keys, path.charAt(i));
+        if (index < 0) {
+          break;
         }
-        if (port != null) {
-          return port.equals(this.getPort());
+        node = node.children[index];
+        if (node.serviceName != null) {
+          result = node.serviceName;
         }
       }
-      return true;
+      return result;
     }
   }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.incubator.semconv.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Verifies that {@link DirectSqlSanitizer} produces the same results as the JFlex scanner. */
+class DirectSqlSanitizerTest {
+
+  private static final String[] TOKENS = {
+    "SELECT", "select", "INSERT", "INTO", "DELETE", "UPDATE", "MERGE", "CALL", "NEXT", "CREATE",
+    "DROP", "ALTER", "TABLE", "table", "INDEX", "VIEW", "DATABASE", "PROCEDURE", "USER", "CONNECT",
+    "FROM", "from", "JOIN", "IF", "NOT", "EXISTS", "WHERE", "IN", "in", "AND", "SET", "VALUES",
+    "users", "u", "t1", "_tmp", "schema.table", "a.b.c", "\"quoted\"", "\"sch\".\"tbl\"",
+    "\"a\"\"b\"", "`tick`", "`a`.`b`", "\"unterminated", "`unterminated", "'str'", "'it''s'",
+    "'unterminated", "$$dollar$$", "$$", "$1", "$", "?", "1", "-1.5e+3", ".5", "0x1F", "0X", "12ab",
+    "(", ")", ",", ".", "=", "<>", "*", "/*", "*/", "--", ";", " ", "  ", "\t", "\n", "\r\n",
+    "\u000B", "\f", "IN (?, ?)", " IN(?,?,?)", "in ( ? )", "é", "表", "𝐀"
+  };
+
+  @ParameterizedTest
+  @MethodSource("statements")
+  void sameAsJflexScanner(String statement) {
+    for (SqlDialect dialect : SqlDialect.values()) {
+      assertThat(DirectSqlSanitizer.sanitize(statement, dialect))
+          .isEqualTo(AutoSqlSanitizer.sanitize(statement, dialect));
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(SqlDialect.class)
+  void randomStatementsSameAsJflexScanner(SqlDialect dialect) {
+    Random random = new Random(0);
+    for (int i = 0; i < 10_000; i++) {
+      StringBuilder statement = new StringBuilder();
+      int tokens = random.nextInt(30);
+      for (int j = 0; j < tokens; j++) {
+        statement.append(TOKENS[random.nextInt(TOKENS.length)]);
+        if (random.nextBoolean()) {
+          statement.append(' ');
+        }
+      }
+      String sql = statement.toString();
+      assertThat(DirectSqlSanitizer.sanitize(sql, dialect))
+          .describedAs(sql)
+          .isEqualTo(AutoSqlSanitizer.sanitize(sql, dialect));
+    }
+  }
+
+  @Test
+  void randomCharactersSameAsJflexScanner() {
+    Random random = new Random(0);
+    for (int i = 0; i < 1000; i++) {
+      StringBuilder statement = new StringBuilder();
+      for (int c = 0; c < 200; c++) {
+        statement.append((char) random.nextInt(128));
+      }
+      String sql = statement.toString();
+      assertThat(DirectSqlSanitizer.sanitize(sql, SqlDialect.DEFAULT))
+          .describedAs(sql)
+          .isEqualTo(AutoSqlSanitizer.sanitize(sql, SqlDialect.DEFAULT));
+    }
+  }
+
+  @Test
+  void parameterizedStatementIsNotCopied() {
+    String statement = "SELECT name FROM users WHERE id = ? AND status IN (?) AND age > $1";
+
+    SqlStatementInfo result = DirectSqlSanitizer.sanitize(statement, SqlDialect.DEFAULT);
+
+    assertThat(result.getQueryText()).isSameAs(statement);
+    assertThat(result.getOperationName()).isEqualTo("SELECT");
+    assertThat(result.getCollectionName()).isEqualTo("users");
+  }
+
+  @Test
+  void longStatementIsTrimmed() {
+    StringBuilder statement = new StringBuilder("SELECT * FROM table WHERE");
+    for (int i = 0; i < 4000; i++) {
+      statement.append(" column").append(i).append(" IN (1, 2, 3) and");
+    }
+    String sql = statement.toString();
+
+    assertThat(DirectSqlSanitizer.sanitize(sql, SqlDialect.DEFAULT))
+        .isEqualTo(AutoSqlSanitizer.sanitize(sql, SqlDialect.DEFAULT));
+  }
+
+  private static Stream<String> statements() {
+    return Stream.of(
+        "",
+        "SELECT * FROM TABLE WHERE FIELD=1234",
+        "SELECT * FROM TABLE WHERE FIELD>=-1234 AND F2 <.5 AND F3 = 0xAF AND F4 = 1e-9",
+        "SELECT * FROM TABLE WHERE FIELD = 'a''b' AND F2 = $$dollar$$ AND F3 = \"ident\"",
+        "SELECT x, y FROM \"schema\".\"table\" WHERE a IN (?, ?, ?) AND b IN(1,2)",
+        "SELECT x FROM `schema`.`table` t JOIN other o ON t.id = o.id",
+        "select col from table where col in ( ? , ?\t,\n? )",
+        "select col from table where col in (?) or col2 in (? , ?)",
+        "select \"col in (?, ?)\" from table",
+        "select col from table where colIN (?, ?)",
+        "select col from table where col\u000BIN\f(?, ?)",
+        "WITH subquery as (select a from b) SELECT x, y, z FROM table",
+        "SELECT x, y, (select a from b) as z FROM table",
+        "SELECT * FROM table1, table2",
+        "SELECT * FROM table1 t1, table2 t2",
+        "SELECT * FROM (SELECT * FROM table) t",
+        "FROM table WHERE id = 5",
+        "INSERT INTO table (a, b) VALUES (1, 'two')",
+        "INSERT INTO \"schema\".\"table\" VALUES (1)",
+        "DELETE FROM `table` WHERE id = 1",
+        "UPDATE table SET a = 1 WHERE b = 'c'",
+        "MERGE INTO table USING other ON (a = b)",
+        "CALL procedure(1, 'a')",
+        "CALL NEXT VALUE FOR seq",
+        "CREATE TABLE `table`",
+        "CREATE TABLE IF NOT EXISTS table",
+        "create table lower_case (id int)",
+        "DROP TABLE `if`",
+        "ALTER TABLE table ADD CONSTRAINT c FOREIGN KEY (foreign_id) REFERENCES ref (id)",
+        "CREATE INDEX types_name ON types (name)",
+        "CREATE VIEW tmp AS SELECT type FROM table WHERE id = ?",
+        "CREATE PROCEDURE p AS SELECT * FROM table GO",
+        "CONNECT user PASSWORD Password1",
+        "CREATE USER new_user IDENTIFIED BY Password1",
+        "ALTER USER user PASSWORD Password1",
+        "SELECT connect FROM TABLE",
+        "SELECT * FROM t /* comment FROM other 123 */ WHERE a = 1",
+        "/* SELECT */ UPDATE t SET a = 1",
+        "SELECT * FROM t WHERE a = \"unterminated",
+        "SELECT * FROM t WHERE a = 'unterminated",
+        "SELECT * FROM t WHERE a = `unterminated",
+        "SELECT * FROM t WHERE a = $$unterminated",
+        "SELECT * FROM t WHERE a = $1 AND b = $23",
+        "SELECT * FROM TABLE WHERE FIELD = 'éé'",
+        "select ястреб from неизвестно",
+        "SELECT * FROM TABLE𝐀 WHERE x = 1",
+        "SELECT .5a, 1.e, 1..2, +-3, 0x, 0xg",
+        "select a.5 from b.c.",
+        "UPDATE \"a\"\"b\" SET c = 1",
+        "UPDATE \"a\"\"b\".c SET c = 1");
+  }
+}
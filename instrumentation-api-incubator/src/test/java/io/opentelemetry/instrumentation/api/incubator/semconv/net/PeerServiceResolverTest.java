@@ -35,4 +35,26 @@ class PeerServiceResolverTest {
     assertEquals(
         "someOtherServiceAPI", peerServiceResolver.resolveService("1.2.3.4", null, () -> "/api"));
   }
+
+  @Test
+  void longestPathWins() {
+    Map<String, String> peerServiceMapping = new HashMap<>();
+    peerServiceMapping.put("example.com", "base");
+    peerServiceMapping.put("example.com/api", "api");
+    peerServiceMapping.put("example.com/api/v2", "apiV2");
+    peerServiceMapping.put("example.com:8080/api", "api8080");
+    peerServiceMapping.put("example.com:8080", "base8080");
+
+    PeerServiceResolver peerServiceResolver = PeerServiceResolver.create(peerServiceMapping);
+
+    assertEquals(
+        "apiV2", peerServiceResolver.resolveService("example.com", null, () -> "/api/v2/x"));
+    assertEquals("api", peerServiceResolver.resolveService("example.com", null, () -> "/api/v1"));
+    assertEquals("base", peerServiceResolver.resolveService("example.com", null, () -> "/other"));
+    assertEquals(
+        "api8080", peerServiceResolver.resolveService("example.com", 8080, () -> "/api/v2"));
+    assertEquals("base8080", peerServiceResolver.resolveService("example.com", 8080, () -> "/x"));
+    // mappings with a path but without a port only match when the port is unknown
+    assertEquals("base", peerServiceResolver.resolveService("example.com", 9090, () -> "/api"));
+  }
 }
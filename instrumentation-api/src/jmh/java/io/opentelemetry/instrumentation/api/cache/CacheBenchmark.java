@@ -6,11 +6,13 @@
 package io.opentelemetry.instrumentation.api.cache;
 
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -155,4 +157,104 @@ public class CacheBenchmark {
     blackhole.consume(boundedSmallCache.get(key));
     blackhole.consume(boundedSmallCache.get(key2));
   }
+
+  // compares the bounded cache implementations under contention, the key space is twice the
+  // capacity so that both hits and evictions happen
+
+  @Benchmark
+  @Threads(1)
+  public Object threads01_readHeavy(SharedCache shared, Keys keys) {
+    return readHeavy(shared, keys);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Object threads08_readHeavy(SharedCache shared, Keys keys) {
+    return readHeavy(shared, keys);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public Object threads64_readHeavy(SharedCache shared, Keys keys) {
+    return readHeavy(shared, keys);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Object threads01_writeHeavy(SharedCache shared, Keys keys) {
+    return writeHeavy(shared, keys);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Object threads08_writeHeavy(SharedCache shared, Keys keys) {
+    return writeHeavy(shared, keys);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public Object threads64_writeHeavy(SharedCache shared, Keys keys) {
+    return writeHeavy(shared, keys);
+  }
+
+  // one write for every 16 operations
+  private static Object readHeavy(SharedCache shared, Keys keys) {
+    int random = keys.next();
+    String key = shared.keys[random & SharedCache.KEY_MASK];
+    if (((random >>> 16) & 15) == 0) {
+      shared.cache.put(key, key);
+      return key;
+    }
+    return shared.cache.get(key);
+  }
+
+  // three writes for every 4 operations
+  private static Object writeHeavy(SharedCache shared, Keys keys) {
+    int random = keys.next();
+    String key = shared.keys[random & SharedCache.KEY_MASK];
+    if (((random >>> 16) & 3) != 0) {
+      shared.cache.put(key, key);
+      return key;
+    }
+    return shared.cache.get(key);
+  }
+
+  @State(Scope.Benchmark)
+  public static class SharedCache {
+    static final int CAPACITY = 1024;
+    static final int KEY_MASK = 2 * CAPACITY - 1;
+
+    @Param({"bounded", "striped"})
+    public String implementation;
+
+    Cache<String, String> cache;
+    final String[] keys = new String[KEY_MASK + 1];
+
+    @Setup
+    public void setUp() {
+      cache =
+          implementation.equals("striped") ? Cache.striped(CAPACITY) : Cache.bounded(CAPACITY);
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = "key" + i;
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Keys {
+    private int seed;
+
+    @Setup
+    public void setUp() {
+      seed = ThreadLocalRandom.current().nextInt() | 1;
+    }
+
+    // xorshift, cheaper than a shared random and different for every thread
+    int next() {
+      seed ^= seed << 13;
+      seed ^= seed >>> 17;
+      seed ^= seed << 5;
+      return seed;
+    }
+  }
 }
@@ -9,7 +9,14 @@ import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.semconv.http.HttpClientAttributesExtractor;
 import io.opentelemetry.instrumentation.api.semconv.http.HttpClientAttributesGetter;
+import io.opentelemetry.instrumentation.api.semconv.http.HttpClientMetrics;
 import io.opentelemetry.instrumentation.api.semconv.http.HttpSpanNameExtractor;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.export.MetricReader;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
 import java.net.InetSocketAddress;
 import java.util.Collections;
 import java.util.List;
@@ -21,7 +28,9 @@ import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 
@@ -35,24 +44,49 @@ public class InstrumenterBenchmark {
 
   private static final Object REQUEST = new Object();
 
-  private static final Instrumenter<Object, Void> INSTRUMENTER =
-      Instrumenter.<Object, Void>builder(
-              OpenTelemetry.noop(),
-              "benchmark",
-              HttpSpanNameExtractor.create(ConstantHttpAttributesGetter.INSTANCE))
-          .addAttributesExtractor(
-              HttpClientAttributesExtractor.create(ConstantHttpAttributesGetter.INSTANCE))
-          .buildInstrumenter();
+  // run with the gc profiler (enabled by default in the jmh conventions) and compare the
+  // gc.alloc.rate.norm column to see the bytes allocated per operation in each mode
+  @Param({"noop", "sdk", "sdk_with_metrics"})
+  public String mode;
+
+  private Instrumenter<Object, Void> instrumenter;
+
+  @Setup
+  public void setup() {
+    OpenTelemetry openTelemetry = OpenTelemetry.noop();
+    if (!mode.equals("noop")) {
+      // sampled but not exported spans, so that attributes are actually copied into the span
+      MetricReader metricReader = InMemoryMetricReader.create();
+      openTelemetry =
+          OpenTelemetrySdk.builder()
+              .setTracerProvider(
+                  SdkTracerProvider.builder().setSampler(Sampler.alwaysOn()).build())
+              .setMeterProvider(
+                  SdkMeterProvider.builder().registerMetricReader(metricReader).build())
+              .build();
+    }
+    InstrumenterBuilder<Object, Void> builder =
+        Instrumenter.<Object, Void>builder(
+                openTelemetry,
+                "benchmark",
+                HttpSpanNameExtractor.create(ConstantHttpAttributesGetter.INSTANCE))
+            .addAttributesExtractor(
+                HttpClientAttributesExtractor.create(ConstantHttpAttributesGetter.INSTANCE));
+    if (mode.equals("sdk_with_metrics")) {
+      builder.addOperationMetrics(HttpClientMetrics.get());
+    }
+    instrumenter = builder.buildInstrumenter();
+  }
 
   @Benchmark
   public Context start() {
-    return INSTRUMENTER.start(Context.root(), REQUEST);
+    return instrumenter.start(Context.root(), REQUEST);
   }
 
   @Benchmark
   public Context startEnd() {
-    Context context = INSTRUMENTER.start(Context.root(), REQUEST);
-    INSTRUMENTER.end(context, REQUEST, null, null);
+    Context context = instrumenter.start(Context.root(), REQUEST);
+    instrumenter.end(context, REQUEST, null, null);
     return context;
   }
 
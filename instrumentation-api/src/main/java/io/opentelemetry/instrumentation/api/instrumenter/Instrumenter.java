@@ -84,11 +84,17 @@ public class Instrumenter<REQUEST, RESPONSE> {
   private final boolean propagateOperationListenersToOnEnd;
   private final boolean enabled;
   private final SpanSuppressor spanSuppressor;
+  // null when the supportability metrics are not exported, to keep the span hot path free of them
+  @Nullable private final SupportabilityMetrics.InstrumenterCounters counters;
 
   // to allow converting generic lists to arrays with toArray
   @SuppressWarnings({"rawtypes", "unchecked"})
   Instrumenter(InstrumenterBuilder<REQUEST, RESPONSE> builder) {
     this.instrumentationName = builder.instrumentationName;
+    this.counters =
+        SupportabilityMetrics.isMetricsEnabled()
+            ? supportability.instrumenterCounters(instrumentationName)
+            : null;
     this.tracer = builder.buildTracer();
     this.spanNameExtractor = builder.spanNameExtractor;
     this.spanKindExtractor = builder.spanKindExtractor;
@@ -123,6 +129,9 @@ public class Instrumenter<REQUEST, RESPONSE> {
     boolean suppressed = spanSuppressor.shouldSuppress(parentContext, spanKind);
 
     if (suppressed) {
+      if (counters != null) {
+        counters.recordSuppressed(spanKind);
+      }
       supportability.recordSuppressedSpan(spanKind, instrumentationName);
     }
     return !suppressed;
@@ -178,6 +187,9 @@ public class Instrumenter<REQUEST, RESPONSE> {
   }
 
   private Context doStartImpl(Context parentContext, REQUEST request, @Nullable Instant startTime) {
+    if (counters != null) {
+      counters.recordStart();
+    }
     SpanKind spanKind = spanKindExtractor.extract(request);
     SpanBuilder spanBuilder =
         tracer.spanBuilder(spanNameExtractor.extract(request)).setSpanKind(spanKind);
@@ -213,8 +225,8 @@ public class Instrumenter<REQUEST, RESPONSE> {
 
     if (operationListeners.length != 0) {
       if (operationListenerAttributesExtractors.length != 0) {
-        UnsafeAttributes operationAttributes = new UnsafeAttributes();
-        operationAttributes.putAll(attributes.asMap());
+        // listener specific attributes are layered over the span attributes instead of copying
+        UnsafeAttributes operationAttributes = UnsafeAttributes.overlay(attributes);
         for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor :
             operationListenerAttributesExtractors) {
           extractor.onStart(operationAttributes, parentContext, request);
@@ -255,6 +267,9 @@ public class Instrumenter<REQUEST, RESPONSE> {
       @Nullable RESPONSE response,
       @Nullable Throwable error,
       @Nullable Instant endTime) {
+    if (counters != null) {
+      counters.recordEnd();
+    }
     Span span = Span.fromContext(context);
 
     if (error != null) {
@@ -278,8 +293,8 @@ public class Instrumenter<REQUEST, RESPONSE> {
 
     if (operationListeners.length != 0) {
       if (operationListenerAttributesExtractors.length != 0) {
-        UnsafeAttributes operationAttributes = new UnsafeAttributes();
-        operationAttributes.putAll(attributes.asMap());
+        // listener specific attributes are layered over the span attributes instead of copying
+        UnsafeAttributes operationAttributes = UnsafeAttributes.overlay(attributes);
         for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor :
             operationListenerAttributesExtractors) {
           extractor.onEnd(operationAttributes, context, request, response, error);
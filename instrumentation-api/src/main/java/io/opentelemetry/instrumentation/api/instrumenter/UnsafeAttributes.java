@@ -9,9 +9,16 @@ import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 import javax.annotation.Nullable;
 
 /**
@@ -20,11 +27,41 @@ import javax.annotation.Nullable;
  * multiple Attributes instances. So we use just one storage for both the builder and attributes. A
  * couple of methods still require copying to satisfy the interface contracts, but in practice
  * should never be called by user code even though they can.
+ *
+ * <p>Keys and values are stored next to each other in a single flat array instead of a hash map.
+ * Instrumenters rarely produce more than a couple dozen attributes per span, so a linear scan is
+ * as fast as hashing while allocating a single array instead of a table plus one node per entry.
+ *
+ * <p>An instance created with {@link #overlay(UnsafeAttributes)} only stores its own entries and
+ * reads through to the parent for everything else. This lets operation listener attributes be
+ * layered over the span attributes without copying them.
  */
-final class UnsafeAttributes extends HashMap<AttributeKey<?>, Object>
-    implements Attributes, AttributesBuilder {
+final class UnsafeAttributes implements Attributes, AttributesBuilder {
 
-  private static final long serialVersionUID = 1L;
+  private static final int INITIAL_CAPACITY = 16;
+  private static final int INITIAL_OVERLAY_CAPACITY = 4;
+
+  /**
+   * Returns attributes that read through to {@code parent} and keep everything that is put into
+   * them separately. The {@code parent} must not be modified afterwards.
+   */
+  static UnsafeAttributes overlay(UnsafeAttributes parent) {
+    return new UnsafeAttributes(parent, INITIAL_OVERLAY_CAPACITY);
+  }
+
+  @Nullable private final UnsafeAttributes parent;
+  // key at index 2 * i, value at index 2 * i + 1; in an overlay a null value masks the parent entry
+  private Object[] data;
+  private int size;
+
+  UnsafeAttributes() {
+    this(null, INITIAL_CAPACITY);
+  }
+
+  private UnsafeAttributes(@Nullable UnsafeAttributes parent, int capacity) {
+    this.parent = parent;
+    this.data = new Object[capacity * 2];
+  }
 
   // Attributes
 
@@ -32,12 +69,56 @@ final class UnsafeAttributes extends HashMap<AttributeKey<?>, Object>
   @Override
   @Nullable
   public <T> T get(AttributeKey<T> key) {
-    return (T) super.get(key);
+    return (T) getInternal(key);
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super AttributeKey<?>, ? super Object> action) {
+    if (parent != null) {
+      for (int i = 0; i < parent.size * 2; i += 2) {
+        Object key = parent.data[i];
+        if (indexOf(key) == -1) {
+          action.accept((AttributeKey<?>) key, parent.data[i + 1]);
+        }
+      }
+    }
+    for (int i = 0; i < size * 2; i += 2) {
+      Object value = data[i + 1];
+      if (value != null) {
+        action.accept((AttributeKey<?>) data[i], value);
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    if (parent == null) {
+      return size;
+    }
+    int result = 0;
+    for (int i = 0; i < parent.size * 2; i += 2) {
+      if (indexOf(parent.data[i]) == -1) {
+        result++;
+      }
+    }
+    for (int i = 0; i < size * 2; i += 2) {
+      if (data[i + 1] != null) {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
   }
 
+  // This is only meant for reading, returns a view instead of a copy to avoid allocating a map on
+  // the hot path.
   @Override
   public Map<AttributeKey<?>, Object> asMap() {
-    return this;
+    return new MapView();
   }
 
   // This can be called by user code in a RequestListener so copy. In practice, it should not be
@@ -47,6 +128,58 @@ final class UnsafeAttributes extends HashMap<AttributeKey<?>, Object>
     return Attributes.builder().putAll(this);
   }
 
+  // Operation listeners may use these attributes directly as metric attributes, so equality is
+  // based on the content, like the attributes built by the SDK, rather than on identity.
+  @Override
+  public boolean equals(@Nullable Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof UnsafeAttributes)) {
+      return false;
+    }
+    UnsafeAttributes other = (UnsafeAttributes) obj;
+    if (size() != other.size()) {
+      return false;
+    }
+    if (parent != null) {
+      for (int i = 0; i < parent.size * 2; i += 2) {
+        Object key = parent.data[i];
+        if (indexOf(key) == -1 && !parent.data[i + 1].equals(other.getInternal(key))) {
+          return false;
+        }
+      }
+    }
+    for (int i = 0; i < size * 2; i += 2) {
+      Object value = data[i + 1];
+      if (value != null && !value.equals(other.getInternal(data[i]))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // same as Map.hashCode(), independent of the order in which the attributes were put
+  @Override
+  public int hashCode() {
+    int result = 0;
+    if (parent != null) {
+      for (int i = 0; i < parent.size * 2; i += 2) {
+        Object key = parent.data[i];
+        if (indexOf(key) == -1) {
+          result += key.hashCode() ^ parent.data[i + 1].hashCode();
+        }
+      }
+    }
+    for (int i = 0; i < size * 2; i += 2) {
+      Object value = data[i + 1];
+      if (value != null) {
+        result += data[i].hashCode() ^ value.hashCode();
+      }
+    }
+    return result;
+  }
+
   // AttributesBuilder
 
   // This can be called by user code in an AttributesExtractor so copy. In practice, it should not
@@ -65,22 +198,147 @@ final class UnsafeAttributes extends HashMap<AttributeKey<?>, Object>
   @Override
   @CanIgnoreReturnValue
   public <T> AttributesBuilder put(AttributeKey<T> key, @Nullable T value) {
-    super.put(key, value);
+    putInternal(key, value);
     return this;
   }
 
   @Override
   @CanIgnoreReturnValue
   public AttributesBuilder putAll(Attributes attributes) {
-    attributes.forEach(this::put);
+    UnsafeAttributes other =
+        attributes instanceof UnsafeAttributes ? (UnsafeAttributes) attributes : null;
+    if (other != null && other.parent == null) {
+      for (int i = 0; i < other.size * 2; i += 2) {
+        putInternal((AttributeKey<?>) other.data[i], other.data[i + 1]);
+      }
+    } else {
+      attributes.forEach(this::putInternal);
+    }
     return this;
   }
 
   @Override
-  public void forEach(BiConsumer<? super AttributeKey<?>, ? super Object> action) {
-    // https://github.com/open-telemetry/opentelemetry-java/issues/4161
-    // Help out android desugaring by having an explicit call to HashMap.forEach, when forEach is
-    // just called through Attributes.forEach desugaring is unable to correctly handle it.
-    super.forEach(action);
+  @CanIgnoreReturnValue
+  public <T> AttributesBuilder remove(AttributeKey<T> key) {
+    putInternal(key, null);
+    return this;
+  }
+
+  @Override
+  @CanIgnoreReturnValue
+  public AttributesBuilder removeIf(Predicate<AttributeKey<?>> filter) {
+    for (int i = size * 2 - 2; i >= 0; i -= 2) {
+      if (filter.test((AttributeKey<?>) data[i])) {
+        putInternal((AttributeKey<?>) data[i], null);
+      }
+    }
+    if (parent != null) {
+      for (int i = 0; i < parent.size * 2; i += 2) {
+        if (filter.test((AttributeKey<?>) parent.data[i])) {
+          putInternal((AttributeKey<?>) parent.data[i], null);
+        }
+      }
+    }
+    return this;
+  }
+
+  @Nullable
+  private Object getInternal(@Nullable Object key) {
+    int index = indexOf(key);
+    if (index != -1) {
+      return data[index + 1];
+    }
+    return parent != null ? parent.getInternal(key) : null;
+  }
+
+  private void putInternal(@Nullable AttributeKey<?> key, @Nullable Object value) {
+    if (key == null) {
+      return;
+    }
+    // a null value clears a previously set attribute, same as in the SDK; in an overlay the entry
+    // is kept to mask the value inherited from the parent
+    boolean keepNull = parent != null && parent.indexOf(key) != -1;
+    int index = indexOf(key);
+    if (index != -1) {
+      if (value == null && !keepNull) {
+        removeAt(index);
+      } else {
+        data[index + 1] = value;
+      }
+      return;
+    }
+    if (value == null && !keepNull) {
+      return;
+    }
+    int end = size * 2;
+    if (end == data.length) {
+      data = Arrays.copyOf(data, data.length * 2);
+    }
+    data[end] = key;
+    data[end + 1] = value;
+    size++;
+  }
+
+  private int indexOf(@Nullable Object key) {
+    // check identity first, attribute keys are almost always static constants
+    for (int i = 0; i < size * 2; i += 2) {
+      if (data[i] == key) {
+        return i;
+      }
+    }
+    if (key == null) {
+      return -1;
+    }
+    for (int i = 0; i < size * 2; i += 2) {
+      if (key.equals(data[i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void removeAt(int index) {
+    int end = size * 2;
+    System.arraycopy(data, index + 2, data, index, end - index - 2);
+    data[end - 2] = null;
+    data[end - 1] = null;
+    size--;
+  }
+
+  private final class MapView extends AbstractMap<AttributeKey<?>, Object> {
+
+    @Override
+    @Nullable
+    public Object get(Object key) {
+      return getInternal(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return getInternal(key) != null;
+    }
+
+    @Override
+    public int size() {
+      return UnsafeAttributes.this.size();
+    }
+
+    @Override
+    public Set<Entry<AttributeKey<?>, Object>> entrySet() {
+      return new AbstractSet<Entry<AttributeKey<?>, Object>>() {
+        @Override
+        public Iterator<Entry<AttributeKey<?>, Object>> iterator() {
+          List<Entry<AttributeKey<?>, Object>> entries = new ArrayList<>(size);
+          UnsafeAttributes.this.forEach(
+              (key, value) -> entries.add(new SimpleImmutableEntry<>(key, value)));
+          return entries.iterator();
+        }
+
+        @Override
+        public int size() {
+          return UnsafeAttributes.this.size();
+        }
+      };
+    }
   }
 }
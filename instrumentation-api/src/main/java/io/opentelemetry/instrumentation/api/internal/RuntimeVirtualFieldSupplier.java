@@ -63,7 +63,8 @@ public final class RuntimeVirtualFieldSupplier {
   }
 
   private static final class CacheBasedVirtualField<T, F> extends VirtualField<T, F> {
-    private final Cache<T, F> cache = Cache.weak();
+    // every field has its own table, so that tasks stored by different fields do not contend
+    private final Cache<T, F> cache = Cache.weakIdentity();
 
     @Override
     @Nullable
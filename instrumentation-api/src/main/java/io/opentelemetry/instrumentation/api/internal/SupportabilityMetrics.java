@@ -13,12 +13,21 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
- * This class is internal and is hence not for public use. Its APIs are unstable and can change at
- * any time.
+ * Self-telemetry of the instrumentation. Suppressed spans and named counters are logged
+ * periodically when {@code otel.javaagent.debug} is enabled. Cache and class transformation counts
+ * are always recorded in {@link LongAdder}s, so that they can be exported as metrics when {@code
+ * otel.javaagent.experimental.supportability-metrics.enabled} is set. Span counts, which would be
+ * recorded for every span, and counts that are more expensive to record are only recorded when the
+ * metrics are enabled, see {@link #isMetricsEnabled()}.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
  */
 public final class SupportabilityMetrics {
   private static final Logger logger = Logger.getLogger(SupportabilityMetrics.class.getName());
@@ -28,6 +37,17 @@ public final class SupportabilityMetrics {
   private final ConcurrentMap<String, KindCounters> suppressionCounters = new ConcurrentHashMap<>();
   private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
 
+  private final ConcurrentMap<String, InstrumenterCounters> instrumenterCounters =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, CacheCounters> cacheCounters = new ConcurrentHashMap<>();
+  private final LongAdder transformations = new LongAdder();
+  private final LongAdder transformationErrors = new LongAdder();
+  private final LongAdder typeMatcherInvocations = new LongAdder();
+
+  private static final boolean METRICS_ENABLED =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.javaagent.experimental.supportability-metrics.enabled", false);
+
   private static final SupportabilityMetrics INSTANCE =
       new SupportabilityMetrics(
               ConfigPropertiesUtil.getBoolean("otel.javaagent.debug", false), logger::fine)
@@ -37,6 +57,11 @@ public final class SupportabilityMetrics {
     return INSTANCE;
   }
 
+  /** Returns whether the supportability metrics are exported. */
+  public static boolean isMetricsEnabled() {
+    return METRICS_ENABLED;
+  }
+
   // visible for testing
   SupportabilityMetrics(boolean agentDebugEnabled, Consumer<String> reporter) {
     this.agentDebugEnabled = agentDebugEnabled;
@@ -61,6 +86,56 @@ public final class SupportabilityMetrics {
     counters.computeIfAbsent(counterName, k -> new AtomicLong()).incrementAndGet();
   }
 
+  /**
+   * Returns the counters of the instrumentation with the given name. The returned instance should
+   * be kept, so that recording does not need to look it up.
+   */
+  public InstrumenterCounters instrumenterCounters(String instrumentationName) {
+    return instrumenterCounters.computeIfAbsent(
+        instrumentationName, k -> new InstrumenterCounters());
+  }
+
+  /**
+   * Returns the counters of the cache with the given name. The returned instance should be kept, so
+   * that recording does not need to look it up.
+   */
+  public CacheCounters cacheCounters(String cacheName) {
+    return cacheCounters.computeIfAbsent(cacheName, k -> new CacheCounters());
+  }
+
+  public void recordTransformation() {
+    transformations.increment();
+  }
+
+  public void recordTransformationError() {
+    transformationErrors.increment();
+  }
+
+  /** Records the number of transformation type matchers evaluated for a loaded class. */
+  public void recordTypeMatcherInvocations(int count) {
+    typeMatcherInvocations.add(count);
+  }
+
+  public void forEachInstrumenter(BiConsumer<String, InstrumenterCounters> consumer) {
+    instrumenterCounters.forEach(consumer);
+  }
+
+  public void forEachCache(BiConsumer<String, CacheCounters> consumer) {
+    cacheCounters.forEach(consumer);
+  }
+
+  public long getTransformations() {
+    return transformations.sum();
+  }
+
+  public long getTransformationErrors() {
+    return transformationErrors.sum();
+  }
+
+  public long getTypeMatcherInvocations() {
+    return typeMatcherInvocations.sum();
+  }
+
   // visible for testing
   void report() {
     suppressionCounters.forEach(
@@ -128,6 +203,87 @@ public final class SupportabilityMetrics {
     private CounterNames() {}
   }
 
+  /**
+   * Counts the spans started, ended and suppressed by one instrumentation.
+   *
+   * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+   * at any time.
+   */
+  public static final class InstrumenterCounters {
+    private final LongAdder started = new LongAdder();
+    private final LongAdder ended = new LongAdder();
+    // indexed by SpanKind ordinal
+    private final LongAdder[] suppressed = new LongAdder[SpanKind.values().length];
+
+    private InstrumenterCounters() {
+      for (int i = 0; i < suppressed.length; i++) {
+        suppressed[i] = new LongAdder();
+      }
+    }
+
+    public void recordStart() {
+      started.increment();
+    }
+
+    public void recordEnd() {
+      ended.increment();
+    }
+
+    public void recordSuppressed(SpanKind kind) {
+      suppressed[kind.ordinal()].increment();
+    }
+
+    public long getStarted() {
+      return started.sum();
+    }
+
+    public long getEnded() {
+      return ended.sum();
+    }
+
+    public long getSuppressed(SpanKind kind) {
+      return suppressed[kind.ordinal()].sum();
+    }
+  }
+
+  /**
+   * Counts the hits, misses and evictions of one cache.
+   *
+   * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+   * at any time.
+   */
+  public static final class CacheCounters {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private CacheCounters() {}
+
+    public void recordHit() {
+      hits.increment();
+    }
+
+    public void recordMiss() {
+      misses.increment();
+    }
+
+    public void recordEviction() {
+      evictions.increment();
+    }
+
+    public long getHits() {
+      return hits.sum();
+    }
+
+    public long getMisses() {
+      return misses.sum();
+    }
+
+    public long getEvictions() {
+      return evictions.sum();
+    }
+  }
+
   // this class is threadsafe.
   private static class KindCounters {
     private final AtomicLong server = new AtomicLong();
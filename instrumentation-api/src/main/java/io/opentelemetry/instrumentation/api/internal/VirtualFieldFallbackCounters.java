@@ -0,0 +1,52 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Counts, per owner class, how many values were stored in a virtual field using the map based
+ * fallback, which is used when a field could not be injected into the owner class (for example
+ * because the class was loaded before the agent was installed, or it is a lambda). The counts are
+ * exported as part of the {@link SupportabilityMetrics}, callers only record them when {@link
+ * SupportabilityMetrics#isMetricsEnabled()} is true.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class VirtualFieldFallbackCounters {
+
+  // limits the memory used when there are many owner classes, e.g. generated ones
+  private static final int MAX_OWNER_CLASSES = 1000;
+  // counts the classes that did not fit into the limit
+  static final String OTHER = "other";
+
+  private static final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+  public static void recordFallback(Class<?> ownerClass) {
+    increment(counters, ownerClass.getName());
+  }
+
+  /** Calls the {@code consumer} with the owner class name and the count for every owner class. */
+  public static void forEach(ObjLongConsumer<String> consumer) {
+    counters.forEach((ownerClass, counter) -> consumer.accept(ownerClass, counter.sum()));
+  }
+
+  // visible for testing
+  static void increment(ConcurrentMap<String, LongAdder> counters, String ownerClass) {
+    LongAdder counter = counters.get(ownerClass);
+    if (counter == null) {
+      String key = counters.size() < MAX_OWNER_CLASSES ? ownerClass : OTHER;
+      counter = counters.computeIfAbsent(key, k -> new LongAdder());
+    }
+    counter.increment();
+  }
+
+  private VirtualFieldFallbackCounters() {}
+}
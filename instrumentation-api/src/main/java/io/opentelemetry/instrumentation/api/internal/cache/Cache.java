@@ -6,6 +6,8 @@
 package io.opentelemetry.instrumentation.api.internal.cache;
 
 import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.EntryWeigher;
+import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.EvictionListener;
 import java.util.function.Function;
 import javax.annotation.Nullable;
 
@@ -27,17 +29,66 @@ public interface Cache<K, V> {
     return new WeakLockFreeCache<>();
   }
 
+  /**
+   * Returns new unbounded cache that is cheaper than {@link #weak()} when keys are frequently added
+   * and removed, for example when storing context for tasks submitted to an executor.
+   *
+   * <p>Keys are referenced weakly and compared using identity comparison, not {@link
+   * Object#equals(Object)}.
+   */
+  static <K, V> Cache<K, V> weakIdentity() {
+    return new WeakIdentityTable<>();
+  }
+
   /**
    * Returns new bounded cache.
    *
    * <p>Both keys and values are strongly referenced.
+   *
+   * <p>When {@code otel.instrumentation.experimental.striped-bounded-cache.enabled} is set, the
+   * returned cache evicts by estimated use frequency and scales better under concurrent access, see
+   * {@link #striped(int)}.
    */
   static <K, V> Cache<K, V> bounded(int capacity) {
+    if (StripedBoundedCache.ENABLED) {
+      return striped(capacity);
+    }
     ConcurrentLinkedHashMap<K, V> map =
         new ConcurrentLinkedHashMap.Builder<K, V>().maximumWeightedCapacity(capacity).build();
     return new MapBackedCache<>(map);
   }
 
+  /**
+   * Returns new bounded cache that admits new entries based on how often their keys are used and
+   * does not take a lock on reads, so that it scales better under concurrent access than {@link
+   * #bounded(int)}.
+   *
+   * <p>Both keys and values are strongly referenced.
+   */
+  static <K, V> Cache<K, V> striped(int capacity) {
+    return new StripedBoundedCache<>(capacity);
+  }
+
+  /**
+   * Returns new bounded cache whose capacity is measured in the total weight of its entries as
+   * computed by the {@code weigher}, instead of in the number of entries. The {@code listener} is
+   * notified of every entry that is evicted to stay within the capacity.
+   *
+   * <p>Both keys and values are strongly referenced.
+   */
+  static <K, V> Cache<K, V> weighted(
+      long capacity,
+      EntryWeigher<? super K, ? super V> weigher,
+      EvictionListener<K, V> listener) {
+    ConcurrentLinkedHashMap<K, V> map =
+        new ConcurrentLinkedHashMap.Builder<K, V>()
+            .maximumWeightedCapacity(capacity)
+            .weigher(weigher)
+            .listener(listener)
+            .build();
+    return new MapBackedCache<>(map);
+  }
+
   /**
    * Returns the cached value associated with the provided {@code key}. If no value is cached yet,
    * computes the value using {@code mappingFunction}, stores the result, and returns it.
@@ -0,0 +1,330 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * A bounded cache that keeps the entries in a {@link ConcurrentHashMap} and does the eviction
+ * bookkeeping in independent segments, selected by the key hash. Reads never wait for a lock, they
+ * only record the access in a small buffer of the segment. The buffer is drained into the frequency
+ * sketch of the segment while holding the segment lock, and reads are dropped while it is full.
+ * Writes lock only their own segment.
+ *
+ * <p>When a segment is full, the victim is selected in FIFO order: a cursor cycles through the slots
+ * of the segment and picks the entry in the next slot, regardless of how recently it was used. A
+ * new entry is only admitted when it has been used at least as often as the victim, as estimated by
+ * a TinyLFU style frequency sketch. This keeps frequently used entries in the cache when many keys
+ * are used only once.
+ *
+ * <p>The capacity is split between the segments, so an unlucky key distribution can evict entries
+ * before the total capacity is reached.
+ */
+final class StripedBoundedCache<K, V> implements Cache<K, V> {
+
+  // selects this implementation for Cache.bounded()
+  static final boolean ENABLED =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.instrumentation.experimental.striped-bounded-cache.enabled", false);
+
+  private static final int MAX_SEGMENTS = 64;
+  // small segments would make the eviction depend too much on how the keys are distributed
+  private static final int MIN_SEGMENT_CAPACITY = 16;
+
+  private final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+  private final Segment<K, V>[] segments;
+  private final int segmentMask;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  StripedBoundedCache(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    int segmentCount = 1;
+    int maxSegments =
+        Math.min(
+            capacity / MIN_SEGMENT_CAPACITY, Math.min(MAX_SEGMENTS, ceilingPowerOfTwo(cpus() * 4)));
+    while (segmentCount * 2 <= maxSegments) {
+      segmentCount *= 2;
+    }
+    segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      int segmentCapacity = capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0);
+      segments[i] = new Segment<>(segmentCapacity);
+    }
+    segmentMask = segmentCount - 1;
+  }
+
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    V value = get(key);
+    if (value != null) {
+      return value;
+    }
+    // same as the vendored ConcurrentLinkedHashMap, the value is computed without holding a lock
+    // and may be computed more than once for the same key
+    value = mappingFunction.apply(key);
+    return segmentFor(key).putIfAbsent(map, key, value);
+  }
+
+  @Nullable
+  @Override
+  public V get(K key) {
+    Node<K, V> node = map.get(key);
+    segmentFor(key).recordRead(key.hashCode());
+    return node != null ? node.value : null;
+  }
+
+  @Override
+  public void put(K key, V value) {
+    segmentFor(key).put(map, key, value);
+  }
+
+  @Override
+  public void remove(K key) {
+    segmentFor(key).remove(map, key);
+  }
+
+  // Visible for tests
+  int size() {
+    return map.size();
+  }
+
+  private Segment<K, V> segmentFor(Object key) {
+    int hash = key.hashCode() * 0x9E3779B9;
+    return segments[(hash >>> 16) & segmentMask];
+  }
+
+  private static int cpus() {
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  private static int ceilingPowerOfTwo(int value) {
+    return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+  }
+
+  private static final class Node<K, V> {
+    final K key;
+    volatile V value;
+    // index in the slots of the segment, guarded by the segment lock
+    int slot;
+
+    Node(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  private static final class Segment<K, V> {
+    private static final int READ_BUFFER_SIZE = 32;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // hashes of the keys read since the last drain, written without holding the lock
+    private final AtomicIntegerArray readBuffer = new AtomicIntegerArray(READ_BUFFER_SIZE);
+    private final AtomicInteger readCount = new AtomicInteger();
+    // all fields below are guarded by the lock
+    private final FrequencySketch sketch;
+    private final Node<K, V>[] slots;
+    private final int[] freeSlots;
+    private int freeCount;
+    // slot of the next victim
+    private int cursor;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Segment(int capacity) {
+      sketch = new FrequencySketch(capacity);
+      slots = new Node[capacity];
+      freeSlots = new int[capacity];
+      for (int i = 0; i < capacity; i++) {
+        freeSlots[i] = capacity - 1 - i;
+      }
+      freeCount = capacity;
+    }
+
+    void recordRead(int hashCode) {
+      // once the buffer is full further reads are dropped without writing to shared state
+      if (readCount.get() >= READ_BUFFER_SIZE) {
+        return;
+      }
+      int index = readCount.getAndIncrement();
+      if (index >= READ_BUFFER_SIZE) {
+        return;
+      }
+      readBuffer.lazySet(index, hashCode);
+      if (index == READ_BUFFER_SIZE - 1 && lock.tryLock()) {
+        try {
+          drainReadBuffer();
+        } finally {
+          lock.unlock();
+        }
+      }
+    }
+
+    // must be called while holding the lock
+    private void drainReadBuffer() {
+      int count = Math.min(readCount.get(), READ_BUFFER_SIZE);
+      for (int i = 0; i < count; i++) {
+        // a read that has claimed a slot but not written it yet is counted with a stale hash,
+        // which is fine because the frequencies are only estimates anyway
+        sketch.increment(readBuffer.get(i));
+      }
+      readCount.set(0);
+    }
+
+    V putIfAbsent(ConcurrentHashMap<K, Node<K, V>> map, K key, V value) {
+      lock.lock();
+      try {
+        // the access was already recorded by the get that preceded this call
+        drainReadBuffer();
+        Node<K, V> existing = map.get(key);
+        if (existing != null) {
+          return existing.value;
+        }
+        add(map, new Node<>(key, value));
+        return value;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void put(ConcurrentHashMap<K, Node<K, V>> map, K key, V value) {
+      lock.lock();
+      try {
+        drainReadBuffer();
+        sketch.increment(key.hashCode());
+        Node<K, V> existing = map.get(key);
+        if (existing != null) {
+          existing.value = value;
+          return;
+        }
+        add(map, new Node<>(key, value));
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void remove(ConcurrentHashMap<K, Node<K, V>> map, K key) {
+      lock.lock();
+      try {
+        Node<K, V> node = map.remove(key);
+        if (node != null) {
+          slots[node.slot] = null;
+          freeSlots[freeCount++] = node.slot;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void add(ConcurrentHashMap<K, Node<K, V>> map, Node<K, V> node) {
+      if (freeCount > 0) {
+        int slot = freeSlots[--freeCount];
+        node.slot = slot;
+        slots[slot] = node;
+        map.put(node.key, node);
+        return;
+      }
+
+      // the segment is full, so every slot is occupied
+      Node<K, V> victim = slots[cursor];
+      int slot = cursor;
+      cursor = cursor + 1 == slots.length ? 0 : cursor + 1;
+      if (sketch.frequency(node.key.hashCode()) < sketch.frequency(victim.key.hashCode())) {
+        // not admitted, the value is still returned to the caller but not cached
+        return;
+      }
+      map.remove(victim.key);
+      node.slot = slot;
+      slots[slot] = node;
+      map.put(node.key, node);
+    }
+  }
+
+  /**
+   * A count-min sketch with four 4-bit counters per key, similar to the one used by Caffeine. The
+   * counters are halved periodically so that old accesses are forgotten.
+   *
+   * <p>Not thread safe, it is only accessed while holding the lock of its segment.
+   */
+  private static final class FrequencySketch {
+    private static final long[] SEEDS = {
+      0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+      int tableSize = ceilingPowerOfTwo(Math.max(capacity, 8));
+      table = new long[tableSize];
+      tableMask = tableSize - 1;
+      sampleSize = 10 * Math.max(capacity, 8);
+    }
+
+    int frequency(int hashCode) {
+      int hash = spread(hashCode);
+      int start = (hash & 3) << 2;
+      int frequency = 15;
+      for (int i = 0; i < 4; i++) {
+        int index = indexOf(hash, i);
+        int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+        frequency = Math.min(frequency, count);
+      }
+      return frequency;
+    }
+
+    void increment(int hashCode) {
+      int hash = spread(hashCode);
+      int start = (hash & 3) << 2;
+      boolean added = false;
+      for (int i = 0; i < 4; i++) {
+        added |= incrementAt(indexOf(hash, i), start + i);
+      }
+      if (added && ++additions >= sampleSize) {
+        reset();
+      }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+      int offset = counter << 2;
+      long mask = 0xfL << offset;
+      long value = table[index];
+      if ((value & mask) != mask) {
+        table[index] = value + (1L << offset);
+        return true;
+      }
+      return false;
+    }
+
+    private void reset() {
+      for (int i = 0; i < table.length; i++) {
+        table[i] = (table[i] >>> 1) & RESET_MASK;
+      }
+      additions = additions >>> 1;
+    }
+
+    private int indexOf(int hash, int i) {
+      long result = (hash + SEEDS[i]) * SEEDS[i];
+      result += result >>> 32;
+      return ((int) result) & tableMask;
+    }
+
+    private static int spread(int hashCode) {
+      int hash = ((hashCode >>> 16) ^ hashCode) * 0x45d9f3b;
+      hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+      return (hash >>> 16) ^ hash;
+    }
+  }
+}
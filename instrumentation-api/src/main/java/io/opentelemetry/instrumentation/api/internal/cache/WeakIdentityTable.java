@@ -0,0 +1,298 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * An unbounded cache with weakly referenced keys that are compared by identity, stored in open
+ * addressing hash tables with linear probing. Unlike {@link WeakLockFreeCache} lookups do not
+ * allocate and there are no map nodes besides the weak reference that holds the key and the value,
+ * which makes it cheaper for keys that are put and removed often, like tasks submitted to an
+ * executor.
+ *
+ * <p>The entries are split between shards selected by the identity hash of the key. Reads never
+ * take a lock, writes lock only their own shard. Entries whose key was garbage collected are
+ * removed on the next access to their shard, which drops the reference to their value.
+ */
+final class WeakIdentityTable<K, V> implements Cache<K, V> {
+
+  private static final int MAX_SHARDS = 32;
+  private static final int SHARD_COUNT =
+      ceilingPowerOfTwo(Math.min(MAX_SHARDS, Runtime.getRuntime().availableProcessors()));
+  private static final int SHARD_MASK = SHARD_COUNT - 1;
+  private static final int INITIAL_CAPACITY = 8;
+
+  // marks a removed entry, lookups have to continue probing past it
+  private static final Entry<?> TOMBSTONE = new Entry<>(null, 0, null, null);
+
+  // shards are created on first write, most tables hold only a few entries
+  private final AtomicReferenceArray<Shard<V>> shards = new AtomicReferenceArray<>(SHARD_COUNT);
+
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    V value = get(key);
+    if (value != null) {
+      return value;
+    }
+    // the value is computed without holding a lock and may be computed more than once
+    int hash = hash(key);
+    return shard(hash).putIfAbsent(key, hash, mappingFunction.apply(key));
+  }
+
+  @Nullable
+  @Override
+  public V get(K key) {
+    int hash = hash(key);
+    Shard<V> shard = shards.get((hash >>> 24) & SHARD_MASK);
+    return shard != null ? shard.get(key, hash) : null;
+  }
+
+  @Override
+  public void put(K key, V value) {
+    int hash = hash(key);
+    shard(hash).put(key, hash, value);
+  }
+
+  @Override
+  public void remove(K key) {
+    int hash = hash(key);
+    Shard<V> shard = shards.get((hash >>> 24) & SHARD_MASK);
+    if (shard != null) {
+      shard.remove(key, hash);
+    }
+  }
+
+  // Visible for testing
+  int size() {
+    int size = 0;
+    for (int i = 0; i < SHARD_COUNT; i++) {
+      Shard<V> shard = shards.get(i);
+      if (shard != null) {
+        size += shard.size();
+      }
+    }
+    return size;
+  }
+
+  private Shard<V> shard(int hash) {
+    int index = (hash >>> 24) & SHARD_MASK;
+    Shard<V> shard = shards.get(index);
+    if (shard == null) {
+      shards.compareAndSet(index, null, new Shard<>());
+      shard = shards.get(index);
+    }
+    return shard;
+  }
+
+  private static int hash(Object key) {
+    // spread the bits so that the low bits used for probing do not correlate with the shard
+    return System.identityHashCode(key) * 0x9E3779B9;
+  }
+
+  private static int ceilingPowerOfTwo(int value) {
+    return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+  }
+
+  private static final class Entry<V> extends WeakReference<Object> {
+    final int hash;
+    // set to null when the entry is removed, so that a lookup that has already found the entry
+    // does not return the value of a removed key
+    @Nullable volatile V value;
+
+    Entry(
+        @Nullable Object key,
+        int hash,
+        @Nullable V value,
+        @Nullable ReferenceQueue<Object> queue) {
+      super(key, queue);
+      this.hash = hash;
+      this.value = value;
+    }
+  }
+
+  private static final class Shard<V> {
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    // replaced when the table is rebuilt, the entries are shared between the old and the new table
+    private volatile AtomicReferenceArray<Entry<V>> table =
+        new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    // number of non-null slots in the table, including removed entries, guarded by this shard
+    private int used;
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    V get(Object key, int hash) {
+      // polling an empty queue does not lock, the lock is only taken when there is something to
+      // remove
+      Entry<V> stale = (Entry<V>) queue.poll();
+      if (stale != null) {
+        expungeStaleEntries(stale);
+      }
+      AtomicReferenceArray<Entry<V>> table = this.table;
+      int mask = table.length() - 1;
+      // the table always has empty slots, so the loop terminates
+      for (int i = hash & mask; ; i = (i + 1) & mask) {
+        Entry<V> entry = table.get(i);
+        if (entry == null) {
+          return null;
+        }
+        if (entry.get() == key) {
+          return entry.value;
+        }
+      }
+    }
+
+    synchronized void put(Object key, int hash, V value) {
+      Entry<V> existing = insert(key, hash, value);
+      if (existing != null) {
+        existing.value = value;
+      }
+    }
+
+    synchronized V putIfAbsent(Object key, int hash, V value) {
+      Entry<V> existing = insert(key, hash, value);
+      if (existing != null) {
+        V existingValue = existing.value;
+        if (existingValue != null) {
+          return existingValue;
+        }
+        existing.value = value;
+      }
+      return value;
+    }
+
+    synchronized void remove(Object key, int hash) {
+      expungeStaleEntries();
+      AtomicReferenceArray<Entry<V>> table = this.table;
+      int mask = table.length() - 1;
+      for (int i = hash & mask; ; i = (i + 1) & mask) {
+        Entry<V> entry = table.get(i);
+        if (entry == null) {
+          return;
+        }
+        if (entry.get() == key) {
+          entry.value = null;
+          table.set(i, tombstone());
+          return;
+        }
+      }
+    }
+
+    synchronized int size() {
+      AtomicReferenceArray<Entry<V>> table = this.table;
+      int size = 0;
+      for (int i = 0; i < table.length(); i++) {
+        Entry<V> entry = table.get(i);
+        if (entry != null && entry.get() != null) {
+          size++;
+        }
+      }
+      return size;
+    }
+
+    // returns the entry of the key if there is one, otherwise adds a new entry
+    @Nullable
+    private Entry<V> insert(Object key, int hash, V value) {
+      expungeStaleEntries();
+      AtomicReferenceArray<Entry<V>> table = this.table;
+      int mask = table.length() - 1;
+      int free = -1;
+      int i = hash & mask;
+      for (; ; i = (i + 1) & mask) {
+        Entry<V> entry = table.get(i);
+        if (entry == null) {
+          break;
+        }
+        Object entryKey = entry.get();
+        if (entryKey == key) {
+          return entry;
+        }
+        if (entryKey == null && free < 0) {
+          // removed entry or garbage collected key, the slot can be reused
+          free = i;
+        }
+      }
+      Entry<V> entry = new Entry<>(key, hash, value, queue);
+      if (free >= 0) {
+        table.set(free, entry);
+      } else {
+        table.set(i, entry);
+        if (++used > table.length() / 2) {
+          rebuild(table);
+        }
+      }
+      return null;
+    }
+
+    private void rebuild(AtomicReferenceArray<Entry<V>> table) {
+      int live = 0;
+      for (int i = 0; i < table.length(); i++) {
+        Entry<V> entry = table.get(i);
+        if (entry != null && entry.get() != null) {
+          live++;
+        }
+      }
+      // at most a quarter full after rebuilding, removed entries are dropped
+      int capacity = INITIAL_CAPACITY;
+      while (live * 4 > capacity) {
+        capacity *= 2;
+      }
+      AtomicReferenceArray<Entry<V>> newTable = new AtomicReferenceArray<>(capacity);
+      int mask = capacity - 1;
+      for (int i = 0; i < table.length(); i++) {
+        Entry<V> entry = table.get(i);
+        if (entry != null && entry.get() != null) {
+          int j = entry.hash & mask;
+          while (newTable.get(j) != null) {
+            j = (j + 1) & mask;
+          }
+          newTable.set(j, entry);
+        }
+      }
+      used = live;
+      this.table = newTable;
+    }
+
+    private synchronized void expungeStaleEntries(Entry<V> stale) {
+      removeStaleEntry(stale);
+      expungeStaleEntries();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expungeStaleEntries() {
+      Entry<V> stale;
+      while ((stale = (Entry<V>) queue.poll()) != null) {
+        removeStaleEntry(stale);
+      }
+    }
+
+    private void removeStaleEntry(Entry<V> stale) {
+      stale.value = null;
+      AtomicReferenceArray<Entry<V>> table = this.table;
+      int mask = table.length() - 1;
+      for (int i = stale.hash & mask; ; i = (i + 1) & mask) {
+        Entry<V> entry = table.get(i);
+        if (entry == null) {
+          // already dropped when the table was rebuilt
+          break;
+        }
+        if (entry == stale) {
+          table.set(i, tombstone());
+          break;
+        }
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Entry<V> tombstone() {
+      return (Entry<V>) TOMBSTONE;
+    }
+  }
+}
@@ -33,6 +33,7 @@ import java.lang.ref.WeakReference;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
@@ -53,6 +54,11 @@ import javax.annotation.Nullable;
 abstract class AbstractWeakConcurrentMap<K, V, L> implements Iterable<Map.Entry<K, V>> {
 
   private static final ReferenceQueue<Object> REFERENCE_QUEUE = new ReferenceQueue<>();
+  // all maps, used for computing the number of stale entries
+  private static final Set<WeakReference<? extends ConcurrentMap<? extends WeakKey<?>, ?>>>
+      TARGETS = ConcurrentHashMap.newKeySet();
+  // references to the maps in TARGETS that were garbage collected
+  private static final ReferenceQueue<Object> TARGET_QUEUE = new ReferenceQueue<>();
 
   final ConcurrentMap<WeakKey<K>, V> target;
   private final WeakReference<ConcurrentMap<WeakKey<K>, ?>> weakTarget;
@@ -66,7 +72,17 @@ abstract class AbstractWeakConcurrentMap<K, V, L> implements Iterable<Map.Entry<
    */
   protected AbstractWeakConcurrentMap(ConcurrentMap<WeakKey<K>, V> target) {
     this.target = target;
-    this.weakTarget = new WeakReference<>(target);
+    this.weakTarget = new WeakReference<>(target, TARGET_QUEUE);
+    // maps are created all the time, so collected maps can't wait for staleEntryCount()
+    removeCollectedTargets();
+    TARGETS.add(weakTarget);
+  }
+
+  private static void removeCollectedTargets() {
+    Reference<?> reference;
+    while ((reference = TARGET_QUEUE.poll()) != null) {
+      TARGETS.remove(reference);
+    }
   }
 
   /**
@@ -242,6 +258,40 @@ abstract class AbstractWeakConcurrentMap<K, V, L> implements Iterable<Map.Entry<
     }
   }
 
+  /**
+   * Cleans at most {@code maxEntries} unused references, so that the cost of cleaning is spread
+   * over many calls.
+   */
+  static void expungeStaleEntries(int maxEntries) {
+    Reference<?> reference;
+    for (int i = 0; i < maxEntries && (reference = REFERENCE_QUEUE.poll()) != null; i++) {
+      removeWeakKey((WeakKey<?>) reference);
+    }
+  }
+
+  /**
+   * Returns the number of entries in all maps whose key has been garbage collected, but which have
+   * not been removed yet. This iterates over all entries of all maps.
+   */
+  static long staleEntryCount() {
+    long count = 0;
+    Iterator<WeakReference<? extends ConcurrentMap<? extends WeakKey<?>, ?>>> iterator =
+        TARGETS.iterator();
+    while (iterator.hasNext()) {
+      ConcurrentMap<? extends WeakKey<?>, ?> map = iterator.next().get();
+      if (map == null) {
+        iterator.remove();
+        continue;
+      }
+      for (WeakKey<?> key : map.keySet()) {
+        if (key.get() == null) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
   private static void removeWeakKey(WeakKey<?> weakKey) {
     ConcurrentMap<?, ?> map = weakKey.ownerRef.get();
     if (map != null) {
@@ -176,54 +176,48 @@ public class WeakConcurrentMap<K, V>
 
   /**
    * A {@link WeakConcurrentMap} where stale entries are removed as a side effect of interacting
-   * with this map.
+   * with this map. Every modifying call removes a bounded number of stale entries, so that the
+   * removal of a large number of collected keys is spread over many calls and no background thread
+   * is needed. Reads don't remove stale entries.
    *
    * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
    * at any time.
    */
   public static class WithInlinedExpunction<K, V> extends WeakConcurrentMap<K, V> {
 
+    // each call adds at most one entry, so removing more than one stale entry per call guarantees
+    // that the backlog of stale entries shrinks while the map is in use
+    private static final int MAX_EXPUNGED_PER_CALL = 16;
+
     @Override
     @Nullable
     public V get(K key) {
-      expungeStaleEntries();
+      // may add the default value
+      expungeStaleEntries(MAX_EXPUNGED_PER_CALL);
       return super.get(key);
     }
 
-    @Override
-    @Nullable
-    public V getIfPresent(K key) {
-      expungeStaleEntries();
-      return super.getIfPresent(key);
-    }
-
-    @Override
-    public boolean containsKey(K key) {
-      expungeStaleEntries();
-      return super.containsKey(key);
-    }
-
     @Override
     public V put(K key, V value) {
-      expungeStaleEntries();
+      expungeStaleEntries(MAX_EXPUNGED_PER_CALL);
       return super.put(key, value);
     }
 
     @Override
     public V putIfAbsent(K key, V value) {
-      expungeStaleEntries();
+      expungeStaleEntries(MAX_EXPUNGED_PER_CALL);
       return super.putIfAbsent(key, value);
     }
 
     @Override
     public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
-      expungeStaleEntries();
+      expungeStaleEntries(MAX_EXPUNGED_PER_CALL);
       return super.computeIfAbsent(key, mappingFunction);
     }
 
     @Override
     public V remove(K key) {
-      expungeStaleEntries();
+      expungeStaleEntries(MAX_EXPUNGED_PER_CALL);
       return super.remove(key);
     }
 
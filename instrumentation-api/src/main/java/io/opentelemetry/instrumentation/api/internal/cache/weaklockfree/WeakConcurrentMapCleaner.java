@@ -36,4 +36,13 @@ public final class WeakConcurrentMapCleaner {
     thread.interrupt();
     thread = null;
   }
+
+  /**
+   * Returns the number of weak map entries whose key has been garbage collected, but which have not
+   * been removed yet. This iterates over all entries of all weak maps, so it should only be called
+   * occasionally, e.g. when metrics are collected.
+   */
+  public static long staleEntryCount() {
+    return AbstractWeakConcurrentMap.staleEntryCount();
+  }
 }
@@ -10,6 +10,9 @@ import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.attri
 
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 
 class UnsafeAttributesTest {
@@ -83,4 +86,97 @@ class UnsafeAttributesTest {
             attributeEntry("lives", 9L),
             attributeEntry("clothes", "fur"));
   }
+
+  @Test
+  void growAndRemove() {
+    UnsafeAttributes attributes = new UnsafeAttributes();
+    for (int i = 0; i < 40; i++) {
+      attributes.put(AttributeKey.longKey("key" + i), i);
+    }
+    assertThat((Attributes) attributes).hasSize(40);
+    assertThat(attributes.get(AttributeKey.longKey("key39"))).isEqualTo(39L);
+
+    attributes.remove(AttributeKey.longKey("key0"));
+    // null value clears the attribute
+    attributes.put(AttributeKey.longKey("key1"), null);
+    attributes.removeIf(key -> key.getKey().endsWith("9"));
+
+    assertThat((Attributes) attributes).hasSize(34);
+    assertThat(attributes.get(AttributeKey.longKey("key0"))).isNull();
+    assertThat(attributes.get(AttributeKey.longKey("key1"))).isNull();
+    assertThat(attributes.get(AttributeKey.longKey("key2"))).isEqualTo(2L);
+    assertThat(attributes.asMap())
+        .hasSize(34)
+        .containsEntry(AttributeKey.longKey("key38"), 38L)
+        .doesNotContainKey(AttributeKey.longKey("key29"));
+  }
+
+  @Test
+  void overlay() {
+    UnsafeAttributes parent = new UnsafeAttributes();
+    parent.put("animal", "cat");
+    parent.put("country", "japan");
+    parent.put("world", "earth");
+
+    UnsafeAttributes overlay = UnsafeAttributes.overlay(parent);
+    overlay.put("country", "us");
+    overlay.put("clothes", "fur");
+    overlay.remove(AttributeKey.stringKey("world"));
+
+    assertThat((Attributes) overlay)
+        .hasSize(3)
+        .containsOnly(
+            attributeEntry("animal", "cat"),
+            attributeEntry("country", "us"),
+            attributeEntry("clothes", "fur"));
+    assertThat(overlay.get(AttributeKey.stringKey("world"))).isNull();
+    assertThat(overlay.asMap())
+        .hasSize(3)
+        .containsEntry(AttributeKey.stringKey("animal"), "cat")
+        .doesNotContainKey(AttributeKey.stringKey("world"));
+    assertThat(overlay.build())
+        .containsOnly(
+            attributeEntry("animal", "cat"),
+            attributeEntry("country", "us"),
+            attributeEntry("clothes", "fur"));
+
+    // parent is unmodified
+    assertThat((Attributes) parent)
+        .containsOnly(
+            attributeEntry("animal", "cat"),
+            attributeEntry("country", "japan"),
+            attributeEntry("world", "earth"));
+  }
+
+  @Test
+  void equalsAndHashCodeUseContent() {
+    UnsafeAttributes first = new UnsafeAttributes();
+    first.put("animal", "cat");
+    first.put("lives", 9L);
+
+    UnsafeAttributes second = new UnsafeAttributes();
+    second.put("lives", 9L);
+    second.put("animal", "cat");
+
+    UnsafeAttributes parent = new UnsafeAttributes();
+    parent.put("animal", "dog");
+    parent.put("country", "japan");
+    UnsafeAttributes overlay = UnsafeAttributes.overlay(parent);
+    overlay.put("animal", "cat");
+    overlay.put("lives", 9L);
+    overlay.remove(AttributeKey.stringKey("country"));
+
+    assertThat((Attributes) first).isEqualTo(second).isEqualTo(overlay).isNotEqualTo(parent);
+    assertThat((Attributes) second).isEqualTo(first);
+    assertThat((Attributes) overlay).isEqualTo(first);
+    assertThat(first.hashCode()).isEqualTo(second.hashCode()).isEqualTo(overlay.hashCode());
+
+    // operation listeners record metrics with the attributes of each operation, operations with
+    // the same attributes must map to the same series
+    Set<Attributes> series = new HashSet<>(Arrays.asList(first, second, overlay));
+    assertThat(series).hasSize(1);
+
+    second.put("lives", 8L);
+    assertThat((Attributes) first).isNotEqualTo(second);
+  }
 }
@@ -71,4 +71,45 @@ class SupportabilityMetricsTest {
             "Suppressed Spans by 'favoriteInstrumentation' (CLIENT) : 1",
             "Counter 'some counter' : 1");
   }
+
+  @Test
+  void countsWithoutDebug() {
+    List<String> reports = new ArrayList<>();
+    SupportabilityMetrics metrics = new SupportabilityMetrics(false, reports::add);
+
+    SupportabilityMetrics.InstrumenterCounters instrumenter =
+        metrics.instrumenterCounters("favoriteInstrumentation");
+    instrumenter.recordStart();
+    instrumenter.recordStart();
+    instrumenter.recordEnd();
+    instrumenter.recordSuppressed(SpanKind.CLIENT);
+    SupportabilityMetrics.CacheCounters cache = metrics.cacheCounters("favoriteCache");
+    cache.recordHit();
+    cache.recordHit();
+    cache.recordMiss();
+    cache.recordEviction();
+    metrics.recordTransformation();
+    metrics.recordTransformationError();
+    metrics.recordTypeMatcherInvocations(3);
+
+    assertThat(metrics.instrumenterCounters("favoriteInstrumentation")).isSameAs(instrumenter);
+    assertThat(instrumenter.getStarted()).isEqualTo(2);
+    assertThat(instrumenter.getEnded()).isEqualTo(1);
+    assertThat(instrumenter.getSuppressed(SpanKind.CLIENT)).isEqualTo(1);
+    assertThat(instrumenter.getSuppressed(SpanKind.SERVER)).isEqualTo(0);
+    assertThat(cache.getHits()).isEqualTo(2);
+    assertThat(cache.getMisses()).isEqualTo(1);
+    assertThat(cache.getEvictions()).isEqualTo(1);
+    assertThat(metrics.getTransformations()).isEqualTo(1);
+    assertThat(metrics.getTransformationErrors()).isEqualTo(1);
+    assertThat(metrics.getTypeMatcherInvocations()).isEqualTo(3);
+
+    List<String> names = new ArrayList<>();
+    metrics.forEachInstrumenter((name, counters) -> names.add(name));
+    metrics.forEachCache((name, counters) -> names.add(name));
+    assertThat(names).containsExactlyInAnyOrder("favoriteInstrumentation", "favoriteCache");
+
+    metrics.report();
+    assertThat(reports).isEmpty();
+  }
 }
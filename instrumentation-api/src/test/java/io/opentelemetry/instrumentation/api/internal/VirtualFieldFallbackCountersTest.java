@@ -0,0 +1,43 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.Test;
+
+class VirtualFieldFallbackCountersTest {
+
+  @Test
+  void countsPerOwnerClass() {
+    ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    VirtualFieldFallbackCounters.increment(counters, "com.example.Task");
+    VirtualFieldFallbackCounters.increment(counters, "com.example.Task");
+    VirtualFieldFallbackCounters.increment(counters, "com.example.Other");
+
+    assertThat(counters).hasSize(2);
+    assertThat(counters.get("com.example.Task").sum()).isEqualTo(2);
+    assertThat(counters.get("com.example.Other").sum()).isEqualTo(1);
+  }
+
+  @Test
+  void limitsNumberOfOwnerClasses() {
+    ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    for (int i = 0; i < 1500; i++) {
+      VirtualFieldFallbackCounters.increment(counters, "com.example.Task" + i);
+    }
+    VirtualFieldFallbackCounters.increment(counters, "com.example.Task0");
+
+    assertThat(counters).hasSize(1001);
+    assertThat(counters.get("com.example.Task0").sum()).isEqualTo(2);
+    assertThat(counters.get(VirtualFieldFallbackCounters.OTHER).sum()).isEqualTo(500);
+  }
+}
@@ -8,6 +8,9 @@ package io.opentelemetry.instrumentation.api.internal.cache;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -35,6 +38,62 @@ class CacheTest {
       assertThat(mapBackedCache.size()).isEqualTo(1);
       assertThat(cache.computeIfAbsent("cat", unused -> "purr")).isEqualTo("purr");
     }
+
+    @Test
+    void weighted() {
+      List<String> evicted = new ArrayList<>();
+      Cache<String, String> cache =
+          Cache.weighted(10, (key, value) -> key.length(), (key, value) -> evicted.add(key));
+
+      MapBackedCache<?, ?> mapBackedCache = ((MapBackedCache<?, ?>) cache);
+      assertThat(cache.computeIfAbsent("bear", unused -> "roar")).isEqualTo("roar");
+      assertThat(cache.computeIfAbsent("cat", unused -> "meow")).isEqualTo("meow");
+      assertThat(mapBackedCache.size()).isEqualTo(2);
+      assertThat(evicted).isEmpty();
+
+      // total weight would be 4 + 3 + 5 = 12
+      cache.put("horse", "neigh");
+      assertThat(mapBackedCache.size()).isEqualTo(2);
+      assertThat(evicted).containsExactly("bear");
+      assertThat(cache.get("cat")).isEqualTo("meow");
+      assertThat(cache.get("horse")).isEqualTo("neigh");
+    }
+
+    @Test
+    void striped() {
+      Cache<String, String> cache = Cache.striped(1);
+
+      assertThat(cache.computeIfAbsent("bear", unused -> "roar")).isEqualTo("roar");
+      cache.remove("bear");
+
+      StripedBoundedCache<?, ?> stripedCache = ((StripedBoundedCache<?, ?>) cache);
+      assertThat(cache.computeIfAbsent("cat", unused -> "meow")).isEqualTo("meow");
+      assertThat(stripedCache.size()).isEqualTo(1);
+
+      assertThat(cache.computeIfAbsent("cat", unused -> "bark")).isEqualTo("meow");
+      assertThat(stripedCache.size()).isEqualTo(1);
+
+      // dog has been used less often than cat so it is not admitted
+      cache.put("dog", "bark");
+      assertThat(cache.get("dog")).isNull();
+      assertThat(cache.get("cat")).isEqualTo("meow");
+      assertThat(stripedCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void stripedKeepsFrequentlyUsedEntries() {
+      StripedBoundedCache<String, String> cache = new StripedBoundedCache<>(100);
+
+      for (int i = 0; i < 100_000; i++) {
+        cache.computeIfAbsent("hot" + (i % 50), key -> key);
+        cache.computeIfAbsent("cold" + i, key -> key);
+      }
+
+      assertThat(cache.size()).isLessThanOrEqualTo(100);
+      for (int i = 0; i < 50; i++) {
+        assertThat(cache.get("hot" + i)).isEqualTo("hot" + i);
+      }
+    }
   }
 
   @Nested
@@ -74,5 +133,82 @@ class CacheTest {
       // Wait for GC to be reflected.
       await().untilAsserted(() -> assertThat(weakLockFreeCache.size()).isEqualTo(0));
     }
+
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    @Test
+    void identityTable() {
+      Cache<String, String> cache = Cache.weakIdentity();
+
+      assertThat(cache.computeIfAbsent("bear", unused -> "roar")).isEqualTo("roar");
+      cache.remove("bear");
+      assertThat(cache.get("bear")).isNull();
+
+      WeakIdentityTable<?, ?> table = ((WeakIdentityTable<?, ?>) cache);
+      String cat = new String("cat");
+      String dog = new String("dog");
+      assertThat(cache.computeIfAbsent(cat, unused -> "meow")).isEqualTo("meow");
+      assertThat(table.size()).isEqualTo(1);
+
+      assertThat(cache.computeIfAbsent(cat, unused -> "bark")).isEqualTo("meow");
+      assertThat(table.size()).isEqualTo(1);
+
+      cache.put(dog, "bark");
+      assertThat(cache.get(dog)).isEqualTo("bark");
+      assertThat(cache.get(cat)).isEqualTo("meow");
+      assertThat(cache.get(new String("dog"))).isNull();
+      assertThat(table.size()).isEqualTo(2);
+
+      cat = null;
+      System.gc();
+      // Wait for GC to be reflected.
+      await().untilAsserted(() -> assertThat(table.size()).isEqualTo(1));
+      assertThat(cache.get(dog)).isEqualTo("bark");
+    }
+
+    @Test
+    void identityTableReleasesValuesOnGet() {
+      Cache<Object, Object> cache = Cache.weakIdentity();
+      // keys in every shard, so that the reads below visit the shard of the collected key
+      List<Object> keys = new ArrayList<>();
+      for (int i = 0; i < 1_000; i++) {
+        Object key = new Object();
+        keys.add(key);
+        cache.put(key, i);
+      }
+      Object value = new Object();
+      WeakReference<Object> valueRef = new WeakReference<>(value);
+      cache.put(new Object(), value);
+      value = null;
+
+      // only reads, the stale entry has to be removed without another write
+      await()
+          .untilAsserted(
+              () -> {
+                System.gc();
+                for (Object key : keys) {
+                  cache.get(key);
+                }
+                assertThat(valueRef.get()).isNull();
+              });
+    }
+
+    @Test
+    void identityTableAddAndRemoveMany() {
+      Cache<Object, Integer> cache = Cache.weakIdentity();
+      List<Object> keys = new ArrayList<>();
+      for (int i = 0; i < 10_000; i++) {
+        Object key = new Object();
+        keys.add(key);
+        cache.put(key, i);
+      }
+      for (int i = 0; i < keys.size(); i += 2) {
+        cache.remove(keys.get(i));
+      }
+
+      for (int i = 0; i < keys.size(); i++) {
+        assertThat(cache.get(keys.get(i))).isEqualTo(i % 2 == 0 ? null : i);
+      }
+      assertThat(((WeakIdentityTable<?, ?>) cache).size()).isEqualTo(5_000);
+    }
   }
 }
@@ -56,6 +56,11 @@ public final class ExecutorAdviceHelper {
       return false;
     }
 
+    if (LightweightContextPropagation.ENABLED && !LightweightContextPropagation.isTraced(context)) {
+      // nothing that the task would need, skip attaching the context
+      return false;
+    }
+
     return InstrumentedTaskClasses.canInstrumentTaskClass(task.getClass());
   }
 
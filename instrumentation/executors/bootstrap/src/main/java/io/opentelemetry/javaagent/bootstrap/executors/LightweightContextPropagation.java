@@ -0,0 +1,34 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap.executors;
+
+import io.opentelemetry.api.baggage.Baggage;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
+
+/**
+ * Settings of the lightweight context propagation mode, in which only contexts that contain a span
+ * or baggage are propagated to submitted tasks.
+ */
+final class LightweightContextPropagation {
+
+  static final boolean ENABLED =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.instrumentation.executors.experimental.lightweight-propagation.enabled", false);
+
+  /** Returns whether the {@code context} contains a valid span or non-empty baggage. */
+  static boolean isTraced(Context context) {
+    Span span = Span.fromContextOrNull(context);
+    if (span != null && span.getSpanContext().isValid()) {
+      return true;
+    }
+    Baggage baggage = Baggage.fromContextOrNull(context);
+    return baggage != null && !baggage.isEmpty();
+  }
+
+  private LightweightContextPropagation() {}
+}
@@ -42,6 +42,30 @@ testing {
         }
       }
     }
+
+    val testLightweightPropagation by registering(JvmTestSuite::class) {
+      sources {
+        java {
+          setSrcDirs(listOf("src/test/java"))
+        }
+      }
+
+      dependencies {
+        implementation(project(":instrumentation:executors:testing"))
+        compileOnly(project(":instrumentation:executors:bootstrap"))
+        compileOnly(project(":javaagent-bootstrap"))
+      }
+
+      targets {
+        all {
+          testTask.configure {
+            jvmArgs(
+              "-Dotel.instrumentation.executors.experimental.lightweight-propagation.enabled=true"
+            )
+          }
+        }
+      }
+    }
   }
 }
 
@@ -3,9 +3,12 @@
  * SPDX-License-Identifier: Apache-2.0
  */
 
+import net.ltgt.gradle.errorprone.errorprone
+
 plugins {
   id("com.gradleup.shadow")
   id("otel.library-instrumentation")
+  id("otel.jmh-conventions")
 }
 
 dependencies {
@@ -23,11 +26,20 @@ dependencies {
   testLibrary("com.zaxxer:HikariCP:2.4.0")
   testLibrary("com.mchange:c3p0:0.9.5")
 
+  jmhImplementation(project(":instrumentation:jdbc:testing"))
+  jmhImplementation("io.opentelemetry:opentelemetry-sdk-testing")
+
   // some classes in earlier versions of derby were split out into derbytools in later versions
   latestDepTestLibrary("org.apache.derby:derbytools:latest.release")
 }
 
 tasks {
+  named<JavaCompile>("jmhCompileGeneratedClasses") {
+    options.errorprone {
+      isEnabled.set(false)
+    }
+  }
+
   // We cannot use "--release" javac option here because that will forbid using apis that were added
   // in later versions. In JDBC wrappers we wish to implement delegation for methods that are not
   // present in jdk8.
@@ -0,0 +1,104 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jdbc.internal;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.internal.SqlCommenter;
+import io.opentelemetry.instrumentation.jdbc.TestConnection;
+import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the instrumentation overhead of executing an already prepared statement repeatedly, as
+ * done on long-lived pooled connections. Uses the fake driver from the jdbc testing module so that
+ * only the instrumentation is measured.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class PreparedStatementBenchmark {
+
+  @Param({"short", "long"})
+  public String statement;
+
+  private Connection connection;
+  private PreparedStatement preparedStatement;
+  private String sql;
+
+  @Setup
+  public void setup() throws SQLException {
+    // sampled but not exported spans, so that attributes are actually extracted
+    OpenTelemetry openTelemetry =
+        OpenTelemetrySdk.builder()
+            .setTracerProvider(SdkTracerProvider.builder().setSampler(Sampler.alwaysOn()).build())
+            .build();
+    DbInfo dbInfo = DbInfo.builder().system("h2").name("benchmark").host("localhost").build();
+    connection =
+        OpenTelemetryConnection.create(
+            new TestConnection(unused -> {}),
+            dbInfo,
+            JdbcInstrumenterFactory.createStatementInstrumenter(openTelemetry),
+            JdbcInstrumenterFactory.createTransactionInstrumenter(openTelemetry, false),
+            false,
+            SqlCommenter.noop());
+
+    if (statement.equals("short")) {
+      sql = "SELECT id, name FROM users WHERE id = ?";
+    } else {
+      StringBuilder builder = new StringBuilder("SELECT u.id");
+      for (int i = 0; i < 200; i++) {
+        builder.append(", u.column").append(i);
+      }
+      builder.append(" FROM users u JOIN orders o ON u.id = o.user_id WHERE u.id = ?");
+      for (int i = 0; i < 50; i++) {
+        builder.append(" AND o.status").append(i).append(" IN (?, ?, ?)");
+      }
+      sql = builder.toString();
+    }
+    preparedStatement = connection.prepareStatement(sql);
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    preparedStatement.close();
+    connection.close();
+  }
+
+  @Benchmark
+  public ResultSet execute() throws SQLException {
+    preparedStatement.setLong(1, 42);
+    return preparedStatement.executeQuery();
+  }
+
+  @Benchmark
+  public ResultSet prepareAndExecute() throws SQLException {
+    PreparedStatement statement = connection.prepareStatement(sql);
+    statement.setLong(1, 42);
+    return statement.executeQuery();
+  }
+}
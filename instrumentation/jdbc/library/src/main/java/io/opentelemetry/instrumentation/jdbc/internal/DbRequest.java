@@ -10,6 +10,7 @@ import static io.opentelemetry.instrumentation.jdbc.internal.JdbcUtils.extractDb
 import static java.util.Collections.emptyMap;
 
 import com.google.auto.value.AutoValue;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementInfo;
 import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -17,6 +18,7 @@ import java.sql.Statement;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
 
 /**
@@ -100,7 +102,28 @@ public abstract class DbRequest {
       Map<String, String> preparedStatementParameters,
       boolean parameterizedQuery) {
     return create(
-        dbInfo, queryTexts, batchSize, null, preparedStatementParameters, parameterizedQuery);
+        dbInfo, queryTexts, batchSize, null, preparedStatementParameters, parameterizedQuery, null);
+  }
+
+  /**
+   * Creates a request for a prepared statement that keeps the sanitized form of its query text, the
+   * extractors then use {@code sqlStatementInfo} instead of sanitizing the query text again. The
+   * supplier is only called when a span is started for the request.
+   */
+  public static DbRequest createPrepared(
+      DbInfo dbInfo,
+      String queryText,
+      Long batchSize,
+      Map<String, String> preparedStatementParameters,
+      Supplier<SqlStatementInfo> sqlStatementInfo) {
+    return create(
+        dbInfo,
+        Collections.singletonList(queryText),
+        batchSize,
+        null,
+        preparedStatementParameters,
+        true,
+        sqlStatementInfo);
   }
 
   private static DbRequest create(
@@ -109,9 +132,16 @@ public abstract class DbRequest {
       Long batchSize,
       String operation,
       Map<String, String> preparedStatementParameters,
-      boolean parameterizedQuery) {
+      boolean parameterizedQuery,
+      @Nullable Supplier<SqlStatementInfo> sqlStatementInfo) {
     return new AutoValue_DbRequest(
-        dbInfo, queryTexts, batchSize, operation, preparedStatementParameters, parameterizedQuery);
+        dbInfo,
+        queryTexts,
+        batchSize,
+        operation,
+        preparedStatementParameters,
+        parameterizedQuery,
+        sqlStatementInfo);
   }
 
   @Nullable
@@ -125,7 +155,7 @@ public abstract class DbRequest {
   }
 
   public static DbRequest createTransaction(DbInfo dbInfo, String operation) {
-    return create(dbInfo, Collections.emptyList(), null, operation, emptyMap(), false);
+    return create(dbInfo, Collections.emptyList(), null, operation, emptyMap(), false, null);
   }
 
   public abstract DbInfo getDbInfo();
@@ -142,4 +172,14 @@ public abstract class DbRequest {
   public abstract Map<String, String> getPreparedStatementParameters();
 
   public abstract boolean isParameterizedQuery();
+
+  // sanitized query text, only set for prepared statements that keep it between executions
+  @Nullable
+  abstract Supplier<SqlStatementInfo> getSqlStatementInfoSupplier();
+
+  @Nullable
+  public SqlStatementInfo getSqlStatementInfo() {
+    Supplier<SqlStatementInfo> supplier = getSqlStatementInfoSupplier();
+    return supplier != null ? supplier.get() : null;
+  }
 }
@@ -6,6 +6,8 @@
 package io.opentelemetry.instrumentation.jdbc.internal;
 
 import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlClientAttributesGetter;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementInfo;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.internal.SqlStatementInfoGetter;
 import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
 import java.sql.SQLException;
 import java.util.Collection;
@@ -16,7 +18,8 @@ import javax.annotation.Nullable;
  * This class is internal and is hence not for public use. Its APIs are unstable and can change at
  * any time.
  */
-public final class JdbcAttributesGetter implements SqlClientAttributesGetter<DbRequest, Void> {
+public final class JdbcAttributesGetter
+    implements SqlClientAttributesGetter<DbRequest, Void>, SqlStatementInfoGetter<DbRequest> {
 
   public static final JdbcAttributesGetter INSTANCE = new JdbcAttributesGetter();
 
@@ -52,6 +55,12 @@ public final class JdbcAttributesGetter implements SqlClientAttributesGetter<DbR
     return request.getQueryTexts();
   }
 
+  @Nullable
+  @Override
+  public SqlStatementInfo getSqlStatementInfo(DbRequest request) {
+    return request.getSqlStatementInfo();
+  }
+
   @Override
   public Long getDbOperationBatchSize(DbRequest request) {
     return request.getBatchSize();
@@ -10,6 +10,7 @@ import static java.util.logging.Level.FINE;
 import static java.util.regex.Pattern.CASE_INSENSITIVE;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
@@ -25,6 +26,7 @@ import java.util.Properties;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import javax.annotation.Nullable;
 
 /**
  * Structured as an enum instead of a class hierarchy to allow iterating through the parsers
@@ -995,6 +997,12 @@ public enum JdbcConnectionUrlParser {
 
   private static final Map<String, JdbcConnectionUrlParser> typeParsers = new HashMap<>();
 
+  // connection properties that are read by populateStandardProperties
+  private static final String[] STANDARD_PROPERTIES = {
+    "user", "databasename", "databaseName", "servername", "serverName", "portnumber", "portNumber"
+  };
+  private static final Cache<ParseKey, DbInfo> parseCache = Cache.bounded(1000);
+
   static {
     for (JdbcConnectionUrlParser parser : JdbcConnectionUrlParser.values()) {
       for (String key : parser.typeKeys) {
@@ -1017,6 +1025,14 @@ public enum JdbcConnectionUrlParser {
     if (connectionUrl == null) {
       return DEFAULT;
     }
+    ParseKey key = ParseKey.create(connectionUrl, props);
+    if (key == null) {
+      return doParse(connectionUrl, props);
+    }
+    return parseCache.computeIfAbsent(key, k -> doParse(connectionUrl, props));
+  }
+
+  private static DbInfo doParse(String connectionUrl, Properties props) {
     // Make this easier and ignore case.
     connectionUrl = connectionUrl.toLowerCase(Locale.ROOT);
 
@@ -1150,6 +1166,66 @@ public enum JdbcConnectionUrlParser {
     }
   }
 
+  /**
+   * Parse cache key consisting of the connection url and the values of the connection properties
+   * that can affect the parsed {@link DbInfo}.
+   */
+  private static final class ParseKey {
+    private static final String[] NO_PROPERTIES = new String[0];
+
+    private final String connectionUrl;
+    private final String[] properties;
+    private final int hashCode;
+
+    private ParseKey(String connectionUrl, String[] properties) {
+      this.connectionUrl = connectionUrl;
+      this.properties = properties;
+      this.hashCode = 31 * connectionUrl.hashCode() + Arrays.hashCode(properties);
+    }
+
+    @Nullable
+    static ParseKey create(String connectionUrl, @Nullable Properties props) {
+      if (props == null || props.isEmpty()) {
+        return new ParseKey(connectionUrl, NO_PROPERTIES);
+      }
+      String[] properties = null;
+      for (int i = 0; i < STANDARD_PROPERTIES.length; i++) {
+        Object value = props.get(STANDARD_PROPERTIES[i]);
+        if (value == null) {
+          continue;
+        }
+        if (!(value instanceof String)) {
+          // let the parser deal with unexpected property values, don't cache the result
+          return null;
+        }
+        if (properties == null) {
+          properties = new String[STANDARD_PROPERTIES.length];
+        }
+        properties[i] = (String) value;
+      }
+      return new ParseKey(connectionUrl, properties != null ? properties : NO_PROPERTIES);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof ParseKey)) {
+        return false;
+      }
+      ParseKey other = (ParseKey) obj;
+      return hashCode == other.hashCode
+          && connectionUrl.equals(other.connectionUrl)
+          && Arrays.equals(properties, other.properties);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
   // see
   // https://github.com/open-telemetry/semantic-conventions/blob/main/docs/db/database-spans.md
   private static String toDbSystem(String type) {
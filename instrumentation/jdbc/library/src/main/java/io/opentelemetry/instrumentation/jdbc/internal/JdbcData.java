@@ -7,6 +7,8 @@ package io.opentelemetry.instrumentation.jdbc.internal;
 
 import io.opentelemetry.instrumentation.api.util.VirtualField;
 import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -17,7 +19,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Holds info associated with JDBC connections and prepared statements.
@@ -27,7 +30,9 @@ import java.util.WeakHashMap;
  */
 public final class JdbcData {
 
-  private static final Map<DbInfo, WeakReference<DbInfo>> dbInfos = new WeakHashMap<>();
+  // keys and values are the same weak references that compare the referenced db info by equality
+  private static final ConcurrentMap<WeakDbInfo, WeakDbInfo> dbInfos = new ConcurrentHashMap<>();
+  private static final ReferenceQueue<DbInfo> dbInfoQueue = new ReferenceQueue<>();
   public static final VirtualField<Connection, DbInfo> connectionInfo =
       VirtualField.find(Connection.class, DbInfo.class);
   public static final VirtualField<PreparedStatement, String> preparedStatement =
@@ -51,16 +56,26 @@ public final class JdbcData {
    *     and a different instance later if the original interned instance was garbage collected.
    */
   public static DbInfo intern(DbInfo dbInfo) {
-    synchronized (dbInfos) {
-      WeakReference<DbInfo> reference = dbInfos.get(dbInfo);
-      if (reference != null) {
-        DbInfo result = reference.get();
-        if (result != null) {
-          return result;
-        }
+    expungeStaleDbInfos();
+    WeakDbInfo reference = new WeakDbInfo(dbInfo, dbInfoQueue);
+    while (true) {
+      WeakDbInfo existing = dbInfos.putIfAbsent(reference, reference);
+      if (existing == null) {
+        return dbInfo;
       }
-      dbInfos.put(dbInfo, new WeakReference<>(dbInfo));
-      return dbInfo;
+      DbInfo result = existing.get();
+      if (result != null) {
+        return result;
+      }
+      // the interned instance was garbage collected after it was found, replace it
+      dbInfos.remove(existing, existing);
+    }
+  }
+
+  private static void expungeStaleDbInfos() {
+    Reference<? extends DbInfo> reference;
+    while ((reference = dbInfoQueue.poll()) != null) {
+      dbInfos.remove(reference, reference);
     }
   }
 
@@ -153,6 +168,33 @@ public final class JdbcData {
     }
   }
 
+  private static final class WeakDbInfo extends WeakReference<DbInfo> {
+    private final int hashCode;
+
+    WeakDbInfo(DbInfo dbInfo, ReferenceQueue<DbInfo> queue) {
+      super(dbInfo, queue);
+      hashCode = dbInfo.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof WeakDbInfo)) {
+        return false;
+      }
+      // a reference whose db info was garbage collected is only equal to itself
+      DbInfo dbInfo = get();
+      return dbInfo != null && dbInfo.equals(((WeakDbInfo) obj).get());
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
   private static final class PreparedStatementBatchInfo {
     private long batchSize;
 
@@ -20,6 +20,8 @@
 
 package io.opentelemetry.instrumentation.jdbc.internal;
 
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementInfo;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementSanitizer;
 import io.opentelemetry.instrumentation.api.incubator.semconv.db.internal.SqlCommenter;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
 import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
@@ -46,12 +48,18 @@ import java.sql.Timestamp;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.Map;
+import javax.annotation.Nullable;
 
 @SuppressWarnings("OverloadMethodsDeclarationOrder")
 class OpenTelemetryPreparedStatement<S extends PreparedStatement> extends OpenTelemetryStatement<S>
     implements PreparedStatement {
+  private static final SqlStatementSanitizer sanitizer = SqlStatementSanitizer.create(true);
+
   private final boolean captureQueryParameters;
   private final Map<String, String> parameters;
+  // the query is sanitized when the first span is started, later executions reuse the result
+  @Nullable private volatile SqlStatementInfo sqlStatementInfo;
+  private final DbRequest request;
 
   public OpenTelemetryPreparedStatement(
       S delegate,
@@ -64,6 +72,26 @@ class OpenTelemetryPreparedStatement<S extends PreparedStatement> extends OpenTe
     super(delegate, connection, dbInfo, query, instrumenter, sqlCommenter);
     this.captureQueryParameters = captureQueryParameters;
     this.parameters = new HashMap<>();
+    // parameters are read when the span is started, so the same request can be used for every
+    // execution
+    this.request =
+        DbRequest.createPrepared(dbInfo, query, null, parameters, this::getSqlStatementInfo);
+  }
+
+  private SqlStatementInfo getSqlStatementInfo() {
+    SqlStatementInfo result = sqlStatementInfo;
+    if (result == null) {
+      // racing executions may both sanitize the query, they produce equal results
+      result = sanitizer.sanitize(query);
+      sqlStatementInfo = result;
+    }
+    return result;
+  }
+
+  // Visible for testing
+  @Nullable
+  SqlStatementInfo getSanitizedQueryIfPresent() {
+    return sqlStatementInfo;
   }
 
   private void putParameter(int index, Object value) {
@@ -96,17 +124,17 @@ class OpenTelemetryPreparedStatement<S extends PreparedStatement> extends OpenTe
 
   @Override
   public ResultSet executeQuery() throws SQLException {
-    return OpenTelemetryResultSet.wrap(wrapCall(query, delegate::executeQuery), this);
+    return OpenTelemetryResultSet.wrap(wrapCall(request, delegate::executeQuery), this);
   }
 
   @Override
   public int executeUpdate() throws SQLException {
-    return wrapCall(query, delegate::executeUpdate);
+    return wrapCall(request, delegate::executeUpdate);
   }
 
   @Override
   public boolean execute() throws SQLException {
-    return wrapCall(query, delegate::execute);
+    return wrapCall(request, delegate::execute);
   }
 
   @SuppressWarnings("UngroupedOverloads")
@@ -434,7 +462,9 @@ class OpenTelemetryPreparedStatement<S extends PreparedStatement> extends OpenTe
   }
 
   private <T, E extends Exception> T wrapBatchCall(ThrowingSupplier<T, E> callable) throws E {
-    DbRequest request = DbRequest.create(dbInfo, query, batchSize, parameters, true);
+    DbRequest request =
+        DbRequest.createPrepared(
+            dbInfo, query, batchSize, parameters, this::getSqlStatementInfo);
     return wrapCall(request, callable);
   }
 
@@ -453,6 +483,6 @@ class OpenTelemetryPreparedStatement<S extends PreparedStatement> extends OpenTe
 
   @Override
   public long executeLargeUpdate() throws SQLException {
-    return wrapCall(query, delegate::executeLargeUpdate);
+    return wrapCall(request, delegate::executeLargeUpdate);
   }
 }
@@ -49,6 +49,35 @@ class JdbcConnectionUrlParserTest {
     assertThat(JdbcConnectionUrlParser.parse(null, null)).isEqualTo(DEFAULT);
   }
 
+  @Test
+  void testParsedUrlIsCached() {
+    String url = "jdbc:postgresql://pg.host:5432/pgdb";
+    DbInfo info = parse(url, null);
+    assertThat(parse(url, new Properties())).isSameAs(info);
+
+    Properties props = new Properties();
+    props.setProperty("user", "pguser");
+    DbInfo withUser = parse(url, props);
+    assertThat(withUser).isNotSameAs(info);
+    assertThat(withUser.getUser()).isEqualTo("pguser");
+
+    // properties that are not read by the parser don't affect the cache key
+    Properties otherProps = new Properties();
+    otherProps.setProperty("user", "pguser");
+    otherProps.setProperty("password", "secret");
+    assertThat(parse(url, otherProps)).isSameAs(withUser);
+  }
+
+  @Test
+  void testInternReturnsEqualInstance() {
+    DbInfo info = parse("jdbc:mysql://mysql.host:3306/mydb", null);
+    DbInfo copy = info.toBuilder().build();
+    assertThat(copy).isNotSameAs(info);
+
+    DbInfo interned = JdbcData.intern(info);
+    assertThat(JdbcData.intern(copy)).isSameAs(interned);
+  }
+
   private static Stream<Arguments> mySqlArguments() {
     return args(
         // https://dev.mysql.com/doc/connector-j/8.0/en/connector-j-reference-jdbc-url-format.html
@@ -11,12 +11,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementInfo;
 import io.opentelemetry.instrumentation.api.incubator.semconv.db.internal.SqlCommenter;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
 import io.opentelemetry.instrumentation.jdbc.TestConnection;
 import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
 import io.opentelemetry.instrumentation.testing.junit.InstrumentationExtension;
 import io.opentelemetry.instrumentation.testing.junit.LibraryInstrumentationExtension;
+import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
@@ -99,6 +101,44 @@ class OpenTelemetryConnectionTest {
     connection.close();
   }
 
+  @Test
+  void testPreparedStatementReusesSanitizedQuery() throws Exception {
+    OpenTelemetryConnection connection = getConnection(testing.getOpenTelemetry());
+
+    String query = "SELECT * FROM users WHERE id = ?";
+    PreparedStatement statement = connection.prepareStatement(query);
+    OpenTelemetryPreparedStatement<?> otelStatement = (OpenTelemetryPreparedStatement<?>) statement;
+    // the query is sanitized on the first execution, not when the statement is prepared
+    assertThat(otelStatement.getSanitizedQueryIfPresent()).isNull();
+
+    statement.executeQuery();
+    SqlStatementInfo sanitizedQuery = otelStatement.getSanitizedQueryIfPresent();
+    assertThat(sanitizedQuery).isNotNull();
+    statement.executeQuery();
+    assertThat(otelStatement.getSanitizedQueryIfPresent()).isSameAs(sanitizedQuery);
+
+    testing.waitAndAssertTraces(
+        trace ->
+            trace.hasSpansSatisfyingExactly(
+                span ->
+                    span.hasAttributesSatisfying(
+                        attributes ->
+                            assertThat(attributes.asMap())
+                                .containsValue(query)
+                                .containsValue("users"))),
+        trace ->
+            trace.hasSpansSatisfyingExactly(
+                span ->
+                    span.hasAttributesSatisfying(
+                        attributes ->
+                            assertThat(attributes.asMap())
+                                .containsValue(query)
+                                .containsValue("users"))));
+    assertThat(executedSql).containsExactly(query);
+
+    connection.close();
+  }
+
   private static DbInfo getDbInfo() {
     return DbInfo.builder()
         .system("my_system")
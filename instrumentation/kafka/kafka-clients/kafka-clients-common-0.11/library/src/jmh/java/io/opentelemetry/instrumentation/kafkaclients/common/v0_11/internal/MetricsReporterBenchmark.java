@@ -0,0 +1,106 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal;
+
+import io.opentelemetry.api.OpenTelemetry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Measurable;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.utils.Time;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Registers and then removes 50k per partition consumer metrics, as happens when a consumer with
+ * many assigned partitions starts or goes through a rebalance. Uses a no-op {@link OpenTelemetry}
+ * so that only the bookkeeping in {@link OpenTelemetryMetricsReporter} is measured.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.SingleShotTime)
+@State(Scope.Thread)
+public class MetricsReporterBenchmark {
+
+  private static final String[] METRIC_NAMES = {
+    "records-lag",
+    "records-lag-avg",
+    "records-lag-max",
+    "records-lead",
+    "records-lead-avg",
+    "records-lead-min",
+    "records-consumed-rate",
+    "records-consumed-total",
+    "bytes-consumed-rate",
+    "bytes-consumed-total"
+  };
+  private static final Measurable MEASURABLE = (config, now) -> 1.0;
+  private static final int TOPICS = 500;
+  private static final int PARTITIONS = 10;
+
+  private Metrics metrics;
+  private List<MetricName> metricNames;
+
+  @Setup(Level.Invocation)
+  public void setup() {
+    Map<String, Object> config = new HashMap<>();
+    config.put(
+        OpenTelemetryMetricsReporter.CONFIG_KEY_OPENTELEMETRY_SUPPLIER,
+        new OpenTelemetrySupplier(OpenTelemetry.noop()));
+    config.put(
+        OpenTelemetryMetricsReporter.CONFIG_KEY_OPENTELEMETRY_INSTRUMENTATION_NAME,
+        "io.opentelemetry.kafka-clients-0.11");
+    OpenTelemetryMetricsReporter reporter = new OpenTelemetryMetricsReporter();
+    reporter.configure(config);
+    metrics = new Metrics(new MetricConfig(), Collections.singletonList(reporter), Time.SYSTEM);
+
+    metricNames = new ArrayList<>();
+    for (int topic = 0; topic < TOPICS; topic++) {
+      for (int partition = 0; partition < PARTITIONS; partition++) {
+        Map<String, String> tags = new HashMap<>();
+        tags.put("client-id", "consumer-1");
+        tags.put("topic", "topic-" + topic);
+        tags.put("partition", String.valueOf(partition));
+        for (String name : METRIC_NAMES) {
+          metricNames.add(metrics.metricName(name, "consumer-fetch-manager-metrics", tags));
+        }
+      }
+    }
+  }
+
+  @TearDown(Level.Invocation)
+  public void tearDown() {
+    metrics.close();
+  }
+
+  @Benchmark
+  public void registerAndRemove() {
+    for (MetricName metricName : metricNames) {
+      metrics.addMetric(metricName, MEASURABLE);
+    }
+    for (MetricName metricName : metricNames) {
+      metrics.removeMetric(metricName);
+    }
+  }
+}
@@ -12,12 +12,14 @@ import io.opentelemetry.api.metrics.MeterBuilder;
 import io.opentelemetry.instrumentation.api.internal.EmbeddedInstrumentationProperties;
 import io.opentelemetry.instrumentation.api.internal.GuardedBy;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.KafkaMetric;
 import org.apache.kafka.common.metrics.MetricsReporter;
 
@@ -47,7 +49,14 @@ public final class OpenTelemetryMetricsReporter implements MetricsReporter {
   private final Object lock = new Object();
 
   @GuardedBy("lock")
-  private final List<RegisteredObservable> registeredObservables = new ArrayList<>();
+  private final Map<MetricName, RegisteredObservable> registeredObservables = new HashMap<>();
+
+  // registered observables grouped by instrument and attribute keys, used for finding the lower
+  // dimension versions of an instrument without scanning all registered observables
+  @GuardedBy("lock")
+  private final Map<
+          InstrumentDescriptor, Map<Set<AttributeKey<?>>, Map<MetricName, RegisteredObservable>>>
+      observablesByInstrument = new HashMap<>();
 
   /**
    * Reset for test by resetting the {@link #meter} to {@code null} and closing all registered
@@ -60,7 +69,7 @@ public final class OpenTelemetryMetricsReporter implements MetricsReporter {
   // Visible for test
   List<RegisteredObservable> getRegisteredObservables() {
     synchronized (lock) {
-      return new ArrayList<>(registeredObservables);
+      return new ArrayList<>(registeredObservables.values());
     }
   }
 
@@ -91,31 +100,41 @@ public final class OpenTelemetryMetricsReporter implements MetricsReporter {
       return;
     }
 
-    Set<AttributeKey<?>> attributeKeys = registeredObservable.getAttributes().asMap().keySet();
+    Set<AttributeKey<?>> attributeKeys = attributeKeys(registeredObservable);
     synchronized (lock) {
-      for (Iterator<RegisteredObservable> it = registeredObservables.iterator(); it.hasNext(); ) {
-        RegisteredObservable curRegisteredObservable = it.next();
-        Set<AttributeKey<?>> curAttributeKeys =
-            curRegisteredObservable.getAttributes().asMap().keySet();
-        if (curRegisteredObservable.getKafkaMetricName().equals(metric.metricName())) {
-          logger.log(Level.FINEST, "Replacing instrument: {0}", curRegisteredObservable);
-          closeInstrument(curRegisteredObservable.getObservable());
-          it.remove();
-        } else if (curRegisteredObservable
-                .getInstrumentDescriptor()
-                .equals(registeredObservable.getInstrumentDescriptor())
-            && attributeKeys.size() > curAttributeKeys.size()
+      RegisteredObservable previous = registeredObservables.remove(metric.metricName());
+      if (previous != null) {
+        logger.log(Level.FINEST, "Replacing instrument: {0}", previous);
+        closeInstrument(previous.getObservable());
+        removeFromInstrument(previous);
+      }
+
+      Map<Set<AttributeKey<?>>, Map<MetricName, RegisteredObservable>> instrumentObservables =
+          observablesByInstrument.computeIfAbsent(
+              registeredObservable.getInstrumentDescriptor(), unused -> new HashMap<>());
+      for (Iterator<Map.Entry<Set<AttributeKey<?>>, Map<MetricName, RegisteredObservable>>> it =
+              instrumentObservables.entrySet().iterator();
+          it.hasNext(); ) {
+        Map.Entry<Set<AttributeKey<?>>, Map<MetricName, RegisteredObservable>> entry = it.next();
+        Set<AttributeKey<?>> curAttributeKeys = entry.getKey();
+        if (attributeKeys.size() > curAttributeKeys.size()
             && attributeKeys.containsAll(curAttributeKeys)) {
-          logger.log(
-              Level.FINEST,
-              "Replacing instrument with higher dimension version: {0}",
-              curRegisteredObservable);
-          closeInstrument(curRegisteredObservable.getObservable());
+          for (RegisteredObservable curRegisteredObservable : entry.getValue().values()) {
+            logger.log(
+                Level.FINEST,
+                "Replacing instrument with higher dimension version: {0}",
+                curRegisteredObservable);
+            closeInstrument(curRegisteredObservable.getObservable());
+            registeredObservables.remove(curRegisteredObservable.getKafkaMetricName());
+          }
           it.remove();
         }
       }
 
-      registeredObservables.add(registeredObservable);
+      registeredObservables.put(metric.metricName(), registeredObservable);
+      instrumentObservables
+          .computeIfAbsent(attributeKeys, unused -> new HashMap<>())
+          .put(metric.metricName(), registeredObservable);
     }
   }
 
@@ -123,16 +142,39 @@ public final class OpenTelemetryMetricsReporter implements MetricsReporter {
   public void metricRemoval(KafkaMetric metric) {
     logger.log(Level.FINEST, "Metric removed: {0}", metric.metricName());
     synchronized (lock) {
-      for (Iterator<RegisteredObservable> it = registeredObservables.iterator(); it.hasNext(); ) {
-        RegisteredObservable current = it.next();
-        if (current.getKafkaMetricName().equals(metric.metricName())) {
-          closeInstrument(current.getObservable());
-          it.remove();
-        }
+      RegisteredObservable current = registeredObservables.remove(metric.metricName());
+      if (current != null) {
+        closeInstrument(current.getObservable());
+        removeFromInstrument(current);
+      }
+    }
+  }
+
+  @GuardedBy("lock")
+  private void removeFromInstrument(RegisteredObservable registeredObservable) {
+    Map<Set<AttributeKey<?>>, Map<MetricName, RegisteredObservable>> instrumentObservables =
+        observablesByInstrument.get(registeredObservable.getInstrumentDescriptor());
+    if (instrumentObservables == null) {
+      return;
+    }
+    Set<AttributeKey<?>> attributeKeys = attributeKeys(registeredObservable);
+    Map<MetricName, RegisteredObservable> observables = instrumentObservables.get(attributeKeys);
+    if (observables == null) {
+      return;
+    }
+    observables.remove(registeredObservable.getKafkaMetricName());
+    if (observables.isEmpty()) {
+      instrumentObservables.remove(attributeKeys);
+      if (instrumentObservables.isEmpty()) {
+        observablesByInstrument.remove(registeredObservable.getInstrumentDescriptor());
       }
     }
   }
 
+  private static Set<AttributeKey<?>> attributeKeys(RegisteredObservable registeredObservable) {
+    return registeredObservable.getAttributes().asMap().keySet();
+  }
+
   @Override
   public void close() {
     closeAllInstruments();
@@ -140,10 +182,12 @@ public final class OpenTelemetryMetricsReporter implements MetricsReporter {
 
   private void closeAllInstruments() {
     synchronized (lock) {
-      for (Iterator<RegisteredObservable> it = registeredObservables.iterator(); it.hasNext(); ) {
+      for (Iterator<RegisteredObservable> it = registeredObservables.values().iterator();
+          it.hasNext(); ) {
         closeInstrument(it.next().getObservable());
         it.remove();
       }
+      observablesByInstrument.clear();
     }
   }
 
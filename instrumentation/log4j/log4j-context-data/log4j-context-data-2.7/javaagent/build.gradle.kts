@@ -1,5 +1,8 @@
+import net.ltgt.gradle.errorprone.errorprone
+
 plugins {
   id("otel.javaagent-instrumentation")
+  id("otel.jmh-conventions")
 }
 
 muzzle {
@@ -18,10 +21,20 @@ dependencies {
 
   testImplementation(project(":instrumentation:log4j:log4j-context-data:log4j-context-data-common:testing"))
 
+  jmhImplementation(project(":javaagent-extension-api"))
+  jmhImplementation("org.apache.logging.log4j:log4j-core:2.7")
+
   latestDepTestLibrary("org.apache.logging.log4j:log4j-core:2.16.+") // see log4j-context-data-2.17 module
 }
 
 tasks {
+  // TODO this should live in jmh-conventions
+  named<JavaCompile>("jmhCompileGeneratedClasses") {
+    options.errorprone {
+      isEnabled.set(false)
+    }
+  }
+
   test {
     filter {
       excludeTestsMatching("Log4j27BaggageTest")
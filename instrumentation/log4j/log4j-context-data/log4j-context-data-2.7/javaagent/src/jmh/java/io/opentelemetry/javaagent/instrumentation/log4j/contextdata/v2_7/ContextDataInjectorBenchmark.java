@@ -0,0 +1,89 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.instrumentation.log4j.contextdata.v2_7;
+
+import io.opentelemetry.api.baggage.Baggage;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.ContextDataInjector;
+import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.apache.logging.log4j.util.StringMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Injects the span context and baggage into the context data of a log event the way log4j does
+ * when garbage-free logging is enabled, i.e. with a reused context map. Run with the gc profiler
+ * (enabled by default in the jmh conventions), gc.alloc.rate.norm should be close to zero.
+ */
+@Fork(
+    value = 1,
+    jvmArgsAppend = {
+      "-Dlog4j2.enableThreadlocals=true",
+      "-Dlog4j2.garbagefreeThreadContextMap=true",
+      "-Dotel.instrumentation.log4j-context-data.add-baggage=true"
+    })
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class ContextDataInjectorBenchmark {
+
+  private final StringMap reusable = new SortedArrayStringMap();
+  private ContextDataInjector injector;
+  private io.opentelemetry.context.Scope scope;
+
+  @Setup
+  public void setup() {
+    injector = new SpanDecoratingContextDataInjector(ContextDataInjectorFactory.createInjector());
+    ThreadContext.put("userId", "user-1");
+    ThreadContext.put("requestId", "request-1");
+
+    SpanContext spanContext =
+        SpanContext.create(
+            "ff01020304050600ff0a0b0c0d0e0f00",
+            "090a0b0c0d0e0f00",
+            TraceFlags.getSampled(),
+            TraceState.getDefault());
+    Baggage baggage =
+        Baggage.builder()
+            .put("tenant", "tenant-1")
+            .put("region", "eu-west-1")
+            .put("session", "session-1")
+            .build();
+    scope = Context.root().with(Span.wrap(spanContext)).with(baggage).makeCurrent();
+  }
+
+  @TearDown
+  public void tearDown() {
+    scope.close();
+    ThreadContext.clearMap();
+  }
+
+  @Benchmark
+  public StringMap injectContextData() {
+    // log4j clears the context map of a reused log event before filling it
+    reusable.clear();
+    return injector.injectContextData(Collections.emptyList(), reusable);
+  }
+}
@@ -7,15 +7,16 @@ package io.opentelemetry.javaagent.instrumentation.log4j.contextdata.v2_7;
 
 import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.api.baggage.Baggage;
-import io.opentelemetry.api.baggage.BaggageEntry;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.incubator.config.internal.DeclarativeConfigUtil;
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.bootstrap.internal.AgentCommonConfig;
 import io.opentelemetry.javaagent.bootstrap.internal.ConfiguredResourceAttributesHolder;
 import java.util.List;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.apache.logging.log4j.core.ContextDataInjector;
 import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.util.ReadOnlyStringMap;
@@ -33,6 +34,8 @@ public final class SpanDecoratingContextDataInjector implements ContextDataInjec
 
   private static final StringMap staticContextData = getStaticContextData();
 
+  private static final Cache<String, String> baggageKeys = Cache.bounded(100);
+
   private final ContextDataInjector delegate;
 
   public SpanDecoratingContextDataInjector(ContextDataInjector delegate) {
@@ -45,26 +48,33 @@ public final class SpanDecoratingContextDataInjector implements ContextDataInjec
 
     if (contextData.containsKey(TRACE_ID_KEY)) {
       // Assume already instrumented event if traceId is present.
-      return staticContextData.isEmpty() ? contextData : newContextData(contextData);
+      return staticContextData.isEmpty() ? contextData : newContextData(contextData, stringMap);
     }
 
     Context context = Context.current();
     Span span = Span.fromContext(context);
     SpanContext currentContext = span.getSpanContext();
     if (!currentContext.isValid()) {
-      return staticContextData.isEmpty() ? contextData : newContextData(contextData);
+      return staticContextData.isEmpty() ? contextData : newContextData(contextData, stringMap);
     }
 
-    StringMap newContextData = newContextData(contextData);
+    StringMap newContextData = newContextData(contextData, stringMap);
+    // the span context keeps its ids as hex strings and trace flags cache their hex
+    // representation, so none of these allocate
     newContextData.putValue(TRACE_ID_KEY, currentContext.getTraceId());
     newContextData.putValue(SPAN_ID_KEY, currentContext.getSpanId());
     newContextData.putValue(TRACE_FLAGS_KEY, currentContext.getTraceFlags().asHex());
 
     if (BAGGAGE_ENABLED) {
       Baggage baggage = Baggage.fromContext(context);
-      for (Map.Entry<String, BaggageEntry> entry : baggage.asMap().entrySet()) {
-        // prefix all baggage values to avoid clashes with existing context
-        newContextData.putValue("baggage." + entry.getKey(), entry.getValue().getValue());
+      if (!baggage.isEmpty()) {
+        // forEach does not build a map of the baggage entries like asMap() does
+        baggage.forEach(
+            (key, entry) ->
+                newContextData.putValue(
+                    baggageKeys.computeIfAbsent(
+                        key, SpanDecoratingContextDataInjector::prefixBaggageKey),
+                    entry.getValue()));
       }
     }
     return newContextData;
@@ -75,12 +85,30 @@ public final class SpanDecoratingContextDataInjector implements ContextDataInjec
     return delegate.rawContextData();
   }
 
-  private static StringMap newContextData(StringMap contextData) {
-    StringMap newContextData = new SortedArrayStringMap(contextData);
+  // Log4j passes a map that it reuses across log events when garbage-free logging is enabled.
+  // Filling that map instead of copying the context data into a new one keeps logging
+  // garbage-free.
+  private static StringMap newContextData(StringMap contextData, @Nullable StringMap reusable) {
+    StringMap newContextData;
+    if (contextData == reusable && !contextData.isFrozen()) {
+      newContextData = contextData;
+    } else if (reusable != null && !reusable.isFrozen()) {
+      // the delegate returned a different map, e.g. the frozen thread context map
+      newContextData = reusable;
+      newContextData.clear();
+      newContextData.putAll(contextData);
+    } else {
+      newContextData = new SortedArrayStringMap(contextData);
+    }
     newContextData.putAll(staticContextData);
     return newContextData;
   }
 
+  private static String prefixBaggageKey(String key) {
+    // prefix all baggage values to avoid clashes with existing context
+    return "baggage." + key;
+  }
+
   private static StringMap getStaticContextData() {
     StringMap map = new SortedArrayStringMap();
     for (Map.Entry<String, String> entry :
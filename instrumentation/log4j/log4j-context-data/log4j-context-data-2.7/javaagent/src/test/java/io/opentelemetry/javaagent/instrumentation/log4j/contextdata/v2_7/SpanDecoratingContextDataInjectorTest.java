@@ -0,0 +1,132 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.instrumentation.log4j.contextdata.v2_7;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.instrumentation.testing.junit.AgentInstrumentationExtension;
+import io.opentelemetry.instrumentation.testing.junit.InstrumentationExtension;
+import java.util.List;
+import org.apache.logging.log4j.core.ContextDataInjector;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+class SpanDecoratingContextDataInjectorTest {
+  @RegisterExtension
+  static final InstrumentationExtension testing = AgentInstrumentationExtension.create();
+
+  @Test
+  void fillsReusedMap() {
+    StringMap reusable = new SortedArrayStringMap();
+    SpanDecoratingContextDataInjector injector =
+        new SpanDecoratingContextDataInjector(new FillingInjector());
+
+    StringMap contextData =
+        testing.runWithSpan("parent", () -> injector.injectContextData(null, reusable));
+
+    assertThat(contextData).isSameAs(reusable);
+    assertContextData(contextData);
+  }
+
+  @Test
+  void copiesFrozenDelegateMapIntoReusedMap() {
+    StringMap threadContext = threadContext();
+    StringMap reusable = new SortedArrayStringMap();
+    reusable.putValue("stale", "value");
+    SpanDecoratingContextDataInjector injector =
+        new SpanDecoratingContextDataInjector(new FixedInjector(threadContext));
+
+    StringMap contextData =
+        testing.runWithSpan("parent", () -> injector.injectContextData(null, reusable));
+
+    assertThat(contextData).isSameAs(reusable);
+    assertContextData(contextData);
+    assertThat(contextData.containsKey("stale")).isFalse();
+    // the frozen map of the delegate is not modified
+    assertThat(threadContext.size()).isEqualTo(1);
+  }
+
+  @Test
+  void copiesFrozenDelegateMapWithoutReusedMap() {
+    StringMap threadContext = threadContext();
+    SpanDecoratingContextDataInjector injector =
+        new SpanDecoratingContextDataInjector(new FixedInjector(threadContext));
+
+    StringMap contextData =
+        testing.runWithSpan("parent", () -> injector.injectContextData(null, null));
+
+    assertThat(contextData).isNotSameAs(threadContext);
+    assertContextData(contextData);
+    assertThat(threadContext.size()).isEqualTo(1);
+  }
+
+  @Test
+  void copiesFrozenReusedMap() {
+    StringMap reusable = threadContext();
+    SpanDecoratingContextDataInjector injector =
+        new SpanDecoratingContextDataInjector(new FixedInjector(reusable));
+
+    StringMap contextData =
+        testing.runWithSpan("parent", () -> injector.injectContextData(null, reusable));
+
+    assertThat(contextData).isNotSameAs(reusable);
+    assertContextData(contextData);
+    assertThat(reusable.size()).isEqualTo(1);
+  }
+
+  private static void assertContextData(StringMap contextData) {
+    assertThat((String) contextData.getValue("user")).isEqualTo("test");
+    assertThat((String) contextData.getValue("trace_id")).isNotNull();
+    assertThat((String) contextData.getValue("span_id")).isNotNull();
+    assertThat((String) contextData.getValue("trace_flags")).isEqualTo("01");
+    assertThat((String) contextData.getValue("service.name")).isEqualTo("unknown_service:java");
+  }
+
+  private static StringMap threadContext() {
+    StringMap threadContext = new SortedArrayStringMap();
+    threadContext.putValue("user", "test");
+    threadContext.freeze();
+    return threadContext;
+  }
+
+  /** Fills the map passed in by log4j, like the default injector with garbage-free logging. */
+  private static class FillingInjector implements ContextDataInjector {
+    @Override
+    public StringMap injectContextData(List<Property> properties, StringMap reusable) {
+      reusable.clear();
+      reusable.putValue("user", "test");
+      return reusable;
+    }
+
+    @Override
+    public ReadOnlyStringMap rawContextData() {
+      return new SortedArrayStringMap();
+    }
+  }
+
+  /** Returns the same map for every event, like the copy-on-write thread context injector. */
+  private static class FixedInjector implements ContextDataInjector {
+    private final StringMap contextData;
+
+    FixedInjector(StringMap contextData) {
+      this.contextData = contextData;
+    }
+
+    @Override
+    public StringMap injectContextData(List<Property> properties, StringMap reusable) {
+      return contextData;
+    }
+
+    @Override
+    public ReadOnlyStringMap rawContextData() {
+      return contextData;
+    }
+  }
+}
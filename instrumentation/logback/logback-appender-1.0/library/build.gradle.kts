@@ -1,6 +1,9 @@
+import net.ltgt.gradle.errorprone.errorprone
+
 plugins {
   id("otel.library-instrumentation")
   id("org.graalvm.buildtools.native")
+  id("otel.jmh-conventions")
 }
 
 dependencies {
@@ -42,6 +45,17 @@ dependencies {
 
   testImplementation(project(":instrumentation:logback:logback-appender-1.0:testing"))
   testImplementation("io.opentelemetry:opentelemetry-sdk-testing")
+
+  jmhImplementation("ch.qos.logback:logback-classic") {
+    version {
+      strictly("1.3.0")
+    }
+  }
+  jmhImplementation("org.slf4j:slf4j-api") {
+    version {
+      strictly("2.0.0")
+    }
+  }
 }
 
 graalvmNative {
@@ -175,6 +189,12 @@ testing {
 }
 
 tasks {
+  // TODO this should live in jmh-conventions
+  named<JavaCompile>("jmhCompileGeneratedClasses") {
+    options.errorprone {
+      isEnabled.set(false)
+    }
+  }
 
   val testStableSemconv by registering(Test::class) {
     testClassesDirs = sourceSets.test.get().output.classesDirs
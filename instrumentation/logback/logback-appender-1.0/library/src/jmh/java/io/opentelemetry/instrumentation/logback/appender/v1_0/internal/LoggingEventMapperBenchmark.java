@@ -0,0 +1,84 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.logback.appender.v1_0.internal;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import io.opentelemetry.api.logs.LoggerProvider;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Maps a logging event with MDC entries and arguments through a no-op {@link LoggerProvider}, so
+ * that only the work done by {@link LoggingEventMapper} is measured.
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class LoggingEventMapperBenchmark {
+
+  // comma separated, "*" captures all MDC entries
+  @Param({"", "userId,requestId", "*"})
+  public String captureMdcAttributes;
+
+  private final LoggerProvider loggerProvider = LoggerProvider.noop();
+  private LoggingEventMapper mapper;
+  private LoggingEvent event;
+
+  @Setup
+  public void setup() {
+    mapper =
+        LoggingEventMapper.builder()
+            .setCaptureExperimentalAttributes(true)
+            .setCaptureMdcAttributes(
+                captureMdcAttributes.isEmpty()
+                    ? emptyList()
+                    : asList(captureMdcAttributes.split(",")))
+            .setCaptureTemplate(true)
+            .setCaptureArguments(true)
+            .build();
+
+    Logger logger = new LoggerContext().getLogger("benchmark");
+    event =
+        new LoggingEvent(
+            Logger.class.getName(),
+            logger,
+            Level.INFO,
+            "User {} placed order {}",
+            null,
+            new Object[] {"user-1", 42});
+    Map<String, String> mdc = new HashMap<>();
+    mdc.put("userId", "user-1");
+    mdc.put("requestId", "request-1");
+    mdc.put("sessionId", "session-1");
+    event.setMDCPropertyMap(mdc);
+  }
+
+  @Benchmark
+  public void emit() {
+    mapper.emit(loggerProvider, event, 1);
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.logback.appender.v1_0.internal;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares rendering a stack trace with {@link Throwable#printStackTrace()} and the renderer. */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class StackTraceRendererBenchmark {
+
+  private final Throwable throwable = createThrowable(50);
+
+  @Benchmark
+  public String printStackTrace() {
+    StringWriter writer = new StringWriter();
+    throwable.printStackTrace(new PrintWriter(writer));
+    return writer.toString();
+  }
+
+  @Benchmark
+  public String render() {
+    return StackTraceRenderer.render(throwable, Integer.MAX_VALUE);
+  }
+
+  @Benchmark
+  public String renderBounded() {
+    return StackTraceRenderer.render(throwable, 1024);
+  }
+
+  // adds depth frames to the stack trace of the created exception
+  private static Throwable createThrowable(int depth) {
+    if (depth == 0) {
+      return new IllegalStateException("test", new IllegalArgumentException("cause"));
+    }
+    return createThrowable(depth - 1);
+  }
+}
@@ -41,6 +41,7 @@ public class OpenTelemetryAppender extends UnsynchronizedAppenderBase<ILoggingEv
   private boolean captureLogstashStructuredArguments = false;
   private List<String> captureMdcAttributes = emptyList();
   private boolean captureEventName = false;
+  private int maxStackTraceLength = Integer.MAX_VALUE;
 
   private volatile OpenTelemetry openTelemetry;
   private LoggingEventMapper mapper;
@@ -94,6 +95,7 @@ public class OpenTelemetryAppender extends UnsynchronizedAppenderBase<ILoggingEv
             .setCaptureLogstashMarkerAttributes(captureLogstashMarkerAttributes)
             .setCaptureLogstashStructuredArguments(captureLogstashStructuredArguments)
             .setCaptureEventName(captureEventName)
+            .setMaxStackTraceLength(maxStackTraceLength)
             .build();
     eventsToReplay = new ArrayBlockingQueue<>(numLogsCapturedBeforeOtelInstall);
     super.start();
@@ -245,6 +247,15 @@ public class OpenTelemetryAppender extends UnsynchronizedAppenderBase<ILoggingEv
     this.captureEventName = captureEventName;
   }
 
+  /**
+   * Sets the maximum length of the {@code exception.stacktrace} attribute, longer stack traces are
+   * truncated. Only applies when the {@link OpenTelemetry} logs implementation doesn't record
+   * exceptions itself.
+   */
+  public void setMaxStackTraceLength(int maxStackTraceLength) {
+    this.maxStackTraceLength = maxStackTraceLength;
+  }
+
   /**
    * Log telemetry is emitted after the initialization of the OpenTelemetry Logback appender with an
    * {@link OpenTelemetry} object. This setting allows you to modify the size of the cache used to
@@ -24,12 +24,9 @@ import io.opentelemetry.instrumentation.api.internal.SemconvStability;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.tooling.muzzle.NoMuzzle;
 import io.opentelemetry.semconv.ExceptionAttributes;
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -37,7 +34,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import net.logstash.logback.marker.LogstashMarker;
 import net.logstash.logback.marker.MapEntriesAppendingMarker;
@@ -77,10 +73,13 @@ public final class LoggingEventMapper {
   private static final AttributeKey<List<String>> LOG_BODY_PARAMETERS =
       AttributeKey.stringArrayKey("log.body.parameters");
 
+  // the builder configuration is resolved once here, together with the supported features of the
+  // logback and logstash versions on the classpath, so that each event only checks these flags
   private final boolean captureExperimentalAttributes;
-  private final List<String> captureMdcAttributes;
+  private final MdcAttribute[] captureMdcAttributes;
   private final boolean captureAllMdcAttributes;
-  private final boolean captureCodeAttributes;
+  private final boolean captureOldCodeAttributes;
+  private final boolean captureStableCodeAttributes;
   private final boolean captureMarkerAttribute;
   private final boolean captureKeyValuePairAttributes;
   private final boolean captureLoggerContext;
@@ -88,22 +87,38 @@ public final class LoggingEventMapper {
   private final boolean captureArguments;
   private final boolean captureLogstashMarkerAttributes;
   private final boolean captureLogstashStructuredArguments;
+  private final boolean captureArgumentAttributes;
   private final boolean captureEventName;
+  private final int maxStackTraceLength;
 
   private LoggingEventMapper(Builder builder) {
     this.captureExperimentalAttributes = builder.captureExperimentalAttributes;
-    this.captureCodeAttributes = builder.captureCodeAttributes;
-    this.captureMdcAttributes = builder.captureMdcAttributes;
+    this.captureOldCodeAttributes =
+        builder.captureCodeAttributes && SemconvStability.isEmitOldCodeSemconv();
+    this.captureStableCodeAttributes =
+        builder.captureCodeAttributes && SemconvStability.isEmitStableCodeSemconv();
     this.captureMarkerAttribute = builder.captureMarkerAttribute;
-    this.captureKeyValuePairAttributes = builder.captureKeyValuePairAttributes;
+    this.captureKeyValuePairAttributes =
+        supportsKeyValuePairs && builder.captureKeyValuePairAttributes;
     this.captureLoggerContext = builder.captureLoggerContext;
     this.captureTemplate = builder.captureTemplate;
     this.captureArguments = builder.captureArguments;
-    this.captureLogstashMarkerAttributes = builder.captureLogstashMarkerAttributes;
-    this.captureLogstashStructuredArguments = builder.captureLogstashStructuredArguments;
+    this.captureLogstashMarkerAttributes =
+        supportsLogstashMarkers && builder.captureLogstashMarkerAttributes;
+    this.captureLogstashStructuredArguments =
+        supportsLogstashStructuredArguments && builder.captureLogstashStructuredArguments;
+    this.captureArgumentAttributes =
+        captureTemplate || captureArguments || captureLogstashStructuredArguments;
     this.captureAllMdcAttributes =
         builder.captureMdcAttributes.size() == 1 && builder.captureMdcAttributes.get(0).equals("*");
     this.captureEventName = builder.captureEventName;
+    this.captureMdcAttributes =
+        captureAllMdcAttributes
+            ? new MdcAttribute[0]
+            : builder.captureMdcAttributes.stream()
+                .map(key -> new MdcAttribute(key, captureEventName))
+                .toArray(MdcAttribute[]::new);
+    this.maxStackTraceLength = builder.maxStackTraceLength;
   }
 
   public static Builder builder() {
@@ -157,7 +172,10 @@ public final class LoggingEventMapper {
       setThrowable(builder, throwable);
     }
 
-    captureMdcAttributes(builder, loggingEvent.getMDCPropertyMap());
+    // getMDCPropertyMap() copies the MDC of the logging thread on first access
+    if (captureAllMdcAttributes || captureMdcAttributes.length > 0) {
+      captureMdcAttributes(builder, loggingEvent.getMDCPropertyMap());
+    }
 
     if (captureExperimentalAttributes) {
       builder.setAttribute(THREAD_NAME, loggingEvent.getThreadName());
@@ -166,14 +184,14 @@ public final class LoggingEventMapper {
       }
     }
 
-    if (captureCodeAttributes) {
+    if (captureOldCodeAttributes || captureStableCodeAttributes) {
       StackTraceElement[] callerData = loggingEvent.getCallerData();
       if (callerData != null && callerData.length > 0) {
         StackTraceElement firstStackElement = callerData[0];
         String fileName = firstStackElement.getFileName();
         int lineNumber = firstStackElement.getLineNumber();
 
-        if (SemconvStability.isEmitOldCodeSemconv()) {
+        if (captureOldCodeAttributes) {
           if (fileName != null) {
             builder.setAttribute(CODE_FILEPATH, fileName);
           }
@@ -183,7 +201,7 @@ public final class LoggingEventMapper {
             builder.setAttribute(CODE_LINENO, (long) lineNumber);
           }
         }
-        if (SemconvStability.isEmitStableCodeSemconv()) {
+        if (captureStableCodeAttributes) {
           if (fileName != null) {
             builder.setAttribute(CODE_FILE_PATH, fileName);
           }
@@ -198,38 +216,32 @@ public final class LoggingEventMapper {
     }
 
     if (captureMarkerAttribute) {
-      boolean skipLogstashMarkers = supportsLogstashMarkers && captureLogstashMarkerAttributes;
-      captureMarkerAttribute(builder, loggingEvent, skipLogstashMarkers);
+      captureMarkerAttribute(builder, loggingEvent, captureLogstashMarkerAttributes);
     }
 
-    if (supportsKeyValuePairs && captureKeyValuePairAttributes) {
+    if (captureKeyValuePairAttributes) {
       captureKeyValuePairAttributes(builder, loggingEvent);
     }
 
-    if (supportsLogstashStructuredArguments
-        && captureLogstashStructuredArguments
-        && loggingEvent.getArgumentArray() != null
-        && loggingEvent.getArgumentArray().length > 0) {
-      captureLogstashStructuredArguments(builder, loggingEvent.getArgumentArray());
+    Object[] arguments = captureArgumentAttributes ? getArguments(loggingEvent) : null;
+
+    if (captureLogstashStructuredArguments && arguments != null) {
+      captureLogstashStructuredArguments(builder, arguments);
     }
 
     if (captureLoggerContext) {
       captureLoggerContext(builder, loggingEvent.getLoggerContextVO().getPropertyMap());
     }
 
-    if (captureTemplate
-        && loggingEvent.getArgumentArray() != null
-        && loggingEvent.getArgumentArray().length > 0) {
+    if (captureTemplate && arguments != null) {
       captureTemplate(builder, loggingEvent);
     }
 
-    if (captureArguments
-        && loggingEvent.getArgumentArray() != null
-        && loggingEvent.getArgumentArray().length > 0) {
-      captureArguments(builder, loggingEvent.getArgumentArray());
+    if (captureArguments && arguments != null) {
+      captureArguments(builder, arguments);
     }
 
-    if (supportsLogstashMarkers && captureLogstashMarkerAttributes) {
+    if (captureLogstashMarkerAttributes) {
       captureLogstashMarkerAttributes(builder, loggingEvent);
     }
     // span context
@@ -267,31 +279,44 @@ public final class LoggingEventMapper {
       return;
     }
 
-    for (String key : captureMdcAttributes) {
-      String value = mdcProperties.get(key);
-      setAttributeOrEventName(builder, getAttributeKey(key), value);
+    if (mdcProperties.isEmpty()) {
+      return;
+    }
+    for (MdcAttribute attribute : captureMdcAttributes) {
+      String value = mdcProperties.get(attribute.key);
+      if (value != null) {
+        attribute.capture(builder, value);
+      }
     }
   }
 
+  @Nullable
+  private static Object[] getArguments(ILoggingEvent loggingEvent) {
+    Object[] arguments = loggingEvent.getArgumentArray();
+    return arguments != null && arguments.length > 0 ? arguments : null;
+  }
+
   private static void captureTemplate(LogRecordBuilder builder, ILoggingEvent loggingEvent) {
     builder.setAttribute(LOG_BODY_TEMPLATE, loggingEvent.getMessage());
   }
 
   private static void captureArguments(LogRecordBuilder builder, Object[] arguments) {
-    builder.setAttribute(
-        LOG_BODY_PARAMETERS,
-        Arrays.stream(arguments).map(String::valueOf).collect(Collectors.toList()));
+    List<String> parameters = new ArrayList<>(arguments.length);
+    for (Object argument : arguments) {
+      parameters.add(String.valueOf(argument));
+    }
+    builder.setAttribute(LOG_BODY_PARAMETERS, parameters);
   }
 
-  private static void setThrowable(LogRecordBuilder builder, Throwable throwable) {
+  private void setThrowable(LogRecordBuilder builder, Throwable throwable) {
     if (builder instanceof ExtendedLogRecordBuilder) {
       ((ExtendedLogRecordBuilder) builder).setException(throwable);
     } else {
       builder.setAttribute(ExceptionAttributes.EXCEPTION_TYPE, throwable.getClass().getName());
       builder.setAttribute(ExceptionAttributes.EXCEPTION_MESSAGE, throwable.getMessage());
-      StringWriter writer = new StringWriter();
-      throwable.printStackTrace(new PrintWriter(writer));
-      builder.setAttribute(ExceptionAttributes.EXCEPTION_STACKTRACE, writer.toString());
+      builder.setAttribute(
+          ExceptionAttributes.EXCEPTION_STACKTRACE,
+          StackTraceRenderer.render(throwable, maxStackTraceLength));
     }
   }
 
@@ -664,6 +689,27 @@ public final class LoggingEventMapper {
         || argument instanceof MapEntriesAppendingMarker;
   }
 
+  /** An MDC key to capture, with its attribute key resolved when the mapper is built. */
+  private static final class MdcAttribute {
+    private final String key;
+    private final AttributeKey<String> attributeKey;
+    private final boolean eventName;
+
+    MdcAttribute(String key, boolean captureEventName) {
+      this.key = key;
+      this.attributeKey = AttributeKey.stringKey(key);
+      this.eventName = captureEventName && attributeKey.equals(EVENT_NAME);
+    }
+
+    void capture(LogRecordBuilder builder, String value) {
+      if (eventName) {
+        builder.setEventName(value);
+      } else {
+        builder.setAttribute(attributeKey, value);
+      }
+    }
+  }
+
   private interface FieldReader {
     void read(LogRecordBuilder builder, Object logstashMarker, boolean captureEventName);
   }
@@ -695,6 +741,7 @@ public final class LoggingEventMapper {
     private boolean captureLogstashMarkerAttributes;
     private boolean captureLogstashStructuredArguments;
     private boolean captureEventName;
+    private int maxStackTraceLength = Integer.MAX_VALUE;
 
     Builder() {}
 
@@ -775,6 +822,16 @@ public final class LoggingEventMapper {
       return this;
     }
 
+    /**
+     * Sets the maximum length of the {@code exception.stacktrace} attribute. Only applies when the
+     * {@link LogRecordBuilder} doesn't record the exception itself.
+     */
+    @CanIgnoreReturnValue
+    public Builder setMaxStackTraceLength(int maxStackTraceLength) {
+      this.maxStackTraceLength = maxStackTraceLength;
+      return this;
+    }
+
     public LoggingEventMapper build() {
       return new LoggingEventMapper(this);
     }
@@ -0,0 +1,81 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.logback.appender.v1_0.internal;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Renders a stack trace in the format of {@link Throwable#printStackTrace()} directly into a {@link
+ * StringBuilder}, and stops rendering once the maximum length is reached.
+ */
+final class StackTraceRenderer {
+  private static final String LINE_SEPARATOR = System.lineSeparator();
+  private static final String CAUSE_CAPTION = "Caused by: ";
+  private static final String SUPPRESSED_CAPTION = "Suppressed: ";
+  private static final StackTraceElement[] NO_FRAMES = new StackTraceElement[0];
+
+  private final StringBuilder output = new StringBuilder();
+  private final int maxLength;
+  private final Set<Throwable> rendered =
+      Collections.newSetFromMap(new IdentityHashMap<Throwable, Boolean>());
+
+  private StackTraceRenderer(int maxLength) {
+    this.maxLength = maxLength;
+  }
+
+  static String render(Throwable throwable, int maxLength) {
+    StackTraceRenderer renderer = new StackTraceRenderer(maxLength);
+    renderer.render(throwable, NO_FRAMES, "", "");
+    return renderer.output.length() > maxLength
+        ? renderer.output.substring(0, maxLength)
+        : renderer.output.toString();
+  }
+
+  private void render(
+      Throwable throwable, StackTraceElement[] enclosingTrace, String caption, String prefix) {
+    if (isFull()) {
+      return;
+    }
+    if (!rendered.add(throwable)) {
+      output.append(prefix).append(caption).append("[CIRCULAR REFERENCE: ");
+      output.append(throwable).append(']').append(LINE_SEPARATOR);
+      return;
+    }
+
+    StackTraceElement[] trace = throwable.getStackTrace();
+    // frames shared with the enclosing trace are only counted, like printStackTrace does
+    int m = trace.length - 1;
+    int n = enclosingTrace.length - 1;
+    while (m >= 0 && n >= 0 && trace[m].equals(enclosingTrace[n])) {
+      m--;
+      n--;
+    }
+    int framesInCommon = trace.length - 1 - m;
+
+    output.append(prefix).append(caption).append(throwable).append(LINE_SEPARATOR);
+    for (int i = 0; i <= m && !isFull(); i++) {
+      output.append(prefix).append("\tat ").append(trace[i]).append(LINE_SEPARATOR);
+    }
+    if (framesInCommon != 0) {
+      output.append(prefix).append("\t... ").append(framesInCommon).append(" more");
+      output.append(LINE_SEPARATOR);
+    }
+
+    for (Throwable suppressed : throwable.getSuppressed()) {
+      render(suppressed, trace, SUPPRESSED_CAPTION, prefix + "\t");
+    }
+    Throwable cause = throwable.getCause();
+    if (cause != null) {
+      render(cause, trace, CAUSE_CAPTION, prefix);
+    }
+  }
+
+  private boolean isFull() {
+    return output.length() >= maxLength;
+  }
+}
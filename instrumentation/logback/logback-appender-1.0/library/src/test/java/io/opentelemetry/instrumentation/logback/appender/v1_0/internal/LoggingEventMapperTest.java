@@ -13,6 +13,7 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.logs.LogRecordBuilder;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -75,6 +76,28 @@ class LoggingEventMapperTest {
     verifyNoMoreInteractions(builder);
   }
 
+  @Test
+  void testEventName() {
+    // given
+    LoggingEventMapper mapper =
+        LoggingEventMapper.builder()
+            .setCaptureMdcAttributes(Arrays.asList("event.name", "key1"))
+            .setCaptureEventName(true)
+            .build();
+    Map<String, String> contextData = new HashMap<>();
+    contextData.put("event.name", "test-event");
+    contextData.put("key1", "value1");
+    LogRecordBuilder builder = mock(LogRecordBuilder.class);
+
+    // when
+    mapper.captureMdcAttributes(builder, contextData);
+
+    // then
+    verify(builder).setEventName("test-event");
+    verify(builder).setAttribute(AttributeKey.stringKey("key1"), "value1");
+    verifyNoMoreInteractions(builder);
+  }
+
   @Test
   void testCaptureAttributeArray() {
     LogRecordBuilder builder = mock(LogRecordBuilder.class);
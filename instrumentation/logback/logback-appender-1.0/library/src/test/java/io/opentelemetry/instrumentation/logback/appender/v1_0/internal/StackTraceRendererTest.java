@@ -0,0 +1,53 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.logback.appender.v1_0.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import org.junit.jupiter.api.Test;
+
+class StackTraceRendererTest {
+
+  @Test
+  void rendersLikePrintStackTrace() {
+    IllegalStateException exception =
+        new IllegalStateException("test", new IOException("cause", new RuntimeException()));
+    exception.addSuppressed(new IllegalArgumentException("suppressed"));
+
+    assertThat(StackTraceRenderer.render(exception, Integer.MAX_VALUE))
+        .isEqualTo(printStackTrace(exception));
+  }
+
+  @Test
+  void rendersCircularReference() {
+    Exception first = new Exception("first");
+    Exception second = new Exception("second", first);
+    first.initCause(second);
+
+    assertThat(StackTraceRenderer.render(first, Integer.MAX_VALUE))
+        .isEqualTo(printStackTrace(first))
+        .contains("[CIRCULAR REFERENCE: java.lang.Exception: first]");
+  }
+
+  @Test
+  void truncatesToMaxLength() {
+    IllegalStateException exception =
+        new IllegalStateException("test", new IOException("cause", new RuntimeException()));
+    String stackTrace = printStackTrace(exception);
+
+    assertThat(StackTraceRenderer.render(exception, 100)).isEqualTo(stackTrace.substring(0, 100));
+    assertThat(StackTraceRenderer.render(exception, stackTrace.length())).isEqualTo(stackTrace);
+  }
+
+  private static String printStackTrace(Throwable throwable) {
+    StringWriter writer = new StringWriter();
+    throwable.printStackTrace(new PrintWriter(writer));
+    return writer.toString();
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.mongo.v3_1.internal;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sanitizes find, aggregate and update commands that only differ in their values, as issued by
+ * services that use a small number of query shapes.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class SanitizeStatementBenchmark {
+
+  private static final int VARIANTS = 64;
+
+  @Param({"false", "true"})
+  public boolean cacheEnabled;
+
+  private MongoDbAttributesGetter getter;
+  private BsonDocument[] commands;
+  private int index;
+
+  @Setup
+  public void setup() {
+    getter =
+        new MongoDbAttributesGetter(
+            true, MongoInstrumenterFactory.DEFAULT_MAX_NORMALIZED_QUERY_LENGTH, cacheEnabled);
+    commands = new BsonDocument[VARIANTS * 3];
+    for (int i = 0; i < VARIANTS; i++) {
+      commands[3 * i] = find(i);
+      commands[3 * i + 1] = aggregate(i);
+      commands[3 * i + 2] = update(i);
+    }
+  }
+
+  @Benchmark
+  public String sanitize() {
+    BsonDocument command = commands[index];
+    index = (index + 1) % commands.length;
+    return getter.sanitizeStatement(command);
+  }
+
+  private static BsonDocument find(int i) {
+    return new BsonDocument("find", new BsonString("orders"))
+        .append(
+            "filter",
+            new BsonDocument("customerId", new BsonObjectId(new ObjectId()))
+                .append("status", new BsonDocument("$in", statuses(i)))
+                .append(
+                    "createdAt",
+                    new BsonDocument("$gte", new BsonDateTime(1_600_000_000_000L + i))
+                        .append("$lt", new BsonDateTime(1_700_000_000_000L + i))))
+        .append("sort", new BsonDocument("createdAt", new BsonInt32(-1)))
+        .append(
+            "projection",
+            new BsonDocument("_id", new BsonInt32(1))
+                .append("total", new BsonInt32(1))
+                .append("items", new BsonInt32(1)))
+        .append("limit", new BsonInt32(50 + i))
+        .append("$db", new BsonString("shop"));
+  }
+
+  private static BsonDocument aggregate(int i) {
+    BsonDocument match =
+        new BsonDocument(
+            "$match",
+            new BsonDocument("region", new BsonString("region-" + i))
+                .append("total", new BsonDocument("$gt", new BsonDouble(10.5 * i))));
+    BsonDocument group =
+        new BsonDocument(
+            "$group",
+            new BsonDocument("_id", new BsonString("$customerId"))
+                .append("spent", new BsonDocument("$sum", new BsonString("$total")))
+                .append("orders", new BsonDocument("$sum", new BsonInt32(1))));
+    BsonDocument sort = new BsonDocument("$sort", new BsonDocument("spent", new BsonInt32(-1)));
+    BsonDocument limit = new BsonDocument("$limit", new BsonInt32(10 + i));
+    return new BsonDocument("aggregate", new BsonString("orders"))
+        .append("pipeline", new BsonArray(asList(match, group, sort, limit)))
+        .append("cursor", new BsonDocument("batchSize", new BsonInt32(100)))
+        .append("allowDiskUse", new BsonBoolean(i % 2 == 0))
+        .append("$db", new BsonString("shop"));
+  }
+
+  private static BsonDocument update(int i) {
+    BsonDocument statement =
+        new BsonDocument("q", new BsonDocument("_id", new BsonObjectId(new ObjectId())))
+            .append(
+                "u",
+                new BsonDocument(
+                        "$set",
+                        new BsonDocument("status", new BsonString("shipped-" + i))
+                            .append("updatedAt", new BsonDateTime(1_700_000_000_000L + i)))
+                    .append("$inc", new BsonDocument("version", new BsonInt64(1))))
+            .append("upsert", BsonBoolean.FALSE);
+    return new BsonDocument("update", new BsonString("orders"))
+        .append("updates", new BsonArray(singletonList(statement)))
+        .append("ordered", BsonBoolean.TRUE)
+        .append("$db", new BsonString("shop"));
+  }
+
+  private static BsonArray statuses(int i) {
+    return new BsonArray(
+        asList(new BsonString("new-" + i), new BsonString("paid"), new BsonString("packed")));
+  }
+}
@@ -43,11 +43,23 @@ class MongoDbAttributesGetter implements DbClientAttributesGetter<CommandStarted
   private final boolean statementSanitizationEnabled;
   private final int maxNormalizedQueryLength;
   @Nullable private final JsonWriterSettings jsonWriterSettings;
+  @Nullable private final SanitizedStatementCache sanitizedStatementCache;
 
   MongoDbAttributesGetter(boolean statementSanitizationEnabled, int maxNormalizedQueryLength) {
+    this(statementSanitizationEnabled, maxNormalizedQueryLength, false);
+  }
+
+  MongoDbAttributesGetter(
+      boolean statementSanitizationEnabled,
+      int maxNormalizedQueryLength,
+      boolean sanitizedStatementCacheEnabled) {
     this.statementSanitizationEnabled = statementSanitizationEnabled;
     this.maxNormalizedQueryLength = maxNormalizedQueryLength;
     this.jsonWriterSettings = createJsonWriterSettings(maxNormalizedQueryLength);
+    this.sanitizedStatementCache =
+        statementSanitizationEnabled && sanitizedStatementCacheEnabled
+            ? new SanitizedStatementCache()
+            : null;
   }
 
   @Override
@@ -101,6 +113,13 @@ class MongoDbAttributesGetter implements DbClientAttributesGetter<CommandStarted
   }
 
   String sanitizeStatement(BsonDocument command) {
+    if (sanitizedStatementCache != null) {
+      return sanitizedStatementCache.get(command, this::renderStatement);
+    }
+    return renderStatement(command);
+  }
+
+  private String renderStatement(BsonDocument command) {
     StringBuilderWriter stringWriter = new StringBuilderWriter(128);
     // jsonWriterSettings is generally not null but could be due to security manager or unknown
     // API incompatibilities, which we can't detect by Muzzle because we use reflection.
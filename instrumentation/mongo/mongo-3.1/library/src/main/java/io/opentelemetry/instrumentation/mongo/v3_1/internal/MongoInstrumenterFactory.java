@@ -12,6 +12,7 @@ import io.opentelemetry.instrumentation.api.incubator.semconv.db.DbClientMetrics
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
 import io.opentelemetry.instrumentation.api.instrumenter.SpanKindExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.SpanNameExtractor;
+import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
 import io.opentelemetry.instrumentation.api.semconv.network.ServerAttributesExtractor;
 
 /**
@@ -22,6 +23,10 @@ public final class MongoInstrumenterFactory {
 
   public static final int DEFAULT_MAX_NORMALIZED_QUERY_LENGTH = 32 * 1024;
 
+  private static final boolean SANITIZED_STATEMENT_CACHE_ENABLED =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.instrumentation.mongo.experimental.statement-sanitizer.cache.enabled", false);
+
   private static final MongoAttributesExtractor attributesExtractor =
       new MongoAttributesExtractor();
 
@@ -43,7 +48,10 @@ public final class MongoInstrumenterFactory {
       int maxNormalizedQueryLength) {
 
     MongoDbAttributesGetter dbAttributesGetter =
-        new MongoDbAttributesGetter(statementSanitizationEnabled, maxNormalizedQueryLength);
+        new MongoDbAttributesGetter(
+            statementSanitizationEnabled,
+            maxNormalizedQueryLength,
+            SANITIZED_STATEMENT_CACHE_ENABLED);
     SpanNameExtractor<CommandStartedEvent> spanNameExtractor =
         new MongoSpanNameExtractor(dbAttributesGetter, attributesExtractor);
 
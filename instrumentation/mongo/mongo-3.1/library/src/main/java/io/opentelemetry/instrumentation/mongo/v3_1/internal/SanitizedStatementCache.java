@@ -0,0 +1,229 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.mongo.v3_1.internal;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+/**
+ * Caches sanitized statements by the shape of the command. A sanitized statement only depends on
+ * the field names and the nesting of the command, and on the value of the first top-level field,
+ * so commands that only differ in their values share the same sanitized statement.
+ */
+final class SanitizedStatementCache {
+
+  // commands with more fields or array elements than this, e.g. bulk inserts, are not cached
+  private static final int MAX_SHAPE_TOKENS = 1024;
+
+  private static final int DOCUMENT_START = 1;
+  private static final int DOCUMENT_END = 2;
+  private static final int ARRAY_START = 3;
+  private static final int ARRAY_END = 4;
+  private static final int VALUE = 5;
+
+  private final Cache<Long, CachedStatement> cache = Cache.bounded(1000);
+
+  String get(BsonDocument command, Function<BsonDocument, String> sanitizer) {
+    Fingerprint fingerprint = new Fingerprint();
+    if (!fingerprint.addRoot(command)) {
+      return sanitizer.apply(command);
+    }
+    Long key = fingerprint.hash;
+    CachedStatement cached = cache.get(key);
+    if (cached != null && cached.matches(command)) {
+      return cached.statement;
+    }
+    String statement = sanitizer.apply(command);
+    cache.put(key, new CachedStatement(Shape.of(command), statement));
+    return statement;
+  }
+
+  /** Computes a hash of the command shape without allocating the shape. */
+  private static final class Fingerprint {
+    private long hash = 1;
+    private int tokens;
+
+    boolean addRoot(BsonDocument document) {
+      add(DOCUMENT_START);
+      boolean firstField = true;
+      for (Map.Entry<String, BsonValue> entry : document.entrySet()) {
+        add(entry.getKey().hashCode());
+        BsonValue value = entry.getValue();
+        if (firstField && value.isString()) {
+          add(value.asString().getValue().hashCode());
+        } else if (!add(value)) {
+          return false;
+        }
+        firstField = false;
+      }
+      return add(DOCUMENT_END);
+    }
+
+    private boolean add(BsonValue value) {
+      if (value.isDocument()) {
+        add(DOCUMENT_START);
+        for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+          add(entry.getKey().hashCode());
+          if (!add(entry.getValue())) {
+            return false;
+          }
+        }
+        return add(DOCUMENT_END);
+      } else if (value.isArray()) {
+        add(ARRAY_START);
+        for (BsonValue element : value.asArray()) {
+          if (!add(element)) {
+            return false;
+          }
+        }
+        return add(ARRAY_END);
+      }
+      return add(VALUE);
+    }
+
+    private boolean add(int token) {
+      hash = 31 * hash + token;
+      return ++tokens <= MAX_SHAPE_TOKENS;
+    }
+  }
+
+  /**
+   * The shape of a command as a flat list of tokens. Markers are boxed integers while field names
+   * and the value of the first top-level field are strings.
+   */
+  private static final class Shape {
+    private final List<Object> tokens = new ArrayList<>();
+
+    static Object[] of(BsonDocument command) {
+      Shape shape = new Shape();
+      shape.tokens.add(DOCUMENT_START);
+      boolean firstField = true;
+      for (Map.Entry<String, BsonValue> entry : command.entrySet()) {
+        shape.tokens.add(entry.getKey());
+        BsonValue value = entry.getValue();
+        if (firstField && value.isString()) {
+          shape.tokens.add(value.asString().getValue());
+        } else {
+          shape.add(value);
+        }
+        firstField = false;
+      }
+      shape.tokens.add(DOCUMENT_END);
+      return shape.tokens.toArray();
+    }
+
+    private void add(BsonValue value) {
+      if (value.isDocument()) {
+        tokens.add(DOCUMENT_START);
+        for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+          tokens.add(entry.getKey());
+          add(entry.getValue());
+        }
+        tokens.add(DOCUMENT_END);
+      } else if (value.isArray()) {
+        tokens.add(ARRAY_START);
+        for (BsonValue element : value.asArray()) {
+          add(element);
+        }
+        tokens.add(ARRAY_END);
+      } else {
+        tokens.add(VALUE);
+      }
+    }
+  }
+
+  private static final class CachedStatement {
+    private final Object[] shape;
+    private final String statement;
+
+    CachedStatement(Object[] shape, String statement) {
+      this.shape = shape;
+      this.statement = statement;
+    }
+
+    // verifies that the command has exactly the cached shape, the fingerprint may collide
+    boolean matches(BsonDocument command) {
+      int index = 0;
+      if (!isToken(index++, DOCUMENT_START)) {
+        return false;
+      }
+      boolean firstField = true;
+      for (Map.Entry<String, BsonValue> entry : command.entrySet()) {
+        if (!isToken(index++, entry.getKey())) {
+          return false;
+        }
+        BsonValue value = entry.getValue();
+        if (firstField && value.isString()) {
+          if (!isToken(index++, value.asString().getValue())) {
+            return false;
+          }
+        } else {
+          index = match(index, value);
+          if (index < 0) {
+            return false;
+          }
+        }
+        firstField = false;
+      }
+      return isToken(index++, DOCUMENT_END) && index == shape.length;
+    }
+
+    // returns the index following the matched value, or -1 when the value doesn't match
+    private int match(int index, BsonValue value) {
+      if (value.isDocument()) {
+        return match(index, value.asDocument());
+      } else if (value.isArray()) {
+        return match(index, value.asArray());
+      }
+      return isToken(index, VALUE) ? index + 1 : -1;
+    }
+
+    private int match(int index, BsonDocument document) {
+      if (!isToken(index++, DOCUMENT_START)) {
+        return -1;
+      }
+      for (Map.Entry<String, BsonValue> entry : document.entrySet()) {
+        if (!isToken(index++, entry.getKey())) {
+          return -1;
+        }
+        index = match(index, entry.getValue());
+        if (index < 0) {
+          return -1;
+        }
+      }
+      return isToken(index, DOCUMENT_END) ? index + 1 : -1;
+    }
+
+    private int match(int index, BsonArray array) {
+      if (!isToken(index++, ARRAY_START)) {
+        return -1;
+      }
+      for (BsonValue element : array) {
+        index = match(index, element);
+        if (index < 0) {
+          return -1;
+        }
+      }
+      return isToken(index, ARRAY_END) ? index + 1 : -1;
+    }
+
+    private boolean isToken(int index, int marker) {
+      return index < shape.length
+          && shape[index] instanceof Integer
+          && (Integer) shape[index] == marker;
+    }
+
+    private boolean isToken(int index, String name) {
+      return index < shape.length && name.equals(shape[index]);
+    }
+  }
+}
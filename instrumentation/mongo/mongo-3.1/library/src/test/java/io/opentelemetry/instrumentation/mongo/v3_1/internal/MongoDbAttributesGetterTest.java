@@ -92,6 +92,42 @@ class MongoDbAttributesGetterTest {
         .isIn("{\"cmd\": \"c\", \"f1\": [\"?\", \"?", "{\"cmd\": \"c\", \"f1\": [\"?\",");
   }
 
+  @Test
+  @DisplayName("should reuse sanitized statement of commands with the same shape")
+  void shouldReuseSanitizedStatementOfCommandsWithTheSameShape() {
+    MongoDbAttributesGetter extractor =
+        new MongoDbAttributesGetter(true, DEFAULT_MAX_NORMALIZED_QUERY_LENGTH, true);
+
+    String first =
+        extractor.sanitizeStatement(
+            new BsonDocument("find", new BsonString("orders"))
+                .append("filter", new BsonDocument("customer", new BsonInt32(1))));
+    String second =
+        extractor.sanitizeStatement(
+            new BsonDocument("find", new BsonString("orders"))
+                .append("filter", new BsonDocument("customer", new BsonInt32(2))));
+    assertThat(second).isSameAs(first);
+    assertThat(sanitizeAcrossVersions(first))
+        .isEqualTo("{\"find\": \"orders\", \"filter\": {\"customer\": \"?\"}}");
+
+    assertThat(
+            sanitizeStatementAcrossVersions(
+                extractor,
+                new BsonDocument("find", new BsonString("invoices"))
+                    .append("filter", new BsonDocument("customer", new BsonInt32(1)))))
+        .isEqualTo("{\"find\": \"invoices\", \"filter\": {\"customer\": \"?\"}}");
+    assertThat(
+            sanitizeStatementAcrossVersions(
+                extractor,
+                new BsonDocument("find", new BsonString("orders"))
+                    .append(
+                        "filter",
+                        new BsonDocument(
+                            "customer",
+                            new BsonArray(asList(new BsonInt32(1), new BsonInt32(2)))))))
+        .isEqualTo("{\"find\": \"orders\", \"filter\": {\"customer\": [\"?\", \"?\"]}}");
+  }
+
   static String sanitizeStatementAcrossVersions(
       MongoDbAttributesGetter extractor, BsonDocument query) {
     return sanitizeAcrossVersions(extractor.sanitizeStatement(query));
@@ -45,14 +45,18 @@ final class HandlerRegistry {
 
   private HandlerRegistry() {}
 
-  static List<RecordedEventHandler> getHandlers(
-      OpenTelemetry openTelemetry, Predicate<JfrFeature> featurePredicate) {
-
+  static Meter getMeter(OpenTelemetry openTelemetry) {
     MeterBuilder meterBuilder = openTelemetry.meterBuilder(SCOPE_NAME);
     if (SCOPE_VERSION != null) {
       meterBuilder.setInstrumentationVersion(SCOPE_VERSION);
     }
-    Meter meter = meterBuilder.build();
+    return meterBuilder.build();
+  }
+
+  static List<RecordedEventHandler> getHandlers(
+      OpenTelemetry openTelemetry, Predicate<JfrFeature> featurePredicate) {
+
+    Meter meter = getMeter(openTelemetry);
 
     List<RecordedEventHandler> handlers = new ArrayList<RecordedEventHandler>();
     for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
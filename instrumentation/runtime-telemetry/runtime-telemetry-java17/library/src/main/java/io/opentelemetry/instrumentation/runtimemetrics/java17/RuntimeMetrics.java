@@ -6,6 +6,7 @@
 package io.opentelemetry.instrumentation.runtimemetrics.java17;
 
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.JfrRunnerMetrics;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.RecordedEventHandler;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.internal.JmxRuntimeMetricsUtil;
 import java.io.Closeable;
@@ -87,6 +88,7 @@ public final class RuntimeMetrics implements AutoCloseable {
 
   static class JfrRuntimeMetrics implements Closeable {
     private final List<RecordedEventHandler> recordedEventHandlers;
+    @Nullable private final JfrRunnerMetrics runnerMetrics;
     private final RecordingStream recordingStream;
     private final CountDownLatch startUpLatch = new CountDownLatch(1);
     private volatile boolean closed = false;
@@ -101,6 +103,13 @@ public final class RuntimeMetrics implements AutoCloseable {
             handler.getThreshold().ifPresent(eventSettings::withThreshold);
             recordingStream.onEvent(handler.getEventName(), handler);
           });
+      if (featurePredicate.test(JfrFeature.RUNNER_METRICS)) {
+        runnerMetrics = new JfrRunnerMetrics(HandlerRegistry.getMeter(openTelemetry));
+        recordingStream.onEvent(runnerMetrics::accept);
+        recordingStream.onFlush(runnerMetrics::flush);
+      } else {
+        runnerMetrics = null;
+      }
       recordingStream.onMetadata(event -> startUpLatch.countDown());
       Thread daemonRunner =
           new Thread(this::startRecordingStream, "OpenTelemetry JFR-Metrics-Runner");
@@ -137,6 +146,9 @@ public final class RuntimeMetrics implements AutoCloseable {
       closed = true;
       recordingStream.close();
       recordedEventHandlers.forEach(RecordedEventHandler::close);
+      if (runnerMetrics != null) {
+        runnerMetrics.close();
+      }
     }
 
     // Visible for testing
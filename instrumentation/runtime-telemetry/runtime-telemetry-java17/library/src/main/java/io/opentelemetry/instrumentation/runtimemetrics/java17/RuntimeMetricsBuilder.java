@@ -5,8 +5,11 @@
 
 package io.opentelemetry.instrumentation.runtimemetrics.java17;
 
+import static java.util.Objects.requireNonNull;
+
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.instrumentation.runtimemetrics.java8.ThreadStateMode;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.internal.JmxRuntimeMetricsFactory;
 import java.util.Arrays;
 import java.util.EnumMap;
@@ -23,6 +26,7 @@ public final class RuntimeMetricsBuilder {
   private boolean disableJmx = false;
   private boolean emitExperimentalTelemetry = false;
   private boolean captureGcCause = false;
+  private ThreadStateMode threadStateMode = ThreadStateMode.THREAD_INFO;
 
   RuntimeMetricsBuilder(OpenTelemetry openTelemetry) {
     this.openTelemetry = openTelemetry;
@@ -89,13 +93,23 @@ public final class RuntimeMetricsBuilder {
     return this;
   }
 
+  /**
+   * Sets how the thread states of the jvm.thread.count metric are collected. Defaults to {@link
+   * ThreadStateMode#THREAD_INFO}.
+   */
+  @CanIgnoreReturnValue
+  public RuntimeMetricsBuilder setThreadStateMode(ThreadStateMode threadStateMode) {
+    this.threadStateMode = requireNonNull(threadStateMode, "threadStateMode");
+    return this;
+  }
+
   /** Build and start an {@link RuntimeMetrics} with the config from this builder. */
   public RuntimeMetrics build() {
     List<AutoCloseable> observables =
         disableJmx
             ? List.of()
             : JmxRuntimeMetricsFactory.buildObservables(
-                openTelemetry, emitExperimentalTelemetry, captureGcCause);
+                openTelemetry, emitExperimentalTelemetry, captureGcCause, threadStateMode);
     RuntimeMetrics.JfrRuntimeMetrics jfrRuntimeMetrics = buildJfrMetrics();
     return new RuntimeMetrics(openTelemetry, observables, jfrRuntimeMetrics);
   }
@@ -0,0 +1,79 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal;
+
+import io.opentelemetry.api.metrics.Meter;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import jdk.jfr.consumer.RecordedEvent;
+
+/**
+ * Reports how many events the JFR stream thread dispatches and how far it lags behind the JVM. A
+ * growing lag means that the handlers can't keep up with the events and that JFR buffers back up.
+ *
+ * <p>{@link #accept(RecordedEvent)} and {@link #flush()} are only called from the JFR stream
+ * thread, the values are published to the metric callbacks on each flush.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class JfrRunnerMetrics implements AutoCloseable {
+  private static final String METRIC_NAME_EVENTS = "jvm.jfr.runner.events";
+  private static final String METRIC_DESCRIPTION_EVENTS =
+      "Number of JFR events dispatched by the runner thread";
+  private static final String METRIC_NAME_LAG = "jvm.jfr.runner.lag";
+  private static final String METRIC_DESCRIPTION_LAG =
+      "Time between the end of the last dispatched JFR event and the following stream flush";
+
+  private final List<AutoCloseable> observables = new ArrayList<>();
+
+  // only accessed from the JFR stream thread
+  private long eventCount;
+  @Nullable private RecordedEvent lastEvent;
+
+  private volatile long publishedEventCount;
+  private volatile double publishedLag;
+
+  public JfrRunnerMetrics(Meter meter) {
+    observables.add(
+        meter
+            .counterBuilder(METRIC_NAME_EVENTS)
+            .setDescription(METRIC_DESCRIPTION_EVENTS)
+            .setUnit("{event}")
+            .buildWithCallback(measurement -> measurement.record(publishedEventCount)));
+    observables.add(
+        meter
+            .gaugeBuilder(METRIC_NAME_LAG)
+            .setDescription(METRIC_DESCRIPTION_LAG)
+            .setUnit(Constants.SECONDS)
+            .buildWithCallback(measurement -> measurement.record(publishedLag)));
+  }
+
+  public void accept(RecordedEvent event) {
+    eventCount++;
+    // the end time is only read on flush to keep the per event cost to a field write
+    lastEvent = event;
+  }
+
+  public void flush() {
+    publishedEventCount = eventCount;
+    if (lastEvent != null) {
+      Duration lag = Duration.between(lastEvent.getEndTime(), Instant.now());
+      publishedLag = lag.isNegative() ? 0 : DurationUtil.toSeconds(lag);
+      lastEvent = null;
+    } else {
+      publishedLag = 0;
+    }
+  }
+
+  @Override
+  public void close() {
+    RecordedEventHandler.closeObservables(observables);
+  }
+}
@@ -9,6 +9,8 @@ import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.instrumentation.api.incubator.config.internal.DeclarativeConfigUtil;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.RuntimeMetrics;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.RuntimeMetricsBuilder;
+import io.opentelemetry.instrumentation.runtimemetrics.java8.ThreadStateMode;
+import io.opentelemetry.instrumentation.runtimemetrics.java8.internal.JmxRuntimeMetricsUtil;
 import javax.annotation.Nullable;
 
 /**
@@ -51,6 +53,14 @@ public final class RuntimeMetricsConfigUtil {
       builder.captureGcCause();
     }
 
+    ThreadStateMode threadStateMode =
+        JmxRuntimeMetricsUtil.parseThreadStateMode(
+            DeclarativeConfigUtil.getInstrumentationConfig(openTelemetry, "runtime_telemetry")
+                .getString("thread_states/development"));
+    if (threadStateMode != null) {
+      builder.setThreadStateMode(threadStateMode);
+    }
+
     return builder.build();
   }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17;
+
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+class JfrRunnerMetricsTest {
+
+  @RegisterExtension
+  JfrExtension jfrExtension =
+      new JfrExtension(
+          builder ->
+              builder
+                  .disableAllFeatures()
+                  // produces an event every second
+                  .enableFeature(JfrFeature.CONTEXT_SWITCH_METRICS)
+                  .enableFeature(JfrFeature.RUNNER_METRICS));
+
+  @Test
+  void shouldHaveRunnerMetrics() {
+    jfrExtension.waitAndAssertMetrics(
+        metric ->
+            metric
+                .hasName("jvm.jfr.runner.events")
+                .hasUnit("{event}")
+                .satisfies(
+                    data ->
+                        assertThat(data.getLongSumData().getPoints())
+                            .anyMatch(p -> p.getValue() > 0)),
+        metric ->
+            metric
+                .hasName("jvm.jfr.runner.lag")
+                .hasUnit(SECONDS)
+                .satisfies(
+                    data ->
+                        assertThat(data.getDoubleGaugeData().getPoints())
+                            .allMatch(p -> p.getValue() >= 0)));
+  }
+}
@@ -1,7 +1,19 @@
+import net.ltgt.gradle.errorprone.errorprone
+
 plugins {
   id("otel.library-instrumentation")
+  id("otel.jmh-conventions")
 }
 
 dependencies {
   implementation(project(":instrumentation-api"))
 }
+
+tasks {
+  // TODO this should live in jmh-conventions
+  named<JavaCompile>("jmhCompileGeneratedClasses") {
+    options.errorprone {
+      isEnabled.set(false)
+    }
+  }
+}
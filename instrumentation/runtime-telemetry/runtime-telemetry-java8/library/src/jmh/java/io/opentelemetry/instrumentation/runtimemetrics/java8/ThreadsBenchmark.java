@@ -0,0 +1,102 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java8;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Measures the cost of collecting the thread count metric depending on the number of threads. */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class ThreadsBenchmark {
+
+  @Param({"100", "1000", "8000"})
+  public int threadCount;
+
+  @Param({"THREAD_INFO", "THREAD", "NONE"})
+  public String mode;
+
+  private final CountDownLatch stopLatch = new CountDownLatch(1);
+  private final List<Thread> threads = new ArrayList<>();
+  private Consumer<ObservableLongMeasurement> callback;
+
+  @Setup
+  public void setup() throws InterruptedException {
+    CountDownLatch startLatch = new CountDownLatch(threadCount);
+    for (int i = 0; i < threadCount; i++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                startLatch.countDown();
+                try {
+                  stopLatch.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              });
+      // half of the threads are daemon threads to produce more than one attribute set
+      thread.setDaemon(i % 2 == 0);
+      thread.start();
+      threads.add(thread);
+    }
+    startLatch.await();
+    callback = Threads.createCallback(ThreadStateMode.valueOf(mode));
+  }
+
+  @TearDown
+  public void tearDown() throws InterruptedException {
+    stopLatch.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+  }
+
+  @Benchmark
+  public void collect(Blackhole blackhole) {
+    callback.accept(new BlackholeMeasurement(blackhole));
+  }
+
+  private static final class BlackholeMeasurement implements ObservableLongMeasurement {
+    private final Blackhole blackhole;
+
+    BlackholeMeasurement(Blackhole blackhole) {
+      this.blackhole = blackhole;
+    }
+
+    @Override
+    public void record(long value) {
+      blackhole.consume(value);
+    }
+
+    @Override
+    public void record(long value, Attributes attributes) {
+      blackhole.consume(value);
+      blackhole.consume(attributes);
+    }
+  }
+}
@@ -5,6 +5,8 @@
 
 package io.opentelemetry.instrumentation.runtimemetrics.java8;
 
+import static java.util.Objects.requireNonNull;
+
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.internal.JmxRuntimeMetricsFactory;
@@ -17,6 +19,7 @@ public final class RuntimeMetricsBuilder {
 
   private boolean emitExperimentalTelemetry = false;
   private boolean captureGcCause = false;
+  private ThreadStateMode threadStateMode = ThreadStateMode.THREAD_INFO;
 
   RuntimeMetricsBuilder(OpenTelemetry openTelemetry) {
     this.openTelemetry = openTelemetry;
@@ -36,11 +39,21 @@ public final class RuntimeMetricsBuilder {
     return this;
   }
 
+  /**
+   * Sets how the thread states of the jvm.thread.count metric are collected. Defaults to {@link
+   * ThreadStateMode#THREAD_INFO}.
+   */
+  @CanIgnoreReturnValue
+  public RuntimeMetricsBuilder setThreadStateMode(ThreadStateMode threadStateMode) {
+    this.threadStateMode = requireNonNull(threadStateMode, "threadStateMode");
+    return this;
+  }
+
   /** Build and start an {@link RuntimeMetrics} with the config from this builder. */
   public RuntimeMetrics build() {
     List<AutoCloseable> observables =
         JmxRuntimeMetricsFactory.buildObservables(
-            openTelemetry, emitExperimentalTelemetry, captureGcCause);
+            openTelemetry, emitExperimentalTelemetry, captureGcCause, threadStateMode);
     return new RuntimeMetrics(observables);
   }
 }
@@ -0,0 +1,21 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java8;
+
+import java.lang.management.ThreadInfo;
+
+/** How the number of threads per thread state is collected for the jvm.thread.count metric. */
+public enum ThreadStateMode {
+  /**
+   * Takes a {@link ThreadInfo} snapshot of all threads, which requires stopping all threads on some
+   * JVMs. This is the default.
+   */
+  THREAD_INFO,
+  /** Reads the state of each platform thread from its {@link Thread} object. */
+  THREAD,
+  /** Only reports the number of daemon and non-daemon threads, without thread states. */
+  NONE
+}
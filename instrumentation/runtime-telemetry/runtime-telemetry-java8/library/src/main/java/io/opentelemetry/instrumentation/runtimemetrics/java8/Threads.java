@@ -57,14 +57,16 @@ public final class Threads {
 
   /** Register observers for java runtime class metrics. */
   public static List<AutoCloseable> registerObservers(OpenTelemetry openTelemetry) {
-    return INSTANCE.registerObservers(openTelemetry, useThreads());
+    return registerObservers(openTelemetry, ThreadStateMode.THREAD_INFO);
   }
 
-  private List<AutoCloseable> registerObservers(OpenTelemetry openTelemetry, boolean useThread) {
-    if (useThread) {
-      return registerObservers(openTelemetry, Threads::getThreads);
-    }
-    return registerObservers(openTelemetry, ManagementFactory.getThreadMXBean());
+  /**
+   * Register observers for java runtime class metrics, collecting the thread states as selected by
+   * {@code mode}.
+   */
+  public static List<AutoCloseable> registerObservers(
+      OpenTelemetry openTelemetry, ThreadStateMode mode) {
+    return registerObservers(openTelemetry, Threads::createCallback, mode);
   }
 
   // Visible for testing
@@ -116,11 +118,21 @@ public final class Threads {
     return THREAD_INFO_IS_DAEMON != null;
   }
 
-  private static boolean useThreads() {
+  private static boolean isNativeExecution() {
     // GraalVM native image does not support ThreadMXBean yet
     // see https://github.com/oracle/graal/issues/6101
-    boolean isNativeExecution = System.getProperty("org.graalvm.nativeimage.imagecode") != null;
-    return !isJava9OrNewer() || isNativeExecution;
+    return System.getProperty("org.graalvm.nativeimage.imagecode") != null;
+  }
+
+  // Visible for testing
+  static Consumer<ObservableLongMeasurement> createCallback(ThreadStateMode mode) {
+    if (mode == ThreadStateMode.NONE && !isNativeExecution()) {
+      return java8Callback(ManagementFactory.getThreadMXBean());
+    }
+    if (mode == ThreadStateMode.THREAD || !isJava9OrNewer() || isNativeExecution()) {
+      return java8ThreadCallback(Threads::getThreads);
+    }
+    return java9AndNewerCallback(ManagementFactory.getThreadMXBean());
   }
 
   private static Consumer<ObservableLongMeasurement> java8Callback(ThreadMXBean threadBean) {
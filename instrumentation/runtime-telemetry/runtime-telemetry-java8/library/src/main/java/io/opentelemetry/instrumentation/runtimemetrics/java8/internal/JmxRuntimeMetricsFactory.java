@@ -10,6 +10,7 @@ import io.opentelemetry.instrumentation.runtimemetrics.java8.Classes;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.Cpu;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.GarbageCollector;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.MemoryPools;
+import io.opentelemetry.instrumentation.runtimemetrics.java8.ThreadStateMode;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.Threads;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,14 +22,17 @@ import java.util.List;
 public class JmxRuntimeMetricsFactory {
   @SuppressWarnings("CatchingUnchecked")
   public static List<AutoCloseable> buildObservables(
-      OpenTelemetry openTelemetry, boolean emitExperimentalTelemetry, boolean captureGcCause) {
+      OpenTelemetry openTelemetry,
+      boolean emitExperimentalTelemetry,
+      boolean captureGcCause,
+      ThreadStateMode threadStateMode) {
     // Set up metrics gathered by JMX
     List<AutoCloseable> observables = new ArrayList<>();
     observables.addAll(Classes.registerObservers(openTelemetry));
     observables.addAll(Cpu.registerObservers(openTelemetry));
     observables.addAll(GarbageCollector.registerObservers(openTelemetry, captureGcCause));
     observables.addAll(MemoryPools.registerObservers(openTelemetry));
-    observables.addAll(Threads.registerObservers(openTelemetry));
+    observables.addAll(Threads.registerObservers(openTelemetry, threadStateMode));
     if (emitExperimentalTelemetry) {
       observables.addAll(ExperimentalBufferPools.registerObservers(openTelemetry));
       observables.addAll(ExperimentalCpu.registerObservers(openTelemetry));
@@ -5,11 +5,16 @@
 
 package io.opentelemetry.instrumentation.runtimemetrics.java8.internal;
 
+import static java.util.logging.Level.WARNING;
+
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.metrics.MeterBuilder;
 import io.opentelemetry.instrumentation.api.internal.EmbeddedInstrumentationProperties;
+import io.opentelemetry.instrumentation.runtimemetrics.java8.ThreadStateMode;
 import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
 import javax.annotation.Nullable;
 
 /**
@@ -18,6 +23,8 @@ import javax.annotation.Nullable;
  */
 public class JmxRuntimeMetricsUtil {
 
+  private static final Logger logger = Logger.getLogger(JmxRuntimeMetricsUtil.class.getName());
+
   private static final String INSTRUMENTATION_NAME = "io.opentelemetry.runtime-telemetry-java8";
 
   @Nullable
@@ -52,5 +59,23 @@ public class JmxRuntimeMetricsUtil {
         });
   }
 
+  @Nullable
+  public static ThreadStateMode parseThreadStateMode(@Nullable String mode) {
+    if (mode == null) {
+      return null;
+    }
+    switch (mode.toLowerCase(Locale.ROOT)) {
+      case "thread":
+        return ThreadStateMode.THREAD;
+      case "none":
+        return ThreadStateMode.NONE;
+      case "thread-info":
+        return ThreadStateMode.THREAD_INFO;
+      default:
+        logger.log(WARNING, "Unknown thread states mode: {0}", mode);
+        return null;
+    }
+  }
+
   private JmxRuntimeMetricsUtil() {}
 }
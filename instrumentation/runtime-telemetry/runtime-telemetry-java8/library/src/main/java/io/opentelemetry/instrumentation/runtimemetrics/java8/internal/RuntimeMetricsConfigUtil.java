@@ -10,6 +10,7 @@ import io.opentelemetry.api.incubator.config.DeclarativeConfigProperties;
 import io.opentelemetry.instrumentation.api.incubator.config.internal.DeclarativeConfigUtil;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.RuntimeMetrics;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.RuntimeMetricsBuilder;
+import io.opentelemetry.instrumentation.runtimemetrics.java8.ThreadStateMode;
 import javax.annotation.Nullable;
 
 /**
@@ -37,6 +38,12 @@ public final class RuntimeMetricsConfigUtil {
       builder.captureGcCause();
     }
 
+    ThreadStateMode threadStateMode =
+        JmxRuntimeMetricsUtil.parseThreadStateMode(config.getString("thread_states/development"));
+    if (threadStateMode != null) {
+      builder.setThreadStateMode(threadStateMode);
+    }
+
     return builder.build();
   }
 }
@@ -162,6 +162,31 @@ class ThreadsStableSemconvTest {
                                                     equalTo(JVM_THREAD_STATE, "waiting"))))));
   }
 
+  @Test
+  void registerObservers_withoutThreadStates() {
+    Threads.registerObservers(testing.getOpenTelemetry(), ThreadStateMode.NONE)
+        .forEach(cleanup::deferCleanup);
+
+    testing.waitAndAssertMetrics(
+        "io.opentelemetry.runtime-telemetry-java8",
+        "jvm.thread.count",
+        metrics ->
+            metrics.anySatisfy(
+                metricData ->
+                    assertThat(metricData)
+                        .hasInstrumentationScope(EXPECTED_SCOPE)
+                        .hasLongSumSatisfying(
+                            sum ->
+                                sum.isNotMonotonic()
+                                    .hasPointsSatisfying(
+                                        point ->
+                                            point.hasAttributesSatisfyingExactly(
+                                                equalTo(JVM_THREAD_DAEMON, true)),
+                                        point ->
+                                            point.hasAttributesSatisfyingExactly(
+                                                equalTo(JVM_THREAD_DAEMON, false))))));
+  }
+
   @Test
   void getThreads() {
     Thread[] threads = Threads.getThreads();
@@ -205,6 +205,39 @@ public class AgentClassLoader extends URLClassLoader {
     return null;
   }
 
+  /**
+   * Loads all classes bundled in the agent jar. This is used in a training run that creates a class
+   * data sharing archive, so that the archive contains the agent classes that are only loaded later
+   * or only by some applications.
+   *
+   * @return the number of loaded classes
+   */
+  public int loadAllAgentClasses() {
+    String suffix = ".class" + getClassSuffix();
+    int count = 0;
+    Enumeration<JarEntry> entries = jarFile.entries();
+    while (entries.hasMoreElements()) {
+      String entryName = entries.nextElement().getName();
+      // versioned classes are loaded through their unversioned name
+      if (!entryName.startsWith(jarEntryPrefix)
+          || !entryName.endsWith(suffix)
+          || entryName.startsWith(jarEntryPrefix + META_INF)) {
+        continue;
+      }
+      String className =
+          entryName
+              .substring(jarEntryPrefix.length(), entryName.length() - suffix.length())
+              .replace('/', '.');
+      try {
+        Class.forName(className, false, this);
+        count++;
+      } catch (ClassNotFoundException | LinkageError ignored) {
+        // classes that extend or implement library classes can only be loaded by instrumentation
+      }
+    }
+    return count;
+  }
+
   public Class<?> defineClass(String name, byte[] bytes) {
     return defineClass(name, bytes, 0, bytes.length, codeSource);
   }
@@ -7,6 +7,7 @@ package io.opentelemetry.javaagent.bootstrap;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import io.opentelemetry.context.Context;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
 import java.io.File;
 import java.lang.reflect.Method;
@@ -120,4 +121,23 @@ class AgentClassLoaderTest {
       assertThat(result.length > 0).isNotEqualTo(jdk8);
     }
   }
+
+  @Test
+  void loadAllAgentClasses() throws Exception {
+    // any jar would do, use opentelemetry context which has no dependencies
+    URL testJarLocation = Context.class.getProtectionDomain().getCodeSource().getLocation();
+
+    try (AgentClassLoader loader =
+        new AgentClassLoader(new File(testJarLocation.toURI())) {
+          @Override
+          protected String getClassSuffix() {
+            return "";
+          }
+        }) {
+      assertThat(loader.loadAllAgentClasses()).isGreaterThan(10);
+
+      Class<?> clazz = loader.loadClass(Context.class.getName());
+      assertThat(clazz.getClassLoader()).isEqualTo(loader);
+    }
+  }
 }
@@ -1,6 +1,9 @@
+import net.ltgt.gradle.errorprone.errorprone
+
 plugins {
   id("otel.java-conventions")
   id("otel.publish-conventions")
+  id("otel.jmh-conventions")
 }
 
 group = "io.opentelemetry.javaagent"
@@ -22,6 +25,15 @@ dependencies {
   compileOnly("com.google.code.findbugs:annotations")
 }
 
+tasks {
+  // TODO this should live in jmh-conventions
+  named<JavaCompile>("jmhCompileGeneratedClasses") {
+    options.errorprone {
+      isEnabled.set(false)
+    }
+  }
+}
+
 // Needed by mockito
 configurations.testRuntimeClasspath {
   exclude(group = "net.bytebuddy", module = "byte-buddy-dep")
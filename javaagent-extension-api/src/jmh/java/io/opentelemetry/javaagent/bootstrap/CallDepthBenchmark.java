@@ -0,0 +1,92 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs short-lived tasks that each pass through a number of instrumented classes, every task in a
+ * new platform or virtual thread, and tracks the call depth of each class like the instrumentations
+ * do. Virtual threads require Java 21.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CallDepthBenchmark {
+
+  private static final int INSTRUMENTED_CLASSES = 30;
+  private static final int TASKS = 100;
+
+  @Param({"thread-local", "array"})
+  public String storage;
+
+  @Param({"platform", "virtual"})
+  public String threads;
+
+  private final Class<?>[] instrumentedClasses = new Class<?>[INSTRUMENTED_CLASSES];
+  private final Thread[] tasks = new Thread[TASKS];
+  private ThreadFactory threadFactory;
+  private Runnable task;
+
+  @Setup
+  public void setup() throws ReflectiveOperationException {
+    for (int i = 0; i < INSTRUMENTED_CLASSES; i++) {
+      instrumentedClasses[i] = Array.newInstance(Object.class, new int[i + 1]).getClass();
+    }
+    threadFactory = newThreadFactory();
+    boolean useArray = "array".equals(storage);
+    task =
+        () -> {
+          for (Class<?> instrumentedClass : instrumentedClasses) {
+            CallDepth callDepth =
+                useArray
+                    ? CallDepthArray.getCallDepth(instrumentedClass)
+                    : CallDepthThreadLocalMap.getCallDepth(instrumentedClass);
+            callDepth.getAndIncrement();
+            callDepth.decrementAndGet();
+          }
+        };
+  }
+
+  private ThreadFactory newThreadFactory() throws ReflectiveOperationException {
+    if ("virtual".equals(threads)) {
+      // Thread.ofVirtual().factory(), called reflectively to compile for older Java versions
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      return (ThreadFactory)
+          Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+    }
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> new Thread(runnable, "call-depth-" + count.incrementAndGet());
+  }
+
+  @Benchmark
+  public void runTasks() throws InterruptedException {
+    for (int i = 0; i < TASKS; i++) {
+      tasks[i] = threadFactory.newThread(task);
+      tasks[i].start();
+    }
+    for (Thread thread : tasks) {
+      thread.join();
+    }
+  }
+}
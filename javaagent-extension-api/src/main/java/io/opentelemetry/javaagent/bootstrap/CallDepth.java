@@ -5,6 +5,8 @@
 
 package io.opentelemetry.javaagent.bootstrap;
 
+import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
+
 /**
  * A utility to track nested calls in an instrumentation.
  *
@@ -19,9 +21,16 @@ package io.opentelemetry.javaagent.bootstrap;
  *
  * <p>In short, the semantic of both methods is the same: they will return value 0 if and only if
  * current method invocation is the first one for the current call stack.
+ *
+ * <p>When {@code otel.javaagent.experimental.call-depth.array.enabled} is set, the call depths of a
+ * thread are stored in a single thread local array instead of in one thread local per class.
  */
 public final class CallDepth {
 
+  private static final boolean USE_ARRAY =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.javaagent.experimental.call-depth.array.enabled", false);
+
   private int depth;
 
   CallDepth() {
@@ -35,7 +44,9 @@ public final class CallDepth {
    * <p>The returned instance is unique per given class and per thread.
    */
   public static CallDepth forClass(Class<?> cls) {
-    return CallDepthThreadLocalMap.getCallDepth(cls);
+    return USE_ARRAY
+        ? CallDepthArray.getCallDepth(cls)
+        : CallDepthThreadLocalMap.getCallDepth(cls);
   }
 
   /**
@@ -0,0 +1,55 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stores the call depths of a thread in a single array that is indexed by a slot assigned to each
+ * class. Unlike {@link CallDepthThreadLocalMap} every thread has only one thread local entry,
+ * instead of one for each instrumented class it passes through, which matters for applications
+ * that run many short-lived virtual threads.
+ */
+final class CallDepthArray {
+
+  private static final int INITIAL_LENGTH = 16;
+
+  private static final AtomicInteger nextSlot = new AtomicInteger();
+
+  private static final ClassValue<Integer> SLOTS =
+      new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+          return nextSlot.getAndIncrement();
+        }
+      };
+
+  private static final ThreadLocal<CallDepth[]> TLS =
+      new ThreadLocal<CallDepth[]>() {
+        @Override
+        protected CallDepth[] initialValue() {
+          return new CallDepth[INITIAL_LENGTH];
+        }
+      };
+
+  static CallDepth getCallDepth(Class<?> k) {
+    int slot = SLOTS.get(k);
+    CallDepth[] callDepths = TLS.get();
+    if (slot >= callDepths.length) {
+      callDepths = Arrays.copyOf(callDepths, Math.max(slot + 1, callDepths.length * 2));
+      TLS.set(callDepths);
+    }
+    CallDepth callDepth = callDepths[slot];
+    if (callDepth == null) {
+      callDepth = new CallDepth();
+      callDepths[slot] = callDepth;
+    }
+    return callDepth;
+  }
+
+  private CallDepthArray() {}
+}
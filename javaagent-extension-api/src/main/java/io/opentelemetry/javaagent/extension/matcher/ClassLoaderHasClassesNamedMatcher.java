@@ -8,26 +8,30 @@ package io.opentelemetry.javaagent.extension.matcher;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.bootstrap.internal.ClassLoaderMatcherCacheHolder;
 import io.opentelemetry.javaagent.bootstrap.internal.InClassLoaderMatcher;
-import java.util.BitSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicLongArray;
 import net.bytebuddy.matcher.ElementMatcher;
 
 class ClassLoaderHasClassesNamedMatcher extends ElementMatcher.Junction.AbstractBase<ClassLoader> {
   // caching is disabled for build time muzzle checks
   // this field is set via reflection from ClassLoaderMatcher
   static boolean useCache = true;
+  // each distinct resource gets a unique index that is used for caching whether it is present,
+  // matchers often look for the same resources
+  private static final ConcurrentMap<String, Integer> resourceIndexes = new ConcurrentHashMap<>();
   private static final AtomicInteger counter = new AtomicInteger();
 
   private final String[] resources;
-  // each matcher gets a unique index that is used for caching the matching status
-  private final int index = counter.getAndIncrement();
+  private final int[] indexes;
 
   ClassLoaderHasClassesNamedMatcher(String... classNames) {
     resources = classNames;
+    indexes = new int[resources.length];
     for (int i = 0; i < resources.length; i++) {
       resources[i] = resources[i].replace(".", "/") + ".class";
+      indexes[i] = resourceIndexes.computeIfAbsent(resources[i], k -> counter.getAndIncrement());
     }
   }
 
@@ -60,48 +64,115 @@ class ClassLoaderHasClassesNamedMatcher extends ElementMatcher.Junction.Abstract
 
   private static class Manager {
     static final Manager INSTANCE = new Manager();
-    // each matcher gets a two bits in BitSet, that first bit indicates whether current matcher has
-    // been run for given class loader and the second whether it matched or not
-    private final Cache<ClassLoader, BitSet> enabled = Cache.weak();
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    private final Lock readLock = lock.readLock();
-    private final Lock writeLock = lock.writeLock();
+    private final Cache<ClassLoader, ResourceStates> enabled = Cache.weak();
 
     Manager() {
       ClassLoaderMatcherCacheHolder.addCache(enabled);
     }
 
     boolean match(ClassLoaderHasClassesNamedMatcher matcher, ClassLoader cl) {
-      BitSet set = enabled.computeIfAbsent(cl, (unused) -> new BitSet(counter.get() * 2));
-      int matcherRunBit = 2 * matcher.index;
-      int matchedBit = matcherRunBit + 1;
-      readLock.lock();
+      ResourceStates states =
+          enabled.computeIfAbsent(cl, (unused) -> new ResourceStates(counter.get()));
+      int[] indexes = matcher.indexes;
+      for (int i = 0; i < indexes.length; i++) {
+        int state = states.get(indexes[i]);
+        if (state == ResourceStates.ABSENT) {
+          return false;
+        }
+        if (state == ResourceStates.UNKNOWN) {
+          return lookUpResources(matcher, cl, states, i);
+        }
+      }
+      return true;
+    }
+
+    // looks up all resources of the matcher that were not looked up yet in a single pass
+    private static boolean lookUpResources(
+        ClassLoaderHasClassesNamedMatcher matcher,
+        ClassLoader cl,
+        ResourceStates states,
+        int from) {
+      boolean priorValue = InClassLoaderMatcher.getAndSet(true);
       try {
-        if (!set.get(matcherRunBit)) {
-          // read lock needs to be released before upgrading to write lock
-          readLock.unlock();
-          // we do the resource presence check outside the lock to keep the time we need to hold
-          // the write lock minimal
-          boolean matches = hasResources(cl, matcher.resources);
-          writeLock.lock();
-          try {
-            if (!set.get(matcherRunBit)) {
-              if (matches) {
-                set.set(matchedBit);
-              }
-              set.set(matcherRunBit);
-            }
-          } finally {
-            // downgrading the write lock to the read lock
-            readLock.lock();
-            writeLock.unlock();
+        for (int i = from; i < matcher.indexes.length; i++) {
+          int index = matcher.indexes[i];
+          int state = states.get(index);
+          if (state == ResourceStates.UNKNOWN) {
+            state =
+                cl.getResource(matcher.resources[i]) != null
+                    ? ResourceStates.PRESENT
+                    : ResourceStates.ABSENT;
+            states.set(index, state);
+          }
+          if (state == ResourceStates.ABSENT) {
+            return false;
           }
         }
-
-        return set.get(matchedBit);
       } finally {
-        readLock.unlock();
+        InClassLoaderMatcher.set(priorValue);
       }
+      return true;
+    }
+  }
+
+  /**
+   * Whether the resources are present in a class loader, stored as two bits per resource so that
+   * the states of 32 resources fit into one element of an {@link AtomicLongArray}. Reading and
+   * setting a state does not take a lock.
+   */
+  private static class ResourceStates {
+    static final int UNKNOWN = 0;
+    static final int PRESENT = 1;
+    static final int ABSENT = 2;
+
+    // replaced with a larger array when a matcher is created after the class loader was first seen
+    private volatile AtomicLongArray states;
+
+    ResourceStates(int resourceCount) {
+      states = new AtomicLongArray(length(resourceCount));
+    }
+
+    int get(int index) {
+      AtomicLongArray states = this.states;
+      int element = index >>> 5;
+      if (element >= states.length()) {
+        return UNKNOWN;
+      }
+      return (int) (states.get(element) >>> shift(index)) & 3;
+    }
+
+    void set(int index, int state) {
+      AtomicLongArray states = this.states;
+      int element = index >>> 5;
+      if (element >= states.length()) {
+        states = grow(index);
+      }
+      // states of the same resource computed concurrently are the same, so merging the bits is
+      // enough to not lose the states of other resources in the same element
+      states.getAndAccumulate(element, (long) state << shift(index), (a, b) -> a | b);
+    }
+
+    private synchronized AtomicLongArray grow(int index) {
+      AtomicLongArray states = this.states;
+      if (index >>> 5 < states.length()) {
+        return states;
+      }
+      // states set in the old array while copying are lost, the resources are looked up again
+      AtomicLongArray newStates =
+          new AtomicLongArray(length(Math.max(index + 1, counter.get())));
+      for (int i = 0; i < states.length(); i++) {
+        newStates.set(i, states.get(i));
+      }
+      this.states = newStates;
+      return newStates;
+    }
+
+    private static int length(int resourceCount) {
+      return (resourceCount + 31) >>> 5;
+    }
+
+    private static int shift(int index) {
+      return (index & 31) << 1;
     }
   }
 }
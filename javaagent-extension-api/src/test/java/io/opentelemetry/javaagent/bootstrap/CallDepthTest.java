@@ -7,6 +7,8 @@ package io.opentelemetry.javaagent.bootstrap;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.lang.reflect.Array;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
 class CallDepthTest {
@@ -28,4 +30,35 @@ class CallDepthTest {
     assertThat(CallDepth.forClass(Double.class).getAndIncrement()).isZero();
     assertThat(CallDepth.forClass(Double.class).decrementAndGet()).isZero();
   }
+
+  @Test
+  void arrayStorage() throws InterruptedException {
+    CallDepth string = CallDepthArray.getCallDepth(String.class);
+    assertThat(string.getAndIncrement()).isZero();
+    assertThat(CallDepthArray.getCallDepth(String.class)).isSameAs(string);
+    assertThat(CallDepthArray.getCallDepth(Integer.class).getAndIncrement()).isZero();
+
+    // more classes than fit into the initial array
+    for (int dimensions = 1; dimensions <= 20; dimensions++) {
+      Class<?> type = Array.newInstance(String.class, new int[dimensions]).getClass();
+      assertThat(CallDepthArray.getCallDepth(type).getAndIncrement()).isZero();
+    }
+    assertThat(CallDepthArray.getCallDepth(String.class).getAndIncrement()).isOne();
+
+    // other threads have their own call depths
+    AtomicInteger otherThreadDepth = new AtomicInteger(-1);
+    Thread thread =
+        new Thread(
+            () -> {
+              CallDepth callDepth = CallDepthArray.getCallDepth(String.class);
+              otherThreadDepth.set(callDepth.getAndIncrement());
+            });
+    thread.start();
+    thread.join();
+    assertThat(otherThreadDepth).hasValue(0);
+
+    assertThat(CallDepthArray.getCallDepth(String.class).decrementAndGet()).isOne();
+    assertThat(CallDepthArray.getCallDepth(String.class).decrementAndGet()).isZero();
+    assertThat(CallDepthArray.getCallDepth(Integer.class).decrementAndGet()).isZero();
+  }
 }
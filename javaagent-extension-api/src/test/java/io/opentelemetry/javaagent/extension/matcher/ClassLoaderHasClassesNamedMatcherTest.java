@@ -0,0 +1,73 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.extension.matcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ClassLoaderHasClassesNamedMatcherTest {
+
+  private static final String PRESENT_CLASS = ClassLoaderHasClassesNamedMatcherTest.class.getName();
+
+  @Test
+  void cachesResourceLookups() {
+    CountingClassLoader classLoader = new CountingClassLoader();
+    ClassLoaderHasClassesNamedMatcher present =
+        new ClassLoaderHasClassesNamedMatcher(PRESENT_CLASS);
+    ClassLoaderHasClassesNamedMatcher absent =
+        new ClassLoaderHasClassesNamedMatcher(PRESENT_CLASS, "com.example.Missing");
+
+    assertThat(present.matches(classLoader)).isTrue();
+    assertThat(absent.matches(classLoader)).isFalse();
+    assertThat(present.matches(classLoader)).isTrue();
+    assertThat(absent.matches(classLoader)).isFalse();
+
+    // the resource shared by both matchers is looked up only once
+    assertThat(classLoader.lookups)
+        .containsExactly(PRESENT_CLASS.replace('.', '/') + ".class", "com/example/Missing.class");
+  }
+
+  @Test
+  void matcherCreatedAfterClassLoaderWasSeen() {
+    CountingClassLoader classLoader = new CountingClassLoader();
+    ClassLoaderHasClassesNamedMatcher first =
+        new ClassLoaderHasClassesNamedMatcher("com.example.First");
+    assertThat(first.matches(classLoader)).isFalse();
+
+    // enough new resources to not fit into the states allocated for the class loader
+    List<ClassLoaderHasClassesNamedMatcher> matchers = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      matchers.add(new ClassLoaderHasClassesNamedMatcher("com.example.Class" + i));
+    }
+    ClassLoaderHasClassesNamedMatcher last = new ClassLoaderHasClassesNamedMatcher(PRESENT_CLASS);
+
+    for (ClassLoaderHasClassesNamedMatcher matcher : matchers) {
+      assertThat(matcher.matches(classLoader)).isFalse();
+    }
+    assertThat(last.matches(classLoader)).isTrue();
+    assertThat(first.matches(classLoader)).isFalse();
+    assertThat(last.matches(classLoader)).isTrue();
+    assertThat(classLoader.lookups).hasSize(102);
+  }
+
+  private static class CountingClassLoader extends ClassLoader {
+    final List<String> lookups = new ArrayList<>();
+
+    CountingClassLoader() {
+      super(ClassLoaderHasClassesNamedMatcherTest.class.getClassLoader());
+    }
+
+    @Override
+    public URL getResource(String name) {
+      lookups.add(name);
+      return super.getResource(name);
+    }
+  }
+}
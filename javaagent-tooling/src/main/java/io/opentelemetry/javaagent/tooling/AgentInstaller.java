@@ -20,6 +20,7 @@ import io.opentelemetry.context.ContextStorage;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.instrumentation.api.incubator.config.internal.DeclarativeConfigUtil;
 import io.opentelemetry.instrumentation.api.internal.EmbeddedInstrumentationProperties;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import io.opentelemetry.javaagent.bootstrap.AgentClassLoader;
 import io.opentelemetry.javaagent.bootstrap.BootstrapPackagePrefixesHolder;
 import io.opentelemetry.javaagent.bootstrap.DefineClassHelper;
@@ -173,7 +174,13 @@ public class AgentInstaller {
     }
 
     agentBuilder = agentBuilder.with(new ClassLoadListener());
-    agentBuilder = configureIgnoredTypes(sdkConfig, extensionClassLoader, agentBuilder);
+    agentBuilder = agentBuilder.with(new TransformationCountingListener());
+    TransformationCache transformationCache = TransformationCache.initialize(sdkConfig);
+    if (transformationCache != null) {
+      agentBuilder = agentBuilder.with(transformationCache.listener());
+    }
+    agentBuilder =
+        configureIgnoredTypes(sdkConfig, extensionClassLoader, agentBuilder, transformationCache);
 
     int numberOfLoadedExtensions = 0;
     for (AgentExtension agentExtension : loadOrdered(AgentExtension.class, extensionClassLoader)) {
@@ -291,7 +298,10 @@ public class AgentInstaller {
   // Need to call deprecated API for backward compatibility with extensions that haven't migrated
   @SuppressWarnings("deprecation")
   private static AgentBuilder configureIgnoredTypes(
-      ConfigProperties config, ClassLoader extensionClassLoader, AgentBuilder agentBuilder) {
+      ConfigProperties config,
+      ClassLoader extensionClassLoader,
+      AgentBuilder agentBuilder,
+      @Nullable TransformationCache transformationCache) {
     IgnoredTypesBuilderImpl builder = new IgnoredTypesBuilderImpl();
     for (IgnoredTypesConfigurer configurer :
         loadOrdered(IgnoredTypesConfigurer.class, extensionClassLoader)) {
@@ -306,13 +316,19 @@ public class AgentInstaller {
     Trie<Boolean> ignoredTasksTrie = builder.buildIgnoredTasksTrie();
     InstrumentedTaskClasses.setIgnoredTaskClassesPredicate(ignoredTasksTrie::contains);
 
-    return agentBuilder
-        .ignore(any(), new IgnoredClassLoadersMatcher(builder.buildIgnoredClassLoadersTrie()))
-        .or(new IgnoredTypesMatcher(builder.buildIgnoredTypesTrie()))
-        .or(
-            (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) -> {
-              return HelperInjector.isInjectedClass(classLoader, typeDescription.getName());
-            });
+    AgentBuilder.Ignored ignored =
+        agentBuilder
+            .ignore(any(), new IgnoredClassLoadersMatcher(builder.buildIgnoredClassLoadersTrie()))
+            .or(new IgnoredTypesMatcher(builder.buildIgnoredTypesTrie()))
+            .or(
+                (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) -> {
+                  return HelperInjector.isInjectedClass(classLoader, typeDescription.getName());
+                });
+    if (transformationCache != null) {
+      // last, so that only the types that were not ignored by the matchers above are cached
+      ignored = ignored.or(transformationCache.ignoreMatcher());
+    }
+    return ignored;
   }
 
   private static void addHttpServerResponseCustomizers(ClassLoader extensionClassLoader) {
@@ -537,6 +553,30 @@ public class AgentInstaller {
     }
   }
 
+  private static class TransformationCountingListener extends AgentBuilder.Listener.Adapter {
+    private static final SupportabilityMetrics supportability = SupportabilityMetrics.instance();
+
+    @Override
+    public void onTransformation(
+        TypeDescription typeDescription,
+        ClassLoader classLoader,
+        JavaModule module,
+        boolean loaded,
+        DynamicType dynamicType) {
+      supportability.recordTransformation();
+    }
+
+    @Override
+    public void onError(
+        String typeName,
+        ClassLoader classLoader,
+        JavaModule module,
+        boolean loaded,
+        Throwable throwable) {
+      supportability.recordTransformationError();
+    }
+  }
+
   private static class RedefinitionDiscoveryStrategy
       implements AgentBuilder.RedefinitionStrategy.DiscoveryStrategy {
     private static final AgentBuilder.RedefinitionStrategy.DiscoveryStrategy delegate =
@@ -5,9 +5,12 @@
 
 package io.opentelemetry.javaagent.tooling;
 
+import static java.util.logging.Level.FINE;
+
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.internal.ServiceLoaderUtil;
 import io.opentelemetry.instrumentation.api.internal.cache.weaklockfree.WeakConcurrentMapCleaner;
+import io.opentelemetry.javaagent.bootstrap.AgentClassLoader;
 import io.opentelemetry.javaagent.bootstrap.AgentInitializer;
 import io.opentelemetry.javaagent.bootstrap.AgentStarter;
 import io.opentelemetry.javaagent.extension.instrumentation.internal.AsmApi;
@@ -18,6 +21,7 @@ import java.lang.instrument.Instrumentation;
 import java.lang.instrument.UnmodifiableClassException;
 import java.security.ProtectionDomain;
 import java.util.ServiceLoader;
+import java.util.logging.Logger;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
@@ -101,7 +105,13 @@ public class AgentStarterImpl implements AgentStarter {
       EarlyInitAgentConfig.get().logEarlyConfigErrorsIfAny();
 
       AgentInstaller.installBytebuddyAgent(instrumentation, extensionClassLoader);
-      WeakConcurrentMapCleaner.start();
+      if (EarlyInitAgentConfig.get().isClassDataSharingTrainingEnabled()) {
+        loadAllAgentClasses();
+      }
+      // without the cleaner thread stale entries are removed while the weak maps are modified
+      if (EarlyInitAgentConfig.get().isWeakRefCleanerThreadEnabled()) {
+        WeakConcurrentMapCleaner.start();
+      }
 
       // LazyStorage reads system properties. Initialize it here where we have permissions to avoid
       // failing permission checks when it is initialized from user code.
@@ -119,6 +129,18 @@ public class AgentStarterImpl implements AgentStarter {
     }
   }
 
+  // run with -XX:ArchiveClassesAtExit to archive all agent classes, not only the ones that were
+  // used by the training run
+  private void loadAllAgentClasses() {
+    ClassLoader agentClassLoader = getClass().getClassLoader();
+    if (agentClassLoader instanceof AgentClassLoader) {
+      int count = ((AgentClassLoader) agentClassLoader).loadAllAgentClasses();
+      // not a static field, the logger must not be created before logging is initialized
+      Logger logger = Logger.getLogger(AgentStarterImpl.class.getName());
+      logger.log(FINE, "Loaded {0} agent classes for class data sharing", count);
+    }
+  }
+
   private void installTransformers() {
     // prevents loading InetAddressResolverProvider SPI before agent has started
     // https://github.com/open-telemetry/opentelemetry-java-instrumentation/issues/7130
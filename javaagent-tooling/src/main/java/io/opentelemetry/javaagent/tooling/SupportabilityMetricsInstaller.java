@@ -0,0 +1,152 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import com.google.auto.service.AutoService;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import io.opentelemetry.instrumentation.api.internal.VirtualFieldFallbackCounters;
+import io.opentelemetry.instrumentation.api.internal.cache.weaklockfree.WeakConcurrentMapCleaner;
+import io.opentelemetry.javaagent.extension.AgentListener;
+import io.opentelemetry.sdk.autoconfigure.AutoConfiguredOpenTelemetrySdk;
+import java.util.Locale;
+
+/**
+ * An {@link AgentListener} that exports the {@link SupportabilityMetrics} of the agent, the virtual
+ * field fallback counts and the number of stale weak map entries as metrics under the {@code
+ * otel.javaagent} namespace. The counters are only read when the metrics are collected.
+ */
+@AutoService(AgentListener.class)
+public final class SupportabilityMetricsInstaller implements AgentListener {
+
+  private static final AttributeKey<String> INSTRUMENTATION_NAME =
+      stringKey("instrumentation.name");
+  private static final AttributeKey<String> SPAN_KIND = stringKey("span.kind");
+  private static final AttributeKey<String> CACHE_NAME = stringKey("cache.name");
+  private static final AttributeKey<String> CACHE_RESULT = stringKey("cache.result");
+  private static final AttributeKey<String> OWNER_CLASS = stringKey("owner.class");
+
+  @Override
+  public void afterAgent(AutoConfiguredOpenTelemetrySdk autoConfiguredSdk) {
+    if (!SupportabilityMetrics.isMetricsEnabled()) {
+      return;
+    }
+    SupportabilityMetrics supportability = SupportabilityMetrics.instance();
+    Meter meter = GlobalOpenTelemetry.get().getMeter("io.opentelemetry.javaagent");
+
+    meter
+        .counterBuilder("otel.javaagent.span.started")
+        .setUnit("{span}")
+        .setDescription("Number of spans started by the instrumentation.")
+        .buildWithCallback(
+            measurement ->
+                supportability.forEachInstrumenter(
+                    (instrumentationName, counters) ->
+                        measurement.record(
+                            counters.getStarted(),
+                            Attributes.of(INSTRUMENTATION_NAME, instrumentationName))));
+    meter
+        .counterBuilder("otel.javaagent.span.ended")
+        .setUnit("{span}")
+        .setDescription("Number of spans ended by the instrumentation.")
+        .buildWithCallback(
+            measurement ->
+                supportability.forEachInstrumenter(
+                    (instrumentationName, counters) ->
+                        measurement.record(
+                            counters.getEnded(),
+                            Attributes.of(INSTRUMENTATION_NAME, instrumentationName))));
+    meter
+        .counterBuilder("otel.javaagent.span.suppressed")
+        .setUnit("{span}")
+        .setDescription("Number of spans not started because a span of the same kind was active.")
+        .buildWithCallback(
+            measurement ->
+                supportability.forEachInstrumenter(
+                    (instrumentationName, counters) -> {
+                      for (SpanKind kind : SpanKind.values()) {
+                        long suppressed = counters.getSuppressed(kind);
+                        if (suppressed > 0) {
+                          measurement.record(
+                              suppressed,
+                              Attributes.of(
+                                  INSTRUMENTATION_NAME,
+                                  instrumentationName,
+                                  SPAN_KIND,
+                                  kind.name().toLowerCase(Locale.ROOT)));
+                        }
+                      }
+                    }));
+    meter
+        .counterBuilder("otel.javaagent.cache.requests")
+        .setUnit("{request}")
+        .setDescription("Number of lookups in the caches of the instrumentation.")
+        .buildWithCallback(
+            measurement ->
+                supportability.forEachCache(
+                    (cacheName, counters) -> {
+                      measurement.record(
+                          counters.getHits(),
+                          Attributes.of(CACHE_NAME, cacheName, CACHE_RESULT, "hit"));
+                      measurement.record(
+                          counters.getMisses(),
+                          Attributes.of(CACHE_NAME, cacheName, CACHE_RESULT, "miss"));
+                    }));
+    meter
+        .counterBuilder("otel.javaagent.cache.evictions")
+        .setUnit("{entry}")
+        .setDescription("Number of entries evicted from the caches of the instrumentation.")
+        .buildWithCallback(
+            measurement ->
+                supportability.forEachCache(
+                    (cacheName, counters) ->
+                        measurement.record(
+                            counters.getEvictions(), Attributes.of(CACHE_NAME, cacheName))));
+    meter
+        .gaugeBuilder("otel.javaagent.weak_map.stale_entries")
+        .ofLongs()
+        .setUnit("{entry}")
+        .setDescription(
+            "Number of weak map entries whose key was garbage collected but that were not removed"
+                + " yet.")
+        .buildWithCallback(
+            measurement -> measurement.record(WeakConcurrentMapCleaner.staleEntryCount()));
+    meter
+        .counterBuilder("otel.javaagent.virtual_field.fallback")
+        .setUnit("{set}")
+        .setDescription(
+            "Number of virtual field values stored in a map because no field could be injected"
+                + " into the owner class.")
+        .buildWithCallback(
+            measurement ->
+                VirtualFieldFallbackCounters.forEach(
+                    (ownerClass, count) ->
+                        measurement.record(count, Attributes.of(OWNER_CLASS, ownerClass))));
+    meter
+        .counterBuilder("otel.javaagent.class.transformations")
+        .setUnit("{class}")
+        .setDescription("Number of classes transformed by the agent.")
+        .buildWithCallback(measurement -> measurement.record(supportability.getTransformations()));
+    meter
+        .counterBuilder("otel.javaagent.class.transformation_errors")
+        .setUnit("{class}")
+        .setDescription("Number of classes that the agent failed to transform.")
+        .buildWithCallback(
+            measurement -> measurement.record(supportability.getTransformationErrors()));
+    meter
+        .counterBuilder("otel.javaagent.class.type_matcher_invocations")
+        .setUnit("{invocation}")
+        .setDescription("Number of transformation type matchers evaluated for loaded classes.")
+        .buildWithCallback(
+            measurement -> measurement.record(supportability.getTypeMatcherInvocations()));
+  }
+}
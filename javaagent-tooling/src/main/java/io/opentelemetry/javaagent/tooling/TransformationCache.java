@@ -0,0 +1,516 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.INFO;
+import static java.util.logging.Level.WARNING;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLDecoder;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.utility.JavaModule;
+
+/**
+ * Remembers across JVM restarts which classes were not transformed and which instrumentation
+ * modules passed the muzzle check, so that type matching and muzzle checks can be skipped when the
+ * same application is started again.
+ *
+ * <p>Decisions are keyed by the code-source set of the class loader, that is the jar files it and
+ * its parents load classes from, including their size and modification time. Class loaders whose
+ * code sources cannot be enumerated, classes without a code source and classes that are being
+ * retransformed are never cached. The cache file is named after a fingerprint of the agent version,
+ * the JVM and the agent configuration, so changing any of them starts with an empty cache.
+ *
+ * <p>Only the decisions that were used or made in a run are saved. Decisions for class loaders
+ * whose jar files changed and for classes that are no longer loaded are dropped when the cache is
+ * saved again.
+ */
+public final class TransformationCache {
+
+  private static final Logger logger = Logger.getLogger(TransformationCache.class.getName());
+
+  private static final String DIRECTORY_CONFIG =
+      "otel.javaagent.experimental.transformation-cache.directory";
+  private static final String RESET_CONFIG =
+      "otel.javaagent.experimental.transformation-cache.reset";
+
+  private static final String FILE_PREFIX = "transformation-cache-";
+  private static final String FILE_SUFFIX = ".bin";
+  private static final int MAGIC = 0x4f54_5443;
+  private static final int FORMAT_VERSION = 1;
+  // bound the size of the cache file, decisions beyond the limits are not cached
+  private static final int MAX_IGNORED_TYPES = 200_000;
+  private static final int MAX_MUZZLE_VERDICTS = 20_000;
+
+  // marks class loaders whose code sources cannot be enumerated, must be empty
+  private static final String NOT_CACHEABLE = "";
+  private static final String BOOTSTRAP = "bootstrap";
+
+  @Nullable private static volatile TransformationCache instance;
+
+  private final Path file;
+  // decisions read from the cache file, not modified after loading
+  private final Set<String> previousIgnoredTypes = new HashSet<>();
+  private final Map<String, Boolean> previousMuzzleVerdicts = new HashMap<>();
+  // decisions used or made in this run, these are saved
+  private final Set<String> ignoredTypes = ConcurrentHashMap.newKeySet();
+  private final Map<String, Boolean> muzzleVerdicts = new ConcurrentHashMap<>();
+  private final Cache<ClassLoader, String> loaderKeys = Cache.weak();
+  private final ThreadLocal<String> pendingType = new ThreadLocal<>();
+  private volatile boolean modified;
+  private volatile boolean limitReported;
+
+  private TransformationCache(Path file) {
+    this.file = file;
+  }
+
+  /** Loads the cache when it is enabled, the returned cache is saved when the JVM exits. */
+  @Nullable
+  static TransformationCache initialize(ConfigProperties config) {
+    String directory = config.getString(DIRECTORY_CONFIG);
+    if (directory == null || directory.isEmpty()) {
+      return null;
+    }
+    Path directoryPath = Paths.get(directory);
+    if (config.getBoolean(RESET_CONFIG, false)) {
+      reset(directoryPath);
+    }
+
+    TransformationCache cache = open(directoryPath);
+    Runtime.getRuntime()
+        .addShutdownHook(new Thread(cache::save, "otel-javaagent-transformation-cache"));
+    instance = cache;
+    return cache;
+  }
+
+  // Visible for testing
+  static TransformationCache open(Path directory) {
+    TransformationCache cache =
+        new TransformationCache(directory.resolve(FILE_PREFIX + fingerprint() + FILE_SUFFIX));
+    cache.load();
+    return cache;
+  }
+
+  /** Returns the cache, or {@code null} when it is not enabled. */
+  @Nullable
+  public static TransformationCache get() {
+    return instance;
+  }
+
+  /** Deletes all cache files in the given directory. */
+  static void reset(Path directory) {
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+    try (DirectoryStream<Path> files =
+        Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+      for (Path path : files) {
+        Files.deleteIfExists(path);
+      }
+    } catch (IOException e) {
+      logger.log(WARNING, "Failed to reset the transformation cache in " + directory, e);
+    }
+  }
+
+  /**
+   * Returns a matcher that ignores the types that were not transformed in a previous run. It
+   * should be the last of the ignore matchers, so that it only sees types that could be
+   * transformed.
+   */
+  AgentBuilder.RawMatcher ignoreMatcher() {
+    return this::isIgnored;
+  }
+
+  /** Returns a listener that records the types that were not transformed. */
+  AgentBuilder.Listener listener() {
+    return new RecordingListener();
+  }
+
+  /**
+   * Returns whether the instrumentation module passed the muzzle check for the class loader in a
+   * previous run, or {@code null} when that is not known.
+   */
+  @Nullable
+  public Boolean getMuzzleVerdict(@Nullable ClassLoader classLoader, String moduleName) {
+    String loaderKey = loaderKey(classLoader);
+    if (loaderKey.isEmpty()) {
+      return null;
+    }
+    String key = loaderKey + '/' + moduleName;
+    Boolean verdict = muzzleVerdicts.get(key);
+    if (verdict == null) {
+      verdict = previousMuzzleVerdicts.get(key);
+      if (verdict != null) {
+        muzzleVerdicts.put(key, verdict);
+      }
+    }
+    return verdict;
+  }
+
+  public void putMuzzleVerdict(
+      @Nullable ClassLoader classLoader, String moduleName, boolean matches) {
+    String loaderKey = loaderKey(classLoader);
+    if (loaderKey.isEmpty()) {
+      return;
+    }
+    if (hasRoom(muzzleVerdicts.size(), MAX_MUZZLE_VERDICTS)
+        && muzzleVerdicts.put(loaderKey + '/' + moduleName, matches) == null) {
+      modified = true;
+    }
+  }
+
+  private boolean isIgnored(
+      TypeDescription typeDescription,
+      @Nullable ClassLoader classLoader,
+      @Nullable JavaModule module,
+      @Nullable Class<?> classBeingRedefined,
+      @Nullable ProtectionDomain protectionDomain) {
+    pendingType.remove();
+    if (classBeingRedefined != null) {
+      return false;
+    }
+    String name = typeDescription.getName();
+    // classes generated at runtime, lambdas and proxies for example, can have the same name but
+    // different bytes in the next run, or a different name in every run
+    if (name.contains("$$")) {
+      return false;
+    }
+    if (classLoader != null
+        && (protectionDomain == null || protectionDomain.getCodeSource() == null)) {
+      return false;
+    }
+    String loaderKey = loaderKey(classLoader);
+    if (loaderKey.isEmpty()) {
+      return false;
+    }
+    String key = loaderKey + '/' + name;
+    if (ignoredTypes.contains(key)) {
+      return true;
+    }
+    if (previousIgnoredTypes.contains(key)) {
+      ignoredTypes.add(key);
+      return true;
+    }
+    // recorded by the listener if no transformation matches the type
+    pendingType.set(key);
+    return false;
+  }
+
+  private boolean hasRoom(int size, int maxSize) {
+    if (size < maxSize) {
+      return true;
+    }
+    if (!limitReported) {
+      limitReported = true;
+      logger.log(
+          INFO,
+          "The transformation cache is full, further decisions of this run are not cached: {0}",
+          file);
+    }
+    return false;
+  }
+
+  private String loaderKey(@Nullable ClassLoader classLoader) {
+    if (classLoader == null) {
+      return BOOTSTRAP;
+    }
+    return loaderKeys.computeIfAbsent(classLoader, TransformationCache::computeLoaderKey);
+  }
+
+  private static String computeLoaderKey(ClassLoader classLoader) {
+    StringBuilder key = new StringBuilder();
+    for (ClassLoader loader = classLoader; loader != null; loader = loader.getParent()) {
+      if (!appendCodeSources(key, loader)) {
+        return NOT_CACHEABLE;
+      }
+    }
+    return digest(key.toString());
+  }
+
+  private static boolean appendCodeSources(StringBuilder key, ClassLoader loader) {
+    ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+    if (loader == systemClassLoader.getParent()) {
+      // platform or extension class loader, part of the jvm fingerprint
+      key.append("platform;");
+      return true;
+    }
+    key.append(loader.getClass().getName()).append(';');
+    if (loader == systemClassLoader) {
+      // not an URLClassLoader since java 9
+      if (System.getProperty("jdk.module.path") != null) {
+        return false;
+      }
+      for (String path : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+        if (!path.isEmpty() && !appendFile(key, new File(path))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (!(loader instanceof URLClassLoader)) {
+      return false;
+    }
+    for (URL url : ((URLClassLoader) loader).getURLs()) {
+      if (!appendUrl(key, url)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean appendUrl(StringBuilder key, URL url) {
+    String spec = url.toString();
+    if (spec.startsWith("file:")) {
+      return appendFile(key, new File(decode(spec.substring("file:".length()))));
+    }
+    // jar in a jar, identified by the outer jar and the full url
+    String outer = null;
+    if (spec.startsWith("jar:file:") && spec.indexOf('!') > 0) {
+      outer = spec.substring("jar:file:".length(), spec.indexOf('!'));
+    } else if (spec.startsWith("jar:nested:") && spec.indexOf("/!") > 0) {
+      outer = spec.substring("jar:nested:".length(), spec.indexOf("/!"));
+    }
+    if (outer == null) {
+      return false;
+    }
+    key.append(spec).append('|');
+    return appendFile(key, new File(decode(outer)));
+  }
+
+  private static boolean appendFile(StringBuilder key, File file) {
+    // the content of a directory can change without changing its modification time
+    if (!file.isFile()) {
+      return false;
+    }
+    key.append(file.getAbsolutePath())
+        .append(':')
+        .append(file.length())
+        .append(':')
+        .append(file.lastModified())
+        .append(';');
+    return true;
+  }
+
+  private static String decode(String path) {
+    try {
+      return URLDecoder.decode(path.replace("+", "%2B"), "UTF-8");
+    } catch (IOException | IllegalArgumentException e) {
+      return path;
+    }
+  }
+
+  // everything besides the class loaders that decides which classes are transformed
+  private static String fingerprint() {
+    StringBuilder key = new StringBuilder();
+    key.append(AgentVersion.VERSION).append(';');
+    key.append(System.getProperty("java.home")).append(';');
+    key.append(System.getProperty("java.runtime.version")).append(';');
+    Map<String, String> config = new TreeMap<>();
+    for (String name : System.getProperties().stringPropertyNames()) {
+      // changing the cache settings does not change which classes are transformed
+      if (name.startsWith("otel.")
+          && !name.startsWith("otel.javaagent.experimental.transformation-cache.")) {
+        config.put(name, System.getProperty(name));
+      }
+    }
+    for (Map.Entry<String, String> entry : System.getenv().entrySet()) {
+      if (entry.getKey().startsWith("OTEL_")
+          && !entry.getKey().startsWith("OTEL_JAVAAGENT_EXPERIMENTAL_TRANSFORMATION_CACHE_")) {
+        config.put(entry.getKey(), entry.getValue());
+      }
+    }
+    for (Map.Entry<String, String> entry : config.entrySet()) {
+      key.append(entry.getKey()).append('=').append(entry.getValue()).append(';');
+    }
+    // the content of the extensions and of the configuration file is not in the properties
+    List<String> files = new ArrayList<>();
+    addFiles(files, config.get("otel.javaagent.extensions"));
+    addFiles(files, config.get("OTEL_JAVAAGENT_EXTENSIONS"));
+    addFiles(files, config.get("otel.javaagent.configuration-file"));
+    addFiles(files, config.get("OTEL_JAVAAGENT_CONFIGURATION_FILE"));
+    for (String path : files) {
+      File file = new File(path);
+      key.append(path).append(':').append(file.length()).append(':').append(file.lastModified());
+      key.append(';');
+    }
+    return digest(key.toString());
+  }
+
+  private static void addFiles(List<String> files, @Nullable String paths) {
+    if (paths != null) {
+      Collections.addAll(files, paths.split(","));
+    }
+  }
+
+  private static String digest(String value) {
+    MessageDigest messageDigest;
+    try {
+      messageDigest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    byte[] hash = messageDigest.digest(value.getBytes(UTF_8));
+    StringBuilder result = new StringBuilder(32);
+    // 128 bits are plenty to tell the class loaders and the configurations apart
+    for (int i = 0; i < 16; i++) {
+      result.append(Character.forDigit((hash[i] >> 4) & 0xf, 16));
+      result.append(Character.forDigit(hash[i] & 0xf, 16));
+    }
+    return result.toString();
+  }
+
+  private void load() {
+    if (!Files.isRegularFile(file)) {
+      return;
+    }
+    try (InputStream inputStream = Files.newInputStream(file);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream))) {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+        logger.log(FINE, "Ignoring transformation cache with unknown format: {0}", file);
+        return;
+      }
+      int verdictCount = in.readInt();
+      for (int i = 0; i < verdictCount; i++) {
+        previousMuzzleVerdicts.put(in.readUTF(), in.readBoolean());
+      }
+      int ignoredTypeCount = in.readInt();
+      for (int i = 0; i < ignoredTypeCount; i++) {
+        previousIgnoredTypes.add(in.readUTF());
+      }
+      logger.log(
+          FINE,
+          "Loaded {0} muzzle verdicts and {1} ignored types from the transformation cache",
+          new Object[] {verdictCount, ignoredTypeCount});
+    } catch (IOException e) {
+      // a partially read cache is still consistent, every entry is valid on its own
+      logger.log(WARNING, "Failed to load the transformation cache from " + file, e);
+    }
+  }
+
+  // Visible for testing
+  void save() {
+    // without new decisions the decisions of this run are a subset of the loaded ones, they are the
+    // same if nothing was left unused
+    if (!modified
+        && ignoredTypes.size() == previousIgnoredTypes.size()
+        && muzzleVerdicts.size() == previousMuzzleVerdicts.size()) {
+      return;
+    }
+    try {
+      Files.createDirectories(file.getParent());
+      Path temporaryFile = Files.createTempFile(file.getParent(), FILE_PREFIX, ".tmp");
+      try {
+        write(temporaryFile);
+        try {
+          Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(temporaryFile);
+      }
+    } catch (IOException e) {
+      logger.log(WARNING, "Failed to save the transformation cache to " + file, e);
+    }
+  }
+
+  private void write(Path path) throws IOException {
+    // the sets are modified concurrently, so the counts are written after copying them
+    List<Map.Entry<String, Boolean>> verdicts = new ArrayList<>(muzzleVerdicts.entrySet());
+    List<String> types = new ArrayList<>(ignoredTypes);
+    try (OutputStream outputStream = Files.newOutputStream(path);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream))) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(verdicts.size());
+      for (Map.Entry<String, Boolean> verdict : verdicts) {
+        out.writeUTF(verdict.getKey());
+        out.writeBoolean(verdict.getValue());
+      }
+      out.writeInt(types.size());
+      for (String type : types) {
+        out.writeUTF(type);
+      }
+    }
+  }
+
+  private class RecordingListener extends AgentBuilder.Listener.Adapter {
+
+    @Override
+    public void onIgnored(
+        TypeDescription typeDescription,
+        @Nullable ClassLoader classLoader,
+        @Nullable JavaModule module,
+        boolean loaded) {
+      String key = pendingType.get();
+      if (key == null) {
+        return;
+      }
+      pendingType.remove();
+      if (!loaded
+          && key.endsWith('/' + typeDescription.getName())
+          && hasRoom(ignoredTypes.size(), MAX_IGNORED_TYPES)
+          && ignoredTypes.add(key)) {
+        modified = true;
+      }
+    }
+
+    @Override
+    public void onTransformation(
+        TypeDescription typeDescription,
+        @Nullable ClassLoader classLoader,
+        @Nullable JavaModule module,
+        boolean loaded,
+        DynamicType dynamicType) {
+      pendingType.remove();
+    }
+
+    @Override
+    public void onError(
+        String typeName,
+        @Nullable ClassLoader classLoader,
+        @Nullable JavaModule module,
+        boolean loaded,
+        Throwable throwable) {
+      pendingType.remove();
+    }
+  }
+}
@@ -50,6 +50,14 @@ public final class EarlyInitAgentConfig {
     return getBoolean("otel.javaagent.experimental.field-injection.enabled", true);
   }
 
+  public boolean isWeakRefCleanerThreadEnabled() {
+    return getBoolean("otel.javaagent.experimental.weak-ref-cleaner-thread.enabled", true);
+  }
+
+  public boolean isClassDataSharingTrainingEnabled() {
+    return getBoolean("otel.javaagent.experimental.cds-training.enabled", false);
+  }
+
   public int getLoggingApplicationLogsBufferMaxRecords() {
     return getInt("otel.javaagent.logging.application.logs-buffer-max-records", 2048);
   }
@@ -10,6 +10,8 @@ import static io.opentelemetry.javaagent.tooling.field.GeneratedVirtualFieldName
 import static io.opentelemetry.javaagent.tooling.field.GeneratedVirtualFieldNames.getVirtualFieldImplementationClassName;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import io.opentelemetry.instrumentation.api.internal.VirtualFieldFallbackCounters;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.instrumentation.api.util.VirtualField;
 import io.opentelemetry.javaagent.extension.instrumentation.internal.AsmApi;
@@ -267,7 +269,7 @@ final class VirtualFieldImplementationsGenerator {
   @SuppressWarnings({"UnusedMethod", "UnusedVariable", "MethodCanBeStatic"})
   static final class VirtualFieldImplementationTemplate extends VirtualField<Object, Object> {
     private static final VirtualFieldImplementationTemplate INSTANCE =
-        new VirtualFieldImplementationTemplate(Cache.weak());
+        new VirtualFieldImplementationTemplate(Cache.weakIdentity());
 
     private final Cache<Object, Object> map;
 
@@ -302,6 +304,9 @@ final class VirtualFieldImplementationsGenerator {
       if (value == null) {
         map.remove(key);
       } else {
+        if (SupportabilityMetrics.isMetricsEnabled()) {
+          VirtualFieldFallbackCounters.recordFallback(key.getClass());
+        }
         map.put(key, value);
       }
     }
@@ -12,6 +12,7 @@ import static net.bytebuddy.dynamic.loading.ClassLoadingStrategy.BOOTSTRAP_LOADE
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
 import io.opentelemetry.javaagent.tooling.TransformSafeLogger;
+import io.opentelemetry.javaagent.tooling.TransformationCache;
 import io.opentelemetry.javaagent.tooling.Utils;
 import io.opentelemetry.javaagent.tooling.config.EarlyInitAgentConfig;
 import io.opentelemetry.javaagent.tooling.instrumentation.indy.IndyModuleRegistry;
@@ -23,6 +24,7 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.utility.JavaModule;
@@ -57,6 +59,7 @@ class MuzzleMatcher implements AgentBuilder.RawMatcher {
       JavaModule module,
       Class<?> classBeingRedefined,
       ProtectionDomain protectionDomain) {
+    ClassLoader applicationClassLoader = classLoader;
     if (classLoader == BOOTSTRAP_LOADER) {
       classLoader = Utils.getBootstrapProxy();
     }
@@ -64,14 +67,48 @@ class MuzzleMatcher implements AgentBuilder.RawMatcher {
       return matchCache.computeIfAbsent(
           classLoader,
           cl -> {
+            Boolean cached = getCachedVerdict(applicationClassLoader);
+            if (cached != null) {
+              return cached;
+            }
             InstrumentationModuleClassLoader moduleCl =
                 IndyModuleRegistry.createInstrumentationClassLoaderWithoutRegistration(
                     instrumentationModule, cl);
-            return doesMatch(moduleCl);
+            return cacheVerdict(applicationClassLoader, doesMatch(moduleCl));
           });
     } else {
-      return matchCache.computeIfAbsent(classLoader, this::doesMatch);
+      return matchCache.computeIfAbsent(
+          classLoader,
+          cl -> {
+            Boolean cached = getCachedVerdict(applicationClassLoader);
+            return cached != null ? cached : cacheVerdict(applicationClassLoader, doesMatch(cl));
+          });
+    }
+  }
+
+  // verdicts from a previous run are not used when the mismatches are logged
+  @Nullable
+  private Boolean getCachedVerdict(@Nullable ClassLoader classLoader) {
+    TransformationCache transformationCache = TransformationCache.get();
+    if (transformationCache == null || muzzleLogger.isLoggable(muzzleLogLevel)) {
+      return null;
     }
+    Boolean verdict =
+        transformationCache.getMuzzleVerdict(
+            classLoader, instrumentationModule.getClass().getName());
+    if (verdict != null && !verdict) {
+      MuzzleFailureCounter.inc();
+    }
+    return verdict;
+  }
+
+  private boolean cacheVerdict(@Nullable ClassLoader classLoader, boolean isMatch) {
+    TransformationCache transformationCache = TransformationCache.get();
+    if (transformationCache != null) {
+      transformationCache.putMuzzleVerdict(
+          classLoader, instrumentationModule.getClass().getName(), isMatch);
+    }
+    return isMatch;
   }
 
   private boolean doesMatch(ClassLoader classLoader) {
@@ -0,0 +1,171 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation.http;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.javaagent.tooling.instrumentation.http.UrlTemplateRules.Rule;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Applies url template rules to urls. Only the rules whose pattern starts with a literal prefix of
+ * the url, or that have no literal prefix, are tried, in the order in which they were added. The
+ * template of recently seen urls is cached.
+ */
+final class UrlTemplateRuleSet {
+
+  private static final int CACHE_SIZE = 1000;
+
+  private final Rule[] rules;
+  private final Node root = new Node();
+  // the url itself is stored for urls that no rule matches, no rule can produce the url as its
+  // template because that is treated as not matching
+  private final Cache<String, String> templates = Cache.bounded(CACHE_SIZE);
+
+  UrlTemplateRuleSet(List<Rule> rules) {
+    this.rules = rules.toArray(new Rule[0]);
+    for (int i = 0; i < this.rules.length; i++) {
+      String prefix = literalPrefix(this.rules[i].getPattern().pattern());
+      Node node = root;
+      for (int j = 0; j < prefix.length(); j++) {
+        node = node.children.computeIfAbsent(prefix.charAt(j), c -> new Node());
+      }
+      node.rules.add(i);
+    }
+  }
+
+  @Nullable
+  String apply(String url) {
+    if (rules.length == 0) {
+      return null;
+    }
+    String template = templates.computeIfAbsent(url, this::computeTemplate);
+    return template.equals(url) ? null : template;
+  }
+
+  private String computeTemplate(String url) {
+    int[] candidates = new int[rules.length];
+    int count = 0;
+    Node node = root;
+    for (int i = 0; node != null; i++) {
+      for (int rule : node.rules) {
+        candidates[count++] = rule;
+      }
+      node = i < url.length() ? node.children.get(url.charAt(i)) : null;
+    }
+    Arrays.sort(candidates, 0, count);
+
+    for (int i = 0; i < count; i++) {
+      Rule rule = rules[candidates[i]];
+      // to generate the url template, we apply the regex replacement on the full url
+      String result = rule.getPattern().matcher(url).replaceFirst(rule.getReplacement());
+      if (!url.equals(result)) {
+        return result;
+      }
+    }
+    return url;
+  }
+
+  /**
+   * Returns the literal text that every string matched by the anchored {@code regex} starts with,
+   * or an empty string when it can't be determined.
+   */
+  // visible for testing
+  static String literalPrefix(String regex) {
+    if (!regex.startsWith("^") || hasTopLevelAlternation(regex)) {
+      return "";
+    }
+    StringBuilder prefix = new StringBuilder();
+    int i = 1;
+    while (i < regex.length()) {
+      char c = regex.charAt(i);
+      char literal;
+      int next;
+      if (c == '\\') {
+        if (i + 1 == regex.length()) {
+          break;
+        }
+        char escaped = regex.charAt(i + 1);
+        if (escaped == 'Q') {
+          int end = regex.indexOf("\\E", i + 2);
+          next = end < 0 ? regex.length() : end + 2;
+          String quoted = regex.substring(i + 2, end < 0 ? regex.length() : end);
+          if (next < regex.length() && isQuantifier(regex.charAt(next))) {
+            // the quantifier applies only to the last quoted character
+            prefix.append(quoted, 0, Math.max(0, quoted.length() - 1));
+            break;
+          }
+          prefix.append(quoted);
+          i = next;
+          continue;
+        }
+        if (Character.isLetterOrDigit(escaped)) {
+          // character class like \d or a back reference
+          break;
+        }
+        literal = escaped;
+        next = i + 2;
+      } else if ("[](){}.*+?^$|".indexOf(c) >= 0) {
+        break;
+      } else {
+        literal = c;
+        next = i + 1;
+      }
+      if (next < regex.length() && isQuantifier(regex.charAt(next))) {
+        break;
+      }
+      prefix.append(literal);
+      i = next;
+    }
+    return prefix.toString();
+  }
+
+  private static boolean isQuantifier(char c) {
+    return c == '?' || c == '*' || c == '+' || c == '{';
+  }
+
+  private static boolean hasTopLevelAlternation(String regex) {
+    int depth = 0;
+    int classDepth = 0;
+    for (int i = 0; i < regex.length(); i++) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+          int end = regex.indexOf("\\E", i + 2);
+          if (end < 0) {
+            return false;
+          }
+          i = end + 1;
+        } else {
+          i++;
+        }
+      } else if (c == '[') {
+        classDepth++;
+      } else if (c == ']' && classDepth > 0) {
+        classDepth--;
+      } else if (classDepth == 0) {
+        if (c == '(') {
+          depth++;
+        } else if (c == ')') {
+          depth--;
+        } else if (c == '|' && depth == 0) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static final class Node {
+    final Map<Character, Node> children = new HashMap<>();
+    // indexes of the rules whose literal prefix ends at this node
+    final List<Integer> rules = new ArrayList<>();
+  }
+}
@@ -15,9 +15,15 @@ import java.util.regex.Pattern;
 final class UrlTemplateRules {
   private static final Logger logger = Logger.getLogger(UrlTemplateRules.class.getName());
   private static final List<Rule> rules = new ArrayList<>();
+  private static volatile UrlTemplateRuleSet allRules = new UrlTemplateRuleSet(rules);
+  private static volatile UrlTemplateRuleSet overrideRules = new UrlTemplateRuleSet(rules);
 
-  static List<Rule> getRules() {
-    return rules;
+  /**
+   * Returns the rules to apply to a request. When the instrumentation already provided a url
+   * template only the rules that override it are applied.
+   */
+  static UrlTemplateRuleSet getRuleSet(boolean hasUrlTemplate) {
+    return hasUrlTemplate ? overrideRules : allRules;
   }
 
   static void addRule(Pattern pattern, String replacement, boolean override) {
@@ -27,6 +33,14 @@ final class UrlTemplateRules {
         new Object[] {pattern, replacement, override});
 
     rules.add(new Rule(pattern, replacement, override));
+    List<Rule> overriding = new ArrayList<>();
+    for (Rule rule : rules) {
+      if (rule.getOverride()) {
+        overriding.add(rule);
+      }
+    }
+    allRules = new UrlTemplateRuleSet(rules);
+    overrideRules = new UrlTemplateRuleSet(overriding);
   }
 
   static final class Rule {
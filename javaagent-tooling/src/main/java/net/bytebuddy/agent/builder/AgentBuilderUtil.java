@@ -7,15 +7,20 @@ package net.bytebuddy.agent.builder;
 
 import static java.util.logging.Level.FINE;
 
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import io.opentelemetry.javaagent.extension.matcher.internal.DelegatingMatcher;
 import io.opentelemetry.javaagent.extension.matcher.internal.DelegatingSuperTypeMatcher;
 import io.opentelemetry.javaagent.tooling.DefineClassHandler;
 import java.lang.reflect.Field;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -72,67 +77,117 @@ public class AgentBuilderUtil {
   }
 
   private static void optimize(AgentBuilder.Default agentBuilder) throws Exception {
-    // class names that have a matcher that matches by name
-    Set<String> classNames = new HashSet<>();
-    // class names that have a matcher that matches subtypes
-    Set<String> superTypeNames = new HashSet<>();
-    List<Transformation> unoptimizedTransformations = new ArrayList<>();
     List<Transformation> transformations = agentBuilder.transformations;
-    for (Transformation transformation : transformations) {
+    // indexes of the transformations that have a matcher that matches by name, by class name
+    Map<String, int[]> classNameIndex = new HashMap<>();
+    // indexes of the transformations that have a matcher that matches subtypes, by super type name
+    Map<String, int[]> superTypeNameIndex = new HashMap<>();
+    BitSet unoptimized = new BitSet(transformations.size());
+    List<Transformation> unoptimizedTransformations = new ArrayList<>();
+    for (int i = 0; i < transformations.size(); i++) {
+      Transformation transformation = transformations.get(i);
       AgentBuilder.RawMatcher matcher = transformation.getMatcher();
       // attempt to decompose the matcher and find if it applies to a named class or a subclass
       Result result = inspect(matcher);
       if (result == null) {
         // we were not able to decompose the matcher
+        unoptimized.set(i);
         unoptimizedTransformations.add(transformation);
-      } else if (result.subtype) {
-        superTypeNames.addAll(result.names);
       } else {
-        classNames.addAll(result.names);
+        Map<String, int[]> index = result.subtype ? superTypeNameIndex : classNameIndex;
+        for (String name : result.names) {
+          index.merge(name, new int[] {i}, AgentBuilderUtil::concat);
+        }
       }
     }
 
+    SupportabilityMetrics supportability = SupportabilityMetrics.instance();
     List<?> list =
         (List<?>)
             Proxy.newProxyInstance(
                 AgentBuilderUtil.class.getClassLoader(),
                 new Class<?>[] {List.class},
                 (proxy, method, args) -> {
-                  String name = TransformContext.getTransformedClassName();
                   // iterator() is the only method we expect to be called on this List
-                  if (name != null && "iterator".equals(method.getName())) {
-                    // we know that this class is going to be transformed
-                    if (classNames.contains(name) || superTypeNames.contains(name)) {
-                      return transformations.iterator();
-                    }
-                    // we already know that loading this class is going to fail, no need to
-                    // transform it
-                    if (DefineClassHandler.isFailedClass(name)) {
-                      return Collections.emptyIterator();
-                    }
-                    Set<String> loadingSuperTypes = DefineClassHandler.getSuperTypes();
-                    // super types set should contain at least java.lang.Object if this set is
-                    // empty something unexpected has happened, run all transformations
-                    if (loadingSuperTypes.isEmpty()) {
-                      return transformations.iterator();
-                    }
-                    for (String className : loadingSuperTypes) {
-                      // we know that this class is going to be transformed
-                      if (superTypeNames.contains(className)) {
-                        return transformations.iterator();
-                      }
-                    }
-
-                    // apply only the transformations that we can't decompose
-                    return unoptimizedTransformations.iterator();
+                  if (!"iterator".equals(method.getName())) {
+                    return method.invoke(transformations, args);
                   }
-
-                  return method.invoke(transformations, args);
+                  List<Transformation> result =
+                      selectTransformations(
+                          transformations,
+                          classNameIndex,
+                          superTypeNameIndex,
+                          unoptimized,
+                          unoptimizedTransformations);
+                  // byte buddy evaluates the matcher of every returned transformation
+                  supportability.recordTypeMatcherInvocations(result.size());
+                  return result.iterator();
                 });
 
     agentBuilderTransformationsField.set(agentBuilder, list);
   }
 
+  private static List<Transformation> selectTransformations(
+      List<Transformation> transformations,
+      Map<String, int[]> classNameIndex,
+      Map<String, int[]> superTypeNameIndex,
+      BitSet unoptimized,
+      List<Transformation> unoptimizedTransformations) {
+    String name = TransformContext.getTransformedClassName();
+    if (name == null) {
+      return transformations;
+    }
+    // we already know that loading this class is going to fail, no need to transform it
+    if (DefineClassHandler.isFailedClass(name)) {
+      return Collections.emptyList();
+    }
+    Set<String> loadingSuperTypes = DefineClassHandler.getSuperTypes();
+    // super types set should contain at least java.lang.Object if this set is empty something
+    // unexpected has happened, run all transformations
+    if (loadingSuperTypes.isEmpty()) {
+      return transformations;
+    }
+
+    BitSet selected = null;
+    selected = select(selected, unoptimized, classNameIndex.get(name));
+    selected = select(selected, unoptimized, superTypeNameIndex.get(name));
+    for (String className : loadingSuperTypes) {
+      selected = select(selected, unoptimized, superTypeNameIndex.get(className));
+    }
+    if (selected == null) {
+      // apply only the transformations that we can't decompose
+      return unoptimizedTransformations;
+    }
+
+    // keep the original order of the transformations
+    List<Transformation> result = new ArrayList<>(selected.cardinality());
+    for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+      result.add(transformations.get(i));
+    }
+    return result;
+  }
+
+  @Nullable
+  private static BitSet select(
+      @Nullable BitSet selected, BitSet unoptimized, @Nullable int[] indexes) {
+    if (indexes == null) {
+      return selected;
+    }
+    if (selected == null) {
+      selected = (BitSet) unoptimized.clone();
+    }
+    for (int index : indexes) {
+      selected.set(index);
+    }
+    return selected;
+  }
+
+  private static int[] concat(int[] first, int[] second) {
+    int[] result = Arrays.copyOf(first, first.length + second.length);
+    System.arraycopy(second, 0, result, first.length, second.length);
+    return result;
+  }
+
   @Nullable
   private static Result inspect(AgentBuilder.RawMatcher matcher) throws Exception {
     if (matcher instanceof AgentBuilder.RawMatcher.Conjunction) {
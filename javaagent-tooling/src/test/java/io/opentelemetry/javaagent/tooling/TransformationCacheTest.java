@@ -0,0 +1,130 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TransformationCacheTest {
+
+  @TempDir Path cacheDirectory;
+  @TempDir Path jarDirectory;
+
+  @Test
+  void muzzleVerdictsSurviveRestart() throws Exception {
+    Path jar = createJar("library.jar");
+    try (URLClassLoader classLoader = newClassLoader(jar)) {
+      TransformationCache cache = TransformationCache.open(cacheDirectory);
+      assertThat(cache.getMuzzleVerdict(classLoader, "FirstModule")).isNull();
+      cache.putMuzzleVerdict(classLoader, "FirstModule", true);
+      cache.putMuzzleVerdict(classLoader, "SecondModule", false);
+      cache.save();
+    }
+
+    // a new class loader with the same code sources, like after a restart
+    try (URLClassLoader classLoader = newClassLoader(jar)) {
+      TransformationCache cache = TransformationCache.open(cacheDirectory);
+      assertThat(cache.getMuzzleVerdict(classLoader, "FirstModule")).isTrue();
+      assertThat(cache.getMuzzleVerdict(classLoader, "SecondModule")).isFalse();
+      assertThat(cache.getMuzzleVerdict(classLoader, "ThirdModule")).isNull();
+    }
+  }
+
+  @Test
+  void changedJarIsNotCached() throws Exception {
+    Path jar = createJar("library.jar");
+    try (URLClassLoader classLoader = newClassLoader(jar)) {
+      TransformationCache cache = TransformationCache.open(cacheDirectory);
+      cache.putMuzzleVerdict(classLoader, "Module", true);
+      cache.save();
+    }
+
+    Files.write(jar, new byte[] {1, 2, 3});
+    try (URLClassLoader classLoader = newClassLoader(jar)) {
+      TransformationCache cache = TransformationCache.open(cacheDirectory);
+      assertThat(cache.getMuzzleVerdict(classLoader, "Module")).isNull();
+    }
+  }
+
+  @Test
+  void unusedVerdictsAreDropped() throws Exception {
+    Path firstJar = createJar("first.jar");
+    Path secondJar = createJar("second.jar");
+    try (URLClassLoader classLoader = newClassLoader(firstJar)) {
+      TransformationCache cache = TransformationCache.open(cacheDirectory);
+      cache.putMuzzleVerdict(classLoader, "Module", true);
+      cache.save();
+    }
+
+    // the first jar is not used in this run
+    try (URLClassLoader classLoader = newClassLoader(secondJar)) {
+      TransformationCache cache = TransformationCache.open(cacheDirectory);
+      cache.putMuzzleVerdict(classLoader, "Module", false);
+      cache.save();
+    }
+
+    try (URLClassLoader firstClassLoader = newClassLoader(firstJar);
+        URLClassLoader secondClassLoader = newClassLoader(secondJar)) {
+      TransformationCache cache = TransformationCache.open(cacheDirectory);
+      assertThat(cache.getMuzzleVerdict(firstClassLoader, "Module")).isNull();
+      assertThat(cache.getMuzzleVerdict(secondClassLoader, "Module")).isFalse();
+    }
+  }
+
+  @Test
+  void directoryCodeSourceIsNotCached() throws Exception {
+    try (URLClassLoader classLoader = newClassLoader(jarDirectory)) {
+      TransformationCache cache = TransformationCache.open(cacheDirectory);
+      cache.putMuzzleVerdict(classLoader, "Module", true);
+      assertThat(cache.getMuzzleVerdict(classLoader, "Module")).isNull();
+    }
+  }
+
+  @Test
+  void reset() throws Exception {
+    Path jar = createJar("library.jar");
+    try (URLClassLoader classLoader = newClassLoader(jar)) {
+      TransformationCache cache = TransformationCache.open(cacheDirectory);
+      cache.putMuzzleVerdict(classLoader, "Module", true);
+      cache.save();
+      assertThat(listFiles()).hasSize(1);
+
+      TransformationCache.reset(cacheDirectory);
+
+      assertThat(listFiles()).isEmpty();
+      assertThat(TransformationCache.open(cacheDirectory).getMuzzleVerdict(classLoader, "Module"))
+          .isNull();
+    }
+  }
+
+  private Path createJar(String name) throws Exception {
+    Path path = jarDirectory.resolve(name);
+    try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(path), new Manifest())) {
+      // empty jar
+    }
+    return path;
+  }
+
+  private static URLClassLoader newClassLoader(Path path) throws Exception {
+    // no parent, the code sources of the test class path are directories that are not cached
+    return new URLClassLoader(new URL[] {path.toUri().toURL()}, null);
+  }
+
+  private Object[] listFiles() throws Exception {
+    try (Stream<Path> files = Files.list(cacheDirectory)) {
+      return files.toArray();
+    }
+  }
+}
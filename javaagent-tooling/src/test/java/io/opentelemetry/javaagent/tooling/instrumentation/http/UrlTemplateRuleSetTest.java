@@ -0,0 +1,60 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.javaagent.tooling.instrumentation.http.UrlTemplateRules.Rule;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class UrlTemplateRuleSetTest {
+
+  @ParameterizedTest
+  @CsvSource(
+      delimiter = ' ',
+      value = {
+        "^http://example\\.com/users/[0-9]+$ http://example.com/users/",
+        "^http://example.com/a$ http://example",
+        "^https?://example.com$ http",
+        "^\\Qhttp://example.com/\\E.*$ http://example.com/",
+        "^\\Qhttp://x\\E?$ http://",
+        "^http://a/(b|c)$ http://a/",
+        "^http://a|http://b$ ''",
+        "^[a-z]+://example.com$ ''",
+        "^\\w+://example.com$ ''",
+        "http://example.com ''",
+      })
+  void literalPrefix(String regex, String prefix) {
+    assertThat(UrlTemplateRuleSet.literalPrefix(regex)).isEqualTo(prefix);
+  }
+
+  @Test
+  void appliesFirstMatchingRule() {
+    UrlTemplateRuleSet ruleSet =
+        new UrlTemplateRuleSet(
+            Arrays.asList(
+                rule("^http://example\\.com/users/[0-9]+$", "/users/{id}"),
+                rule("^.*/users/.*$", "/any-users"),
+                rule("^http://example\\.com/users/me$", "/users/me"),
+                rule("^http://example\\.com/(orders)/[0-9]+$", "/$1/{id}")));
+
+    assertThat(ruleSet.apply("http://example.com/users/123")).isEqualTo("/users/{id}");
+    assertThat(ruleSet.apply("http://example.com/users/me")).isEqualTo("/any-users");
+    assertThat(ruleSet.apply("http://example.com/orders/1")).isEqualTo("/orders/{id}");
+    assertThat(ruleSet.apply("http://example.com/other")).isNull();
+    // cached
+    assertThat(ruleSet.apply("http://example.com/users/123")).isEqualTo("/users/{id}");
+    assertThat(ruleSet.apply("http://example.com/other")).isNull();
+  }
+
+  private static Rule rule(String pattern, String replacement) {
+    return new Rule(Pattern.compile(pattern), replacement, false);
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.muzzle;
+
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.pool.TypePool;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Describes every type of a synthetic class graph with deep class hierarchies and walks its super
+ * types, like the type matchers do when the classes are loaded. The number of type descriptions
+ * parsed from class file bytes is reported as a secondary result. A maximum cache size equal to
+ * the initial size of {@value AgentCachingPoolStrategy#TYPE_CAPACITY} disables the growth of the
+ * cache.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypePoolCacheBenchmark {
+
+  private static final int HIERARCHIES = 50;
+  private static final int DEPTH = 20;
+  private static final int INTERFACES_PER_CLASS = 2;
+
+  @Param({"64", "1024"})
+  public int maxTypeCapacity;
+
+  private final List<String> classNames = new ArrayList<>();
+  private AgentLocationStrategy locationStrategy;
+  private AgentCachingPoolStrategy poolStrategy;
+  private ClassLoader classLoader;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Map<String, byte[]> classes = new HashMap<>();
+    for (int hierarchy = 0; hierarchy < HIERARCHIES; hierarchy++) {
+      TypeDescription superClass = TypeDescription.ForLoadedType.of(Object.class);
+      for (int level = 0; level < DEPTH; level++) {
+        List<TypeDescription> interfaces = new ArrayList<>();
+        for (int i = 0; i < INTERFACES_PER_CLASS; i++) {
+          String name = "synthetic.h" + hierarchy + ".Interface" + level + "_" + i;
+          interfaces.add(define(classes, new ByteBuddy().makeInterface().name(name)));
+        }
+        String name = "synthetic.h" + hierarchy + ".Class" + level;
+        superClass =
+            define(
+                classes, new ByteBuddy().subclass(superClass).implement(interfaces).name(name));
+        classNames.add(name);
+      }
+    }
+    locationStrategy =
+        new AgentLocationStrategy(
+            null, Collections.singletonList(new ClassFileLocator.Simple(classes)));
+  }
+
+  private static TypeDescription define(
+      Map<String, byte[]> classes, DynamicType.Builder<?> builder) {
+    DynamicType.Unloaded<?> type = builder.make();
+    classes.put(type.getTypeDescription().getName(), type.getBytes());
+    return type.getTypeDescription();
+  }
+
+  @Setup(Level.Invocation)
+  public void newClassLoader() {
+    // start every invocation with empty caches, like at application startup
+    poolStrategy = new AgentCachingPoolStrategy(locationStrategy, maxTypeCapacity);
+    classLoader = new URLClassLoader(new URL[0], null);
+  }
+
+  @Benchmark
+  public int describeTypes(TypeDescriptionParses parses) {
+    long before = parses.read();
+    TypePool typePool =
+        poolStrategy.typePool(locationStrategy.classFileLocator(classLoader), classLoader);
+    int superTypes = 0;
+    for (String className : classNames) {
+      superTypes += countSuperTypes(typePool.describe(className).resolve());
+    }
+    parses.typeDescriptionParses += parses.read() - before;
+    return superTypes;
+  }
+
+  private static int countSuperTypes(TypeDefinition type) {
+    int count = 0;
+    for (TypeDefinition current = type; current != null; ) {
+      for (TypeDescription.Generic interfaceType : current.getInterfaces()) {
+        count += 1 + countSuperTypes(interfaceType);
+      }
+      TypeDescription.Generic superClass = current.getSuperClass();
+      if (superClass != null) {
+        count++;
+      }
+      current = superClass;
+    }
+    return count;
+  }
+
+  /** Reads the number of type descriptions that were parsed from class file bytes. */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class TypeDescriptionParses {
+    public long typeDescriptionParses;
+
+    private final SupportabilityMetrics.CacheCounters counters =
+        SupportabilityMetrics.instance().cacheCounters("type_pool");
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      typeDescriptionParses = 0;
+    }
+
+    long read() {
+      return counters.getMisses();
+    }
+  }
+}
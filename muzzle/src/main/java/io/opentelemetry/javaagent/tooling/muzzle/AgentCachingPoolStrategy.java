@@ -7,7 +7,9 @@ package io.opentelemetry.javaagent.tooling.muzzle;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 import io.opentelemetry.javaagent.bootstrap.InstrumentationHolder;
 import io.opentelemetry.javaagent.bootstrap.field.VirtualFieldAccessorMarker;
 import java.lang.instrument.Instrumentation;
@@ -15,7 +17,10 @@ import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import net.bytebuddy.agent.builder.AgentBuilder;
@@ -33,19 +38,15 @@ import net.bytebuddy.pool.TypePool;
 import net.bytebuddy.utility.JavaModule;
 
 /**
+ * A {@link AgentBuilder.PoolStrategy} that caches the type resolutions of each class loader
+ * separately, so that loading many classes in one class loader does not evict the resolutions of
+ * another one.
  *
- *
- * <ul>
- *   There two core parts to the cache...
- *   <li>a cache of ClassLoader to WeakReference&lt;ClassLoader&gt;
- *   <li>a single cache of TypeResolutions for all ClassLoaders - keyed by a custom composite key of
- *       ClassLoader and class name
- * </ul>
- *
- * <p>This design was chosen to create a single limited size cache that can be adjusted for the
- * entire application -- without having to create a large number of WeakReference objects.
- *
- * <p>Eviction is handled through a size restriction
+ * <p>The cache of a class loader starts small and doubles its capacity whenever as many entries
+ * were evicted from it as it can hold, which happens while the class loader loads a large class
+ * graph, for example during application startup. The capacity is limited by {@code
+ * otel.javaagent.experimental.type-pool-cache.max-size}. The cache is dropped together with its
+ * class loader.
  */
 public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
 
@@ -57,33 +58,31 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
   private static final Method findLoadedClassMethod = getFindLoadedClassMethod();
 
   static final int TYPE_CAPACITY = 64;
+  static final int MAX_TYPE_CAPACITY =
+      ConfigPropertiesUtil.getInt("otel.javaagent.experimental.type-pool-cache.max-size", 1024);
 
-  static final int BOOTSTRAP_HASH = 7236344; // Just a random number
-
-  /**
-   * Cache of recent ClassLoader WeakReferences; used to...
-   *
-   * <ul>
-   *   <li>Reduced number of WeakReferences created
-   *   <li>Allow for quick fast path equivalence check of composite keys
-   * </ul>
-   */
-  final Cache<ClassLoader, WeakReference<ClassLoader>> loaderRefCache = Cache.weak();
+  // misses are the number of type descriptions parsed from class file bytes
+  private static final SupportabilityMetrics.CacheCounters cacheCounters =
+      SupportabilityMetrics.instance().cacheCounters("type_pool");
 
-  /**
-   * Single shared Type.Resolution cache -- uses a composite key -- conceptually of loader & name
-   */
-  final Cache<TypeCacheKey, TypePool.Resolution> sharedResolutionCache =
-      Cache.bounded(TYPE_CAPACITY);
+  /** Type resolution caches of each class loader. */
+  final Cache<ClassLoader, ResolutionCache> resolutionCaches = Cache.weak();
 
   // fast path for bootstrap
-  final SharedResolutionCacheAdapter bootstrapCacheProvider =
-      new SharedResolutionCacheAdapter(BOOTSTRAP_HASH, null, sharedResolutionCache);
+  final ResolutionCache bootstrapResolutionCache;
 
   private final AgentLocationStrategy locationStrategy;
+  private final int maxTypeCapacity;
 
   public AgentCachingPoolStrategy(AgentLocationStrategy locationStrategy) {
+    this(locationStrategy, MAX_TYPE_CAPACITY);
+  }
+
+  // visible for testing
+  AgentCachingPoolStrategy(AgentLocationStrategy locationStrategy, int maxTypeCapacity) {
     this.locationStrategy = locationStrategy;
+    this.maxTypeCapacity = maxTypeCapacity;
+    this.bootstrapResolutionCache = new ResolutionCache(null, null, maxTypeCapacity);
   }
 
   private static Method getFindLoadedClassMethod() {
@@ -146,130 +145,63 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
   }
 
   // visible for testing
-  TypePool.CacheProvider getCacheProvider(ClassLoader classLoader) {
+  ResolutionCache getCacheProvider(ClassLoader classLoader) {
     if (classLoader == null) {
-      return bootstrapCacheProvider;
+      return bootstrapResolutionCache;
     }
 
-    WeakReference<ClassLoader> loaderRef =
-        loaderRefCache.computeIfAbsent(classLoader, WeakReference::new);
-
-    int loaderHash = System.identityHashCode(classLoader);
-    return new SharedResolutionCacheAdapter(loaderHash, loaderRef, sharedResolutionCache);
+    return resolutionCaches.computeIfAbsent(
+        classLoader,
+        loader ->
+            new ResolutionCache(
+                new WeakReference<>(loader), bootstrapResolutionCache, maxTypeCapacity));
   }
 
   /**
-   * TypeCacheKey is key for the sharedResolutionCache. Conceptually, it is a mix of ClassLoader &
-   * class name.
-   *
-   * <p>For efficiency & GC purposes, it is actually composed of loaderHash &
-   * WeakReference&lt;ClassLoader&gt;
+   * Type resolution cache of a single class loader, keyed by class name. Holds the class loader
+   * only weakly, so that it can be stored as a value of a map with weak class loader keys.
    *
-   * <p>The loaderHash exists to avoid calling get & strengthening the Reference.
+   * <p>Most class loaders resolve only a few types, so the cache starts as a small synchronized LRU
+   * map and is only replaced by a {@link ConcurrentLinkedHashMap}, which allocates its read
+   * buffers eagerly, once the class loader has evicted as many entries as the small map can hold.
    */
   // visible for testing
-  static final class TypeCacheKey {
-    private final int loaderHash;
-    @Nullable private final WeakReference<ClassLoader> loaderRef;
-    private final String className;
-
-    private final int hashCode;
-
-    TypeCacheKey(int loaderHash, WeakReference<ClassLoader> loaderRef, String className) {
-      // classes in java package are always loaded from boot loader
-      // set loader to boot loader to avoid creating multiple cache entries
-      this.loaderHash = className.startsWith("java.") ? BOOTSTRAP_HASH : loaderHash;
-      this.loaderRef = className.startsWith("java.") ? null : loaderRef;
-      this.className = className;
-
-      hashCode = 31 * this.loaderHash + className.hashCode();
-    }
-
-    @Override
-    public boolean equals(@Nullable Object obj) {
-      if (obj == this) {
-        return true;
-      }
-      if (!(obj instanceof TypeCacheKey)) {
-        return false;
-      }
-
-      TypeCacheKey other = (TypeCacheKey) obj;
-
-      if (loaderHash != other.loaderHash) {
-        return false;
-      }
-
-      if (!className.equals(other.className)) {
-        return false;
-      }
-
-      // Fastpath loaderRef equivalence -- works because of WeakReference cache used
-      // Also covers the bootstrap null loaderRef case
-      if (loaderRef == other.loaderRef) {
-        return true;
-      } else if (loaderRef == null || other.loaderRef == null) {
-        return false;
-      }
-
-      // need to perform a deeper loader check -- requires calling Reference.get
-      // which can strengthen the Reference, so deliberately done last
-
-      // If either reference has gone null, they aren't considered equivalent
-      // Technically, this is a bit of violation of equals semantics, since
-      // two equivalent references can become not equivalent.
-
-      // In this case, it is fine because that means the ClassLoader is no
-      // longer live, so the entries will never match anyway and will fall
-      // out of the cache.
-      ClassLoader thisLoader = loaderRef.get();
-      if (thisLoader == null) {
-        return false;
-      }
-
-      ClassLoader otherLoader = other.loaderRef.get();
-      if (otherLoader == null) {
-        return false;
-      }
-
-      return thisLoader == otherLoader;
-    }
-
-    @Override
-    public int hashCode() {
-      return hashCode;
-    }
-
-    @Override
-    public String toString() {
-      return "TypeCacheKey{"
-          + "loaderHash="
-          + loaderHash
-          + ", loaderRef="
-          + loaderRef
-          + ", className='"
-          + className
-          + '\''
-          + '}';
-    }
-  }
-
-  private static final class SharedResolutionCacheAdapter implements TypePool.CacheProvider {
+  static final class ResolutionCache implements TypePool.CacheProvider {
     private static final String OBJECT_NAME = "java.lang.Object";
     private static final TypePool.Resolution OBJECT_RESOLUTION =
         new TypePool.Resolution.Simple(TypeDescription.ForLoadedType.of(Object.class));
 
-    private final int loaderHash;
-    private final WeakReference<ClassLoader> loaderRef;
-    private final Cache<TypeCacheKey, TypePool.Resolution> sharedResolutionCache;
-
-    SharedResolutionCacheAdapter(
-        int loaderHash,
-        WeakReference<ClassLoader> loaderRef,
-        Cache<TypeCacheKey, TypePool.Resolution> sharedResolutionCache) {
-      this.loaderHash = loaderHash;
+    @Nullable private final WeakReference<ClassLoader> loaderRef;
+    // classes in java package are always loaded from boot loader, use its cache to avoid creating
+    // an entry for them in the cache of every class loader, null for the boot loader
+    @Nullable private final ResolutionCache bootstrapResolutionCache;
+    private final int maxCapacity;
+    private final int initialCapacity;
+    // guarded by this, only used until resolutions is set
+    private final Map<String, TypePool.Resolution> initialResolutions;
+    private int initialEvictions;
+    @Nullable private volatile ConcurrentLinkedHashMap<String, TypePool.Resolution> resolutions;
+    private final AtomicInteger evictions = new AtomicInteger();
+
+    ResolutionCache(
+        @Nullable WeakReference<ClassLoader> loaderRef,
+        @Nullable ResolutionCache bootstrapResolutionCache,
+        int maxCapacity) {
       this.loaderRef = loaderRef;
-      this.sharedResolutionCache = sharedResolutionCache;
+      this.bootstrapResolutionCache = bootstrapResolutionCache;
+      this.maxCapacity = maxCapacity;
+      this.initialCapacity = Math.min(TYPE_CAPACITY, maxCapacity);
+      this.initialResolutions =
+          new LinkedHashMap<String, TypePool.Resolution>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TypePool.Resolution> eldest) {
+              if (size() <= initialCapacity) {
+                return false;
+              }
+              initialEvictions++;
+              return true;
+            }
+          };
     }
 
     @Override
@@ -287,13 +219,10 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
         return null;
       }
 
-      TypePool.Resolution existingResolution =
-          sharedResolutionCache.get(new TypeCacheKey(loaderHash, loaderRef, className));
-      if (existingResolution != null) {
-        return existingResolution;
+      if (bootstrapResolutionCache != null && className.startsWith("java.")) {
+        return bootstrapResolutionCache.get(className);
       }
-
-      return null;
+      return get(className);
     }
 
     @Override
@@ -303,14 +232,91 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
         return resolution;
       }
 
-      sharedResolutionCache.put(new TypeCacheKey(loaderHash, loaderRef, className), resolution);
+      if (bootstrapResolutionCache != null && className.startsWith("java.")) {
+        bootstrapResolutionCache.put(className, resolution);
+      } else {
+        put(className, resolution);
+      }
       return resolution;
     }
 
+    @Nullable
+    private TypePool.Resolution get(String className) {
+      ConcurrentLinkedHashMap<String, TypePool.Resolution> map = resolutions;
+      if (map != null) {
+        return map.get(className);
+      }
+      synchronized (this) {
+        map = resolutions;
+        return map != null ? map.get(className) : initialResolutions.get(className);
+      }
+    }
+
+    private void put(String className, TypePool.Resolution resolution) {
+      ConcurrentLinkedHashMap<String, TypePool.Resolution> map = resolutions;
+      if (map == null) {
+        map = putInitial(className, resolution);
+        if (map == null) {
+          return;
+        }
+      }
+      map.put(className, resolution);
+      long capacity = map.capacity();
+      // the whole cache was replaced since it last grew, the class loader is loading more types
+      // than fit into it
+      if (capacity < maxCapacity && evictions.get() >= capacity) {
+        grow(map, capacity);
+      }
+    }
+
+    /**
+     * Stores the resolution in the initial map, or returns the concurrent map that it has to be
+     * stored in once the initial map is too small for the class loader.
+     */
+    @Nullable
+    private synchronized ConcurrentLinkedHashMap<String, TypePool.Resolution> putInitial(
+        String className, TypePool.Resolution resolution) {
+      ConcurrentLinkedHashMap<String, TypePool.Resolution> map = resolutions;
+      if (map != null) {
+        return map;
+      }
+      initialResolutions.put(className, resolution);
+      if (initialCapacity < maxCapacity && initialEvictions >= initialCapacity) {
+        map =
+            new ConcurrentLinkedHashMap.Builder<String, TypePool.Resolution>()
+                .maximumWeightedCapacity(Math.min(initialCapacity * 2L, maxCapacity))
+                .listener((name, evicted) -> evictions.incrementAndGet())
+                .build();
+        map.putAll(initialResolutions);
+        initialResolutions.clear();
+        resolutions = map;
+      }
+      return null;
+    }
+
+    private synchronized void grow(
+        ConcurrentLinkedHashMap<String, TypePool.Resolution> map, long capacity) {
+      if (map.capacity() == capacity) {
+        map.setCapacity(Math.min(capacity * 2, maxCapacity));
+        evictions.set(0);
+      }
+    }
+
     @Override
     public void clear() {
       // Allowing the high-level eviction policy make the clearing decisions
     }
+
+    // visible for testing
+    long capacity() {
+      ConcurrentLinkedHashMap<String, TypePool.Resolution> map = resolutions;
+      return map != null ? map.capacity() : initialCapacity;
+    }
+
+    // visible for testing
+    boolean usesConcurrentMap() {
+      return resolutions != null;
+    }
   }
 
   /** Based on TypePool.Default.WithLazyResolution */
@@ -348,9 +354,12 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
     private TypePool.Resolution doResolve(String name) {
       TypePool.Resolution resolution = cacheProvider.find(name);
       if (resolution == null) {
+        cacheCounters.recordMiss();
         // calling super.doDescribe that will locate the class bytes and parse them unlike
         // doDescribe in this class that returns a lazy resolution without parsing the class bytes
         resolution = cacheProvider.register(name, super.doDescribe(name));
+      } else {
+        cacheCounters.recordHit();
       }
       return resolution;
     }
@@ -7,9 +7,10 @@ package io.opentelemetry.javaagent.tooling.muzzle;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-import java.lang.ref.WeakReference;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.pool.TypePool;
 import org.junit.jupiter.api.Test;
@@ -17,91 +18,81 @@ import org.junit.jupiter.api.Test;
 class CacheProviderTest {
 
   @Test
-  void keyBootstrapEquivalence() {
-    int loaderHash = AgentCachingPoolStrategy.BOOTSTRAP_HASH;
-    WeakReference<ClassLoader> loaderRef = null;
-
-    AgentCachingPoolStrategy.TypeCacheKey key1 =
-        new AgentCachingPoolStrategy.TypeCacheKey(loaderHash, loaderRef, "foo");
-    AgentCachingPoolStrategy.TypeCacheKey key2 =
-        new AgentCachingPoolStrategy.TypeCacheKey(loaderHash, loaderRef, "foo");
-
-    assertThat(key1).hasSameHashCodeAs(key2).isEqualTo(key2);
-  }
+  void javaTypesAreCachedForBootstrap() {
+    AgentCachingPoolStrategy poolStrat = new AgentCachingPoolStrategy(null);
 
-  @Test
-  void keySameRefEquivalence() {
     ClassLoader loader = newClassLoader();
-    int loaderHash = loader.hashCode();
-    WeakReference<ClassLoader> loaderRef = new WeakReference<>(loader);
 
-    AgentCachingPoolStrategy.TypeCacheKey key1 =
-        new AgentCachingPoolStrategy.TypeCacheKey(loaderHash, loaderRef, "foo");
-    AgentCachingPoolStrategy.TypeCacheKey key2 =
-        new AgentCachingPoolStrategy.TypeCacheKey(loaderHash, loaderRef, "foo");
+    TypePool.CacheProvider cacheProvider = poolStrat.getCacheProvider(loader);
+
+    TypePool.Resolution resolution = newVoid();
+    cacheProvider.register("java.foo", resolution);
 
-    assertThat(key1).hasSameHashCodeAs(key2).isEqualTo(key2);
+    assertThat(poolStrat.getCacheProvider(null).find("java.foo")).isSameAs(resolution);
     // use loader to ensures that it isn't collected before the test completes
     assertThat(loader).isNotNull();
   }
 
   @Test
-  void keyDifferentRefEquivalence() {
+  void capacityGrowsWhenEntriesAreEvicted() {
+    AgentCachingPoolStrategy poolStrat = new AgentCachingPoolStrategy(null, 256);
+
     ClassLoader loader = newClassLoader();
-    int loaderHash = loader.hashCode();
-    WeakReference<ClassLoader> loaderRef1 = new WeakReference<>(loader);
-    WeakReference<ClassLoader> loaderRef2 = new WeakReference<>(loader);
 
-    AgentCachingPoolStrategy.TypeCacheKey key1 =
-        new AgentCachingPoolStrategy.TypeCacheKey(loaderHash, loaderRef1, "foo");
-    AgentCachingPoolStrategy.TypeCacheKey key2 =
-        new AgentCachingPoolStrategy.TypeCacheKey(loaderHash, loaderRef2, "foo");
+    AgentCachingPoolStrategy.ResolutionCache cacheProvider = poolStrat.getCacheProvider(loader);
+    assertThat(cacheProvider.capacity()).isEqualTo(AgentCachingPoolStrategy.TYPE_CAPACITY);
 
-    assertThat(loaderRef1).isNotSameAs(loaderRef2);
+    for (int i = 0; i < 1000; i++) {
+      cacheProvider.register("foo" + i, newVoid());
+    }
 
-    assertThat(key1).hasSameHashCodeAs(key2).isEqualTo(key2);
+    assertThat(cacheProvider.capacity()).isEqualTo(256);
+    assertThat(cacheProvider.find("foo999")).isNotNull();
+    // other class loaders are not affected
+    assertThat(poolStrat.getCacheProvider(newClassLoader()).capacity())
+        .isEqualTo(AgentCachingPoolStrategy.TYPE_CAPACITY);
     // use loader to ensures that it isn't collected before the test completes
     assertThat(loader).isNotNull();
   }
 
   @Test
-  void keyMismatchSameLoaderDifferentName() {
-    ClassLoader loader = newClassLoader();
-    int loaderHash = loader.hashCode();
-    WeakReference<ClassLoader> loaderRef = new WeakReference<>(loader);
-    AgentCachingPoolStrategy.TypeCacheKey fooKey =
-        new AgentCachingPoolStrategy.TypeCacheKey(loaderHash, loaderRef, "foo");
-    AgentCachingPoolStrategy.TypeCacheKey barKey =
-        new AgentCachingPoolStrategy.TypeCacheKey(loaderHash, loaderRef, "bar");
-
-    // not strictly guaranteed -- but important for performance
-    assertThat(fooKey.hashCode()).isNotEqualTo(barKey.hashCode());
-    assertThat(fooKey).isNotEqualTo(barKey);
-    // use loader to ensures that it isn't collected before the test completes
-    assertThat(loader).isNotNull();
+  void smallClassLoadersDoNotCreateConcurrentMaps() {
+    AgentCachingPoolStrategy poolStrat = new AgentCachingPoolStrategy(null);
+
+    List<ClassLoader> loaders = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      ClassLoader loader = newClassLoader();
+      loaders.add(loader);
+      AgentCachingPoolStrategy.ResolutionCache cacheProvider = poolStrat.getCacheProvider(loader);
+      cacheProvider.register("foo", newVoid());
+      cacheProvider.register("bar", newVoid());
+    }
+
+    for (ClassLoader loader : loaders) {
+      AgentCachingPoolStrategy.ResolutionCache cacheProvider = poolStrat.getCacheProvider(loader);
+      assertThat(cacheProvider.find("foo")).isNotNull();
+      assertThat(cacheProvider.find("bar")).isNotNull();
+      assertThat(cacheProvider.usesConcurrentMap()).isFalse();
+    }
   }
 
   @Test
-  void keyMismatchSameNameDifferentLoader() {
-    ClassLoader loader1 = newClassLoader();
-    int loader1Hash = loader1.hashCode();
-    WeakReference<ClassLoader> loaderRef1 = new WeakReference<>(loader1);
+  void concurrentMapIsCreatedWhenEntriesAreEvicted() {
+    AgentCachingPoolStrategy poolStrat = new AgentCachingPoolStrategy(null, 256);
 
-    ClassLoader loader2 = newClassLoader();
-    int loader2Hash = loader2.hashCode();
-    WeakReference<ClassLoader> loaderRef2 = new WeakReference<>(loader2);
+    ClassLoader loader = newClassLoader();
 
-    AgentCachingPoolStrategy.TypeCacheKey fooKey1 =
-        new AgentCachingPoolStrategy.TypeCacheKey(loader1Hash, loaderRef1, "foo");
-    AgentCachingPoolStrategy.TypeCacheKey fooKey2 =
-        new AgentCachingPoolStrategy.TypeCacheKey(loader2Hash, loaderRef2, "foo");
+    AgentCachingPoolStrategy.ResolutionCache cacheProvider = poolStrat.getCacheProvider(loader);
+    for (int i = 0; i < AgentCachingPoolStrategy.TYPE_CAPACITY * 2; i++) {
+      cacheProvider.register("foo" + i, newVoid());
+    }
 
-    // not strictly guaranteed -- but important for performance
-    assertThat(fooKey1.hashCode()).isNotEqualTo(fooKey2.hashCode());
-    assertThat(fooKey1).isNotEqualTo(fooKey2);
+    assertThat(cacheProvider.usesConcurrentMap()).isTrue();
+    // the most recent entries are moved to the concurrent map
+    assertThat(cacheProvider.find("foo" + (AgentCachingPoolStrategy.TYPE_CAPACITY * 2 - 1)))
+        .isNotNull();
     // use loader to ensures that it isn't collected before the test completes
-    assertThat(loader1).isNotNull();
-    assertThat(loader2).isNotNull();
+    assertThat(loader).isNotNull();
   }
 
   @Test